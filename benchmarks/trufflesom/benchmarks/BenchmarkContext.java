@@ -0,0 +1,64 @@
+package trufflesom.benchmarks;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Context.Builder;
+
+import trufflesom.Launcher;
+import trufflesom.bdt.source.SourceCoordinate;
+import trufflesom.compiler.SourcecodeCompiler.AstCompiler;
+import trufflesom.compiler.SourcecodeCompiler.BcCompiler;
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.interpreter.objectstorage.StorageAnalyzer;
+import trufflesom.vm.Classes;
+import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
+
+
+/**
+ * Sets up the VM for the benchmarks. The interpreter is selected with
+ * {@code -Dsom.interp=AST} or {@code -Dsom.interp=BC}, which can be passed to the forked JVMs
+ * with the {@code -jvmArgs} option of JMH.
+ */
+public final class BenchmarkContext {
+  /** The directory with the core library, set with {@code -Dsom.coreLib}. */
+  public static final String CORE_LIB = System.getProperty("som.coreLib", "Smalltalk");
+
+  private BenchmarkContext() {}
+
+  /** Prepare the VM for the creation of a new context. */
+  public static void initVm() {
+    StorageAnalyzer.initAccessors();
+    Classes.reset();
+
+    if (VmSettings.UseAstInterp) {
+      Universe.setSourceCompiler(new AstCompiler(), true);
+    } else {
+      Universe.setSourceCompiler(new BcCompiler(), true);
+    }
+  }
+
+  /**
+   * Create a context and enter it, so that benchmarks can use the compiler and create
+   * methods directly. The context needs to be closed with {@link #leave(Context)}.
+   */
+  public static Context enter() {
+    initVm();
+
+    Builder builder = Launcher.createContextBuilder();
+    builder.logHandler(System.err);
+
+    Context context = builder.build();
+    context.eval(SomLanguage.INIT);
+
+    Universe.selfSource = SomLanguage.getSyntheticSource("self", "self");
+    Universe.selfCoord = SourceCoordinate.createEmpty();
+
+    context.enter();
+    return context;
+  }
+
+  public static void leave(final Context context) {
+    context.leave();
+    context.close();
+  }
+}
@@ -0,0 +1,270 @@
+package trufflesom.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Context.Builder;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trufflesom.Launcher;
+import trufflesom.interpreter.SomLanguage;
+
+
+/**
+ * Runs small SOM programs through a polyglot {@link Context}, either only in the interpreter,
+ * or with the Truffle compiler if the JVM has one.
+ *
+ * <p>
+ * Each snippet is a method on the class side of the {@code Snippets} class, which is loaded
+ * from a temporary directory together with the core library. The {@code blockAllocation}
+ * snippet returns the number of bytes it allocated, as reported by {@code System>>#gcStats}.
+ * The two {@code json} snippets serialize the same records, once by concatenating strings,
+ * which copies the whole string built so far for every piece, and once with the
+ * {@code StringBuilder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnippetBenchmarks {
+
+  private static final String SNIPPETS = """
+      Snippets = (
+        ----
+        loop = (
+          | sum |
+          sum := 0.
+          1 to: 100000 do: [:i | sum := sum + i ].
+          ^ sum
+        )
+
+        fib: n = (
+          n < 2 ifTrue: [ ^ n ].
+          ^ (self fib: n - 1) + (self fib: n - 2)
+        )
+
+        recursion = ( ^ self fib: 22 )
+
+        arrays = (
+          | arr sum |
+          arr := Array new: 1000.
+          1 to: 1000 do: [:i | arr at: i put: i ].
+          sum := 0.
+          arr do: [:e | sum := sum + e ].
+          ^ sum
+        )
+
+        blocks = (
+          | sum add |
+          sum := 0.
+          add := [:a :b | a + b ].
+          1 to: 10000 do: [:i | sum := add value: sum with: i ].
+          ^ sum
+        )
+
+        find: n in: arr = (
+          arr do: [:e | e = n ifTrue: [ ^ e ] ].
+          ^ nil
+        )
+
+        nonLocalReturn = (
+          | arr sum |
+          arr := Array new: 100.
+          1 to: 100 do: [:i | arr at: i put: i ].
+          sum := 0.
+          1 to: 1000 do: [:i | sum := sum + (self find: i \\\\ 100 + 1 in: arr) ].
+          ^ sum
+        )
+
+        detect: aBlock in: arr = (
+          arr do: [:e | (aBlock value: e) ifTrue: [ ^ e ] ].
+          ^ nil
+        )
+
+        earlyExit = (
+          | arr sum |
+          arr := Array new: 1000000.
+          1 to: 1000000 do: [:i | arr at: i put: i ].
+          sum := 0.
+          1 to: 100000 do: [:i |
+            sum := sum + (self detect: [:e | e = (i \\\\ 100 + 1) ] in: arr) ].
+          ^ sum
+        )
+
+        strings = (
+          | str |
+          str := ''.
+          1 to: 500 do: [:i | str := str , i asString ].
+          ^ str length
+        )
+
+        slotOf: key in: keys = (
+          | idx |
+          idx := key hashcode \\\\ keys length + 1.
+          [ | k | k := keys at: idx. k isNil or: [ k == key ] ] whileFalse: [
+            idx := idx \\\\ keys length + 1 ].
+          ^ idx
+        )
+
+        put: key value: value keys: keys values: values = (
+          | idx |
+          idx := self slotOf: key in: keys.
+          keys at: idx put: key.
+          values at: idx put: value
+        )
+
+        hashTable = (
+          | objects keys values sum |
+          objects := Array new: 1000000.
+          1 to: 1000000 do: [:i | objects at: i put: Object new ].
+          keys := Array new: 2097152.
+          values := Array new: 2097152.
+          1 to: 1000000 do: [:i |
+            self put: (objects at: i) value: i keys: keys values: values ].
+          sum := 0.
+          objects do: [:o |
+            sum := sum + (values at: (self slotOf: o in: keys)) ].
+          ^ sum
+        )
+
+        hashMap = (
+          | map sum |
+          map := HashMap new.
+          1 to: 100000 do: [:i | map at: i put: i ].
+          1 to: 100000 do: [:i | map at: i asString put: i ].
+          sum := 0.
+          1 to: 100000 do: [:i | sum := sum + (map at: i) + (map at: i asString) ].
+          ^ sum
+        )
+
+        growableArray = (
+          | queue sum |
+          queue := GrowableArray new.
+          1 to: 100000 do: [:i |
+            queue add: i.
+            i \\\\ 3 = 0 ifTrue: [ queue removeFirst ] ].
+          sum := 0.
+          queue do: [:e | sum := sum + e ].
+          ^ sum
+        )
+
+        blockAllocation = (
+          | arr before |
+          arr := Array new: 10.
+          before := system gcStats at: 3.
+          1 to: 100000 do: [:i |
+            arr do: [:e | e ].
+            arr doIndexes: [:j | j ] ].
+          ^ (system gcStats at: 3) - before
+        )
+
+        tokenize = (
+          | str digits letters spaces quotes |
+          str := ''.
+          1 to: 1000 do: [:i | str := str , '{"key' , i asString , '": [true, 1.5e3]} ' ].
+          digits := 0. letters := 0. spaces := 0. quotes := 0.
+          1 to: str length do: [:i | | c |
+            c := str charAt: i.
+            c isDigits ifTrue: [ digits := digits + 1 ].
+            c isLetters ifTrue: [ letters := letters + 1 ].
+            c isWhiteSpace ifTrue: [ spaces := spaces + 1 ].
+            (str charCodeAt: i) = 34 ifTrue: [ quotes := quotes + 1 ] ].
+          ^ digits + letters + spaces + quotes
+        )
+
+        jsonRecords = (
+          | records |
+          records := Array new: 1000.
+          1 to: 1000 do: [:i |
+            records at: i put: (Array with: 'record' with: i with: i * 1.5) ].
+          ^ records
+        )
+
+        jsonConcatenate = (
+          | records str |
+          records := self jsonRecords.
+          str := '['.
+          records doIndexes: [:i | | r |
+            r := records at: i.
+            str := str , '{"name": "' , (r at: 1) , '", "id": ' , (r at: 2) asString ,
+              ', "value": ' , (r at: 3) asString , '}'.
+            i < records length ifTrue: [ str := str , ', ' ] ].
+          ^ (str , ']') length
+        )
+
+        jsonStringBuilder = (
+          | records sb |
+          records := self jsonRecords.
+          sb := StringBuilder new.
+          sb append: '['.
+          records doIndexes: [:i | | r |
+            r := records at: i.
+            sb append: '{"name": "'; append: (r at: 1);
+               append: '", "id": '; append: (r at: 2);
+               append: ', "value": '; append: (r at: 3); append: '}'.
+            i < records length ifTrue: [ sb append: ', ' ] ].
+          sb append: ']'.
+          ^ sb asString length
+        )
+      )
+      """;
+
+  @Param({"loop", "recursion", "arrays", "blocks", "nonLocalReturn", "earlyExit", "strings",
+      "hashTable", "hashMap", "growableArray", "blockAllocation", "tokenize",
+      "jsonConcatenate", "jsonStringBuilder"})
+  public String snippet;
+
+  @Param({"interpreter", "jit"}) public String mode;
+
+  private Path dir;
+  private Context context;
+
+  @Setup
+  public void setup() throws IOException {
+    dir = Files.createTempDirectory("som-snippets");
+    Files.writeString(dir.resolve("Snippets.som"), SNIPPETS);
+
+    BenchmarkContext.initVm();
+
+    Builder builder = Launcher.createContextBuilder();
+    builder.logHandler(System.err);
+    builder.option("som.CLASS_PATH", BenchmarkContext.CORE_LIB + File.pathSeparator + dir);
+    builder.option("som.TEST_CLASS", "Snippets");
+    builder.option("som.TEST_SELECTOR", snippet);
+    if ("interpreter".equals(mode)) {
+      builder.option("engine.Compilation", "false");
+    }
+
+    context = builder.build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    context.close();
+    Files.delete(dir.resolve("Snippets.som"));
+    Files.delete(dir);
+  }
+
+  @Benchmark
+  public Value run() {
+    return context.eval(SomLanguage.START);
+  }
+}
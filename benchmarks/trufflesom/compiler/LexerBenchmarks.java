@@ -0,0 +1,89 @@
+package trufflesom.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trufflesom.benchmarks.BenchmarkContext;
+
+
+/**
+ * Measures the throughput of the {@link Lexer} and the {@link CharArrayLexer} on the .som
+ * files of the core library, and on a generated class with many methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmarks {
+
+  private static final int NUM_GENERATED_METHODS = 5000;
+
+  @Param({"Lexer", "CharArrayLexer"}) public String lexer;
+
+  @Param({"core-lib", "generated"}) public String input;
+
+  private List<String> sources;
+
+  /** @return methods with a bit of everything, to be put into a class or parsed one by one */
+  static String generateMethods(final int numMethods) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < numMethods; i++) {
+      sb.append("  method").append(i).append(": arg with: other = (\n");
+      sb.append("    | local |\n");
+      sb.append("    \"a comment\"\n");
+      sb.append("    local := arg + ").append(i).append(" * other.\n");
+      sb.append("    ^ local > 0 ifTrue: [ 'positive' ] ifFalse: [ #negative ]\n");
+      sb.append("  )\n");
+    }
+    return sb.toString();
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    sources = new ArrayList<>();
+    if ("generated".equals(input)) {
+      sources.add("Generated = (\n" + generateMethods(NUM_GENERATED_METHODS) + ")\n");
+      return;
+    }
+
+    File[] files =
+        new File(BenchmarkContext.CORE_LIB).listFiles((d, name) -> name.endsWith(".som"));
+    if (files == null || files.length == 0) {
+      throw new IOException("No .som files found in " + BenchmarkContext.CORE_LIB);
+    }
+    for (File f : files) {
+      sources.add(Files.readString(f.toPath()));
+    }
+  }
+
+  @Benchmark
+  public int lex() {
+    boolean charArray = "CharArrayLexer".equals(lexer);
+    int length = 0;
+    for (String s : sources) {
+      Lexer l = charArray ? CharArrayLexer.lex(s) : new Lexer(s);
+      while (l.getSym() != Symbol.NONE) {
+        length += l.getText().length();
+      }
+    }
+    return length;
+  }
+}
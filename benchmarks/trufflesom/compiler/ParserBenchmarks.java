@@ -0,0 +1,89 @@
+package trufflesom.compiler;
+
+import static trufflesom.vm.SymbolTable.strSelf;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.bdt.basic.ProgramDefinitionError;
+import trufflesom.bdt.source.SourceCoordinate;
+import trufflesom.benchmarks.BenchmarkContext;
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.interpreter.nodes.ExpressionNode;
+
+
+/**
+ * Measures how fast the {@link ParserAst} and the {@link ParserBc} turn methods into
+ * invokables, including lexing and the assembly of the method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmarks {
+
+  private static final int NUM_METHODS = 1000;
+
+  @Param({"AST", "BC"}) public String parser;
+
+  private Context context;
+
+  private String content;
+  private Source source;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkContext.enter();
+    content = LexerBenchmarks.generateMethods(NUM_METHODS);
+    source = SomLanguage.getSyntheticSource(content, "Generated");
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkContext.leave(context);
+  }
+
+  private static <MGenC extends MethodGenerationContext> int parseMethods(
+      final Parser<MGenC> parser, final ClassGenerationContext cgenc)
+      throws ProgramDefinitionError {
+    int numMethods = 0;
+    while (parser.sym != Symbol.NONE) {
+      MGenC mgenc = parser.createMGenC(cgenc, null);
+      mgenc.addArgumentIfAbsent(strSelf, SourceCoordinate.create(1, 1));
+
+      ExpressionNode body = parser.method(mgenc);
+      mgenc.assemble(body, parser.lastMethodsCoord);
+      numMethods += 1;
+    }
+    return numMethods;
+  }
+
+  @Benchmark
+  public int parse() throws ProgramDefinitionError {
+    ClassGenerationContext cgenc = new ClassGenerationContext(source, null);
+    cgenc.setName(symbolFor("Generated"));
+
+    if ("AST".equals(parser)) {
+      return parseMethods(new ParserAst(content, source, null), cgenc);
+    }
+    return parseMethods(new ParserBc(content, source, null), cgenc);
+  }
+}
@@ -0,0 +1,101 @@
+package trufflesom.interpreter.objectstorage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SObject;
+
+
+/**
+ * Measures the allocation of objects and the access to their fields through the
+ * {@link StorageLocation}s of their {@link ObjectLayout}. Even fields hold integers, odd
+ * fields hold objects.
+ *
+ * <p>
+ * Run it with {@code -jvmArgs -Dsom.largeObjectLayout=true} to measure the layout for objects
+ * with more than five fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmarks {
+
+  private static final int OBJECTS = 100;
+
+  @Param({"4", "8", "12", "20"}) public int numFields;
+
+  private SClass clazz;
+  private ObjectLayout layout;
+
+  private StorageLocation[] locations;
+  private SObject[] objects;
+
+  @Setup
+  public void setup() {
+    StorageAnalyzer.initAccessors();
+
+    clazz = new SClass(numFields);
+
+    // initialize the fields once, to settle the layout of the class
+    SObject obj = SObject.create(clazz);
+    for (int i = 0; i < numFields; i++) {
+      obj.setUninitializedField(i, initialValue(i));
+    }
+    layout = clazz.getLayoutForInstances();
+
+    locations = new StorageLocation[layout.getNumberOfFields()];
+    for (int i = 0; i < locations.length; i++) {
+      locations[i] = layout.getStorageLocation(i);
+    }
+
+    objects = new SObject[OBJECTS];
+    for (int i = 0; i < OBJECTS; i++) {
+      objects[i] = allocate();
+    }
+  }
+
+  private static Object initialValue(final int fieldIndex) {
+    if (fieldIndex % 2 == 0) {
+      return (long) fieldIndex;
+    }
+    return Integer.toString(fieldIndex);
+  }
+
+  @Benchmark
+  public SObject allocate() {
+    SObject obj = SObject.create(clazz, layout);
+    for (int f = 0; f < locations.length; f++) {
+      locations[f].write(obj, initialValue(f));
+    }
+    return obj;
+  }
+
+  @Benchmark
+  public void access(final Blackhole bh) {
+    for (SObject obj : objects) {
+      for (int f = 0; f < locations.length; f += 2) {
+        long value = (long) locations[f].read(obj);
+        locations[f].write(obj, value + 1);
+      }
+      for (int f = 1; f < locations.length; f += 2) {
+        bh.consume(locations[f].read(obj));
+      }
+    }
+  }
+}
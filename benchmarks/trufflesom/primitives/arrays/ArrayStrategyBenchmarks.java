@@ -0,0 +1,97 @@
+package trufflesom.primitives.arrays;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trufflesom.vmobjects.SArray;
+
+
+/**
+ * Measures the storage strategies of {@link SArray} with the specializations of
+ * {@link AtPutPrim}: filling a new array, which goes from empty over partially empty to a
+ * specialized storage, the generalization of a specialized storage, and stores into an
+ * array that does not change its storage anymore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayStrategyBenchmarks {
+
+  @Param({"16", "1000"}) public int size;
+
+  private long[] longs;
+  private SArray longArray;
+
+  @Setup
+  public void setup() {
+    longs = new long[size];
+    for (int i = 0; i < size; i++) {
+      longs[i] = i;
+    }
+    longArray = SArray.create(longs.clone());
+  }
+
+  /** The array ends up with the smallest storage for its values, byte, char, or long. */
+  @Benchmark
+  public SArray fillIntegers() {
+    SArray arr = new SArray(size);
+    AtPutPrim.doEmptySArray(arr, 1, 0L);
+    for (int i = 2; i <= size; i++) {
+      AtPutPrim.doPartiallyEmptySArray(arr, i, (long) i);
+    }
+    assert !arr.isPartiallyEmptyType();
+    return arr;
+  }
+
+  @Benchmark
+  public SArray fillDoubles() {
+    SArray arr = new SArray(size);
+    AtPutPrim.doEmptySArray(arr, 1, 0.0);
+    for (int i = 2; i <= size; i++) {
+      AtPutPrim.doPartiallyEmptySArray(arr, i, (double) i);
+    }
+    assert arr.isDoubleType();
+    return arr;
+  }
+
+  @Benchmark
+  public SArray fillObjects() {
+    SArray arr = new SArray(size);
+    AtPutPrim.doEmptySArray(arr, 1, (Object) "first");
+    for (int i = 2; i <= size; i++) {
+      AtPutPrim.doObjectSArray(arr, i, (Object) "element");
+    }
+    assert arr.isObjectType();
+    return arr;
+  }
+
+  @Benchmark
+  public SArray longToObject() {
+    SArray arr = SArray.create(longs.clone());
+    AtPutPrim.doLongSArray(arr, 1, "object");
+    assert arr.isObjectType();
+    return arr;
+  }
+
+  @Benchmark
+  public SArray storeLongs() {
+    for (int i = 1; i <= size; i++) {
+      AtPutPrim.doObjectSArray(longArray, i, (long) i);
+    }
+    return longArray;
+  }
+}
@@ -0,0 +1,76 @@
+package trufflesom.vm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Measures {@link SymbolTable#symbolFor(String)} for names that are already symbols, which
+ * is the common case for the parser and for primitives.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolTableBenchmarks {
+
+  private static final int NUM_NAMES = 1024;
+
+  /** The strings of the symbols, as they are passed by the {@code CharArrayLexer}. */
+  private String[] symbolStrings;
+
+  /** Names as character data, to create strings that are equal but not identical. */
+  private char[][] names;
+
+  @Setup
+  public void setup() {
+    symbolStrings = new String[NUM_NAMES];
+    names = new char[NUM_NAMES][];
+    for (int i = 0; i < NUM_NAMES; i++) {
+      String name = (i % 2 == 0 ? "selector" : "keyword:with:") + i;
+      symbolStrings[i] = SymbolTable.symbolFor(name).getString();
+      names[i] = name.toCharArray();
+    }
+  }
+
+  @Benchmark
+  public void symbolString(final Blackhole bh) {
+    for (String s : symbolStrings) {
+      bh.consume(SymbolTable.symbolFor(s));
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void symbolStringContended(final Blackhole bh) {
+    symbolString(bh);
+  }
+
+  /** Like the {@code Lexer}, which creates a new string for every name. */
+  @Benchmark
+  public void newString(final Blackhole bh) {
+    for (char[] name : names) {
+      bh.consume(SymbolTable.symbolFor(new String(name)));
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void newStringContended(final Blackhole bh) {
+    newString(bh);
+  }
+}
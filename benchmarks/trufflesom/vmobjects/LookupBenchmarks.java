@@ -0,0 +1,104 @@
+package trufflesom.vmobjects;
+
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.bdt.source.SourceCoordinate;
+import trufflesom.benchmarks.BenchmarkContext;
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.primitives.Primitives;
+
+
+/**
+ * Measures {@link SClass#lookupInvokable(SSymbol)} on a chain of classes. Selectors found in
+ * a superclass are cached in the subclass, but selectors that are not understood walk the
+ * whole chain every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmarks {
+
+  private static final int NUM_METHODS = 20;
+
+  @Param({"1", "4", "16"}) public int depth;
+
+  private Context context;
+
+  private SClass leaf;
+
+  private SSymbol local;
+  private SSymbol inherited;
+  private SSymbol missing;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkContext.enter();
+
+    Source source = SomLanguage.getSyntheticSource("", "LookupBenchmarks");
+    long coord = SourceCoordinate.create(1, 1);
+
+    SClass superclass = null;
+    for (int c = 0; c < depth; c++) {
+      SClass clazz = new SClass(0);
+      clazz.setName(symbolFor("Class" + c));
+      if (superclass != null) {
+        clazz.setSuperClass(superclass);
+      }
+
+      LinkedHashMap<SSymbol, SInvokable> invokables = new LinkedHashMap<>();
+      for (int m = 0; m < NUM_METHODS; m++) {
+        SSymbol sig = symbolFor("class" + c + "method" + m);
+        invokables.put(sig, Primitives.constructEmptyPrimitive(sig, source, coord, null));
+      }
+      clazz.setInstanceInvokables(invokables, false);
+      superclass = clazz;
+    }
+
+    leaf = superclass;
+    local = symbolFor("class" + (depth - 1) + "method" + (NUM_METHODS / 2));
+    inherited = symbolFor("class0method" + (NUM_METHODS / 2));
+    missing = symbolFor("notUnderstood");
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkContext.leave(context);
+  }
+
+  @Benchmark
+  public SInvokable lookupLocal() {
+    return leaf.lookupInvokable(local);
+  }
+
+  @Benchmark
+  public SInvokable lookupInherited() {
+    return leaf.lookupInvokable(inherited);
+  }
+
+  @Benchmark
+  public SInvokable lookupMissing() {
+    return leaf.lookupInvokable(missing);
+  }
+}
@@ -245,6 +245,16 @@ def tests_junit(args, **kwargs):
     for t in INTERP_TYPES:
         print(f"Run JUnit for {t} interpreter:")
         mx.run_mx(["unittest", "--suite", "trufflesom", "-Dsom.interp=" + t])
+        mx.run_mx(
+            [
+                "unittest",
+                "--suite",
+                "trufflesom",
+                "-Dsom.interp=" + t,
+                "-Dsom.sendSiteStats=true",
+                "SendSiteStatisticsTests",
+            ]
+        )
 
 
 @mx.command(suite.name, "tests-som")
@@ -325,6 +335,24 @@ def tests_native(args, **kwargs):
         sys.exit(1)
 
 
+@mx.command(suite.name, "jmh")
+def jmh(args, **kwargs):
+    """run the JMH benchmarks, arguments are passed to JMH"""
+    for t in INTERP_TYPES:
+        print(f"Run JMH benchmarks on {t} interpreter:")
+        mx.run_mx(
+            [
+                "benchmark",
+                "jmh-dist:TRUFFLESOM_BENCHMARKS",
+                "--",
+                "-Dsom.interp=" + t,
+                "-Dsom.coreLib=" + suite.dir + "/Smalltalk",
+                "--",
+            ]
+            + args
+        )
+
+
 @mx.command(suite.name, "tests-nodestats")
 def tests_nodestats(args, **kwargs):
     """run nodestats tests"""
@@ -70,6 +70,17 @@ suite = {
             "annotationProcessors": ["truffle:TRUFFLE_DSL_PROCESSOR"],
             "testProject": True,
         },
+        "benchmarks": {
+            "dir": ".",
+            "sourceDirs": ["benchmarks"],
+            "dependencies": ["truffle:TRUFFLE_API", "TRUFFLESOM", "mx:JMH_1_21"],
+            "checkstyle": "trufflesom",
+            "jacoco": "exclude",
+            "javaCompliance": "17+",
+            "workingSets": "TruffleSOM",
+            "annotationProcessors": ["mx:JMH_1_21", "truffle:TRUFFLE_DSL_PROCESSOR"],
+            "testProject": True,
+        },
     },
     "distributions": {
         "TRUFFLESOM": {
@@ -98,5 +109,13 @@ suite = {
             "distDependencies": ["TRUFFLESOM", "truffle:TRUFFLE_TEST"],
             "testDistribution": True,
         },
+        "TRUFFLESOM_BENCHMARKS": {
+            "description": "TruffleSOM JMH Benchmarks",
+            "javaCompliance": "17+",
+            "dependencies": ["benchmarks"],
+            "distDependencies": ["TRUFFLESOM"],
+            "testDistribution": True,
+            "maven": False,
+        },
     },
 }
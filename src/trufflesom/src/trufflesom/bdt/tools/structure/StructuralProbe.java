@@ -14,8 +14,9 @@ import org.graalvm.collections.EconomicSet;
  * tool using the data.
  *
  * <p>
- * <strong>Synchronization:</strong> There is an assumption that these probes may be accessed
- * by multiple threads. At the moment, we only do minimal synchronization.
+ * <strong>Synchronization:</strong> These probes may be accessed by multiple threads, for
+ * instance when classes are parsed concurrently. All accesses synchronize on the probe, and
+ * the getters return copies, so that they can be iterated while parsing continues.
  * This may need to become more sophisticated in case it turns out that performance is an
  * issue.
  *
@@ -60,11 +61,11 @@ public class StructuralProbe<Id, Klass, Method, Slot, Variable> {
     variables.add(var);
   }
 
-  public EconomicSet<Klass> getClasses() {
-    return classes;
+  public synchronized EconomicSet<Klass> getClasses() {
+    return copy(classes);
   }
 
-  public EconomicSet<Method> getMethods() {
+  public synchronized EconomicSet<Method> getMethods() {
     EconomicSet<Method> res = EconomicSet.create();
     for (Method si : methods.getValues()) {
       res.add(si);
@@ -72,15 +73,21 @@ public class StructuralProbe<Id, Klass, Method, Slot, Variable> {
     return res;
   }
 
-  public EconomicSet<Slot> getSlots() {
-    return slots;
+  public synchronized EconomicSet<Slot> getSlots() {
+    return copy(slots);
   }
 
-  public EconomicSet<Variable> getVariables() {
-    return variables;
+  public synchronized EconomicSet<Variable> getVariables() {
+    return copy(variables);
   }
 
-  public Method lookupMethod(final Id id) {
+  public synchronized Method lookupMethod(final Id id) {
     return methods.get(id);
   }
+
+  private static <T> EconomicSet<T> copy(final EconomicSet<T> set) {
+    EconomicSet<T> res = EconomicSet.create(set.size());
+    res.addAll(set);
+    return res;
+  }
 }
@@ -0,0 +1,363 @@
+package trufflesom.compiler;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+
+/**
+ * Lexes a whole source in one pass over its characters, and hands the tokens to the parser
+ * with a {@link ReplayLexer}.
+ *
+ * <p>
+ * The {@link Lexer} builds the text of every token in a {@link StringBuilder}, and copies its
+ * state for every {@link Lexer#peek()}. Here, tokens are recorded as kind, start, and length
+ * in arrays. The texts of names and numbers are only created from the characters when the
+ * parser asks for them, and it is the parser that interns names as symbols. For names that
+ * already are symbols, the {@link ReplayLexer} uses the string of the symbol instead of
+ * creating one. For this, the hashes of the tokens are recorded. Lexing itself does not
+ * touch the symbol table, and can run on any thread.
+ *
+ * <p>
+ * The tokens are the same as the ones of the {@link Lexer}.
+ */
+public final class CharArrayLexer {
+  private static final String SEPARATOR = "----";
+  private static final String PRIMITIVE = "primitive";
+
+  private static final String[] CHAR_STRINGS = new String[128];
+
+  static {
+    for (int i = 0; i < CHAR_STRINGS.length; i++) {
+      CHAR_STRINGS[i] = String.valueOf((char) i).intern();
+    }
+  }
+
+  private final String content;
+  private final char[] chars;
+
+  private int ptr;
+  private int lastNonWhiteCharIdx;
+
+  /** The current token. */
+  private Symbol sym;
+  private String text;
+
+  private Symbol[] syms;
+  private String[] texts;
+  private int[]    starts;
+  private int[]    lengths;
+  private int[]    hashes;
+  private int[]    ends;
+  private int      numTokens;
+
+  /** Lex the content, and return a lexer replaying the tokens. */
+  @TruffleBoundary
+  public static Lexer lex(final String content) {
+    CharArrayLexer lexer = new CharArrayLexer(content);
+    lexer.scan();
+    return new ReplayLexer(content, lexer.chars, Arrays.copyOf(lexer.syms, lexer.numTokens),
+        Arrays.copyOf(lexer.texts, lexer.numTokens),
+        Arrays.copyOf(lexer.starts, lexer.numTokens),
+        Arrays.copyOf(lexer.lengths, lexer.numTokens),
+        Arrays.copyOf(lexer.hashes, lexer.numTokens),
+        Arrays.copyOf(lexer.ends, lexer.numTokens));
+  }
+
+  private CharArrayLexer(final String content) {
+    this.content = content;
+    this.chars = content.toCharArray();
+
+    int initialSize = Math.max(16, chars.length / 4);
+    syms = new Symbol[initialSize];
+    texts = new String[initialSize];
+    starts = new int[initialSize];
+    lengths = new int[initialSize];
+    hashes = new int[initialSize];
+    ends = new int[initialSize];
+  }
+
+  private char charAt(final int p) {
+    return p < chars.length ? chars[p] : '\0';
+  }
+
+  private void scan() {
+    int startPtr = 0;
+    int startNonWhite = 0;
+
+    while (true) {
+      if (!skipWhiteSpaceAndComments()) {
+        record(Symbol.NONE, "", startPtr, 0, startNonWhite);
+        return;
+      }
+
+      startPtr = ptr;
+      startNonWhite = lastNonWhiteCharIdx;
+
+      char c = chars[ptr];
+      switch (c) {
+        case '\'':
+          sym = Symbol.STString;
+          text = lexString();
+          break;
+        case '[':
+          sym = Symbol.NewBlock;
+          text = matchChar();
+          break;
+        case ']':
+          sym = Symbol.EndBlock;
+          text = matchChar();
+          break;
+        case '(':
+          sym = Symbol.NewTerm;
+          text = matchChar();
+          break;
+        case ')':
+          sym = Symbol.EndTerm;
+          text = matchChar();
+          break;
+        case '#':
+          sym = Symbol.Pound;
+          text = matchChar();
+          break;
+        case '^':
+          sym = Symbol.Exit;
+          text = matchChar();
+          break;
+        case '.':
+          sym = Symbol.Period;
+          text = matchChar();
+          break;
+        case ':':
+          if (charAt(ptr + 1) == '=') {
+            ptr += 2;
+            sym = Symbol.Assign;
+            text = ":=";
+          } else {
+            sym = Symbol.Colon;
+            text = matchChar();
+          }
+          break;
+        default:
+          if (c == '-' && nextWordIs(SEPARATOR)) {
+            while (charAt(ptr) == '-') {
+              ptr += 1;
+            }
+            sym = Symbol.Separator;
+            text = null;
+          } else if (isOperator(c)) {
+            if (isOperator(charAt(ptr + 1))) {
+              while (isOperator(charAt(ptr))) {
+                ptr += 1;
+              }
+              sym = Symbol.OperatorSequence;
+              text = null;
+            } else {
+              sym = operator(c);
+              text = matchChar();
+            }
+          } else if (nextWordIs(PRIMITIVE)) {
+            ptr += PRIMITIVE.length();
+            sym = Symbol.Primitive;
+            text = PRIMITIVE;
+          } else if (Character.isLetter(c)) {
+            lexIdentifierOrKeyword();
+          } else if (Character.isDigit(c)) {
+            lexNumber();
+          } else {
+            // unknown character, the parser is going to report the error
+            record(Symbol.NONE, c < CHAR_STRINGS.length ? CHAR_STRINGS[c] : String.valueOf(c),
+                startPtr, 0, startNonWhite);
+            return;
+          }
+      }
+
+      lastNonWhiteCharIdx = ptr;
+      record(sym, text, startPtr, ptr - startPtr, startNonWhite);
+    }
+  }
+
+  /** @return false, if the end of the content was reached */
+  private boolean skipWhiteSpaceAndComments() {
+    while (ptr < chars.length) {
+      char c = chars[ptr];
+      if (c == '"') {
+        ptr += 1;
+        while (ptr < chars.length && chars[ptr] != '"') {
+          ptr += 1;
+        }
+        ptr += 1;
+      } else if (Character.isWhitespace(c)) {
+        ptr += 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param text the text of the token, or {@code null} if it is the {@code length}
+   *          characters from {@code start}
+   */
+  private void record(final Symbol sym, final String text, final int start, final int length,
+      final int nonWhite) {
+    if (numTokens == syms.length) {
+      int newSize = numTokens * 2;
+      syms = Arrays.copyOf(syms, newSize);
+      texts = Arrays.copyOf(texts, newSize);
+      starts = Arrays.copyOf(starts, newSize);
+      lengths = Arrays.copyOf(lengths, newSize);
+      hashes = Arrays.copyOf(hashes, newSize);
+      ends = Arrays.copyOf(ends, newSize);
+    }
+
+    syms[numTokens] = sym;
+    texts[numTokens] = text;
+    starts[numTokens] = start;
+    lengths[numTokens] = length;
+    hashes[numTokens] = text == null ? hash(start, length) : 0;
+    ends[numTokens] = nonWhite;
+    numTokens += 1;
+  }
+
+  /** @return the same hash as {@link String#hashCode()} for the characters */
+  private int hash(final int start, final int length) {
+    int h = 0;
+    for (int i = start; i < start + length; i++) {
+      h = 31 * h + chars[i];
+    }
+    return h;
+  }
+
+  private String matchChar() {
+    char c = chars[ptr];
+    ptr += 1;
+    return c < CHAR_STRINGS.length ? CHAR_STRINGS[c] : String.valueOf(c);
+  }
+
+  private void lexIdentifierOrKeyword() {
+    char c;
+    while (isIdentifierChar(c = charAt(ptr))) {
+      ptr += 1;
+    }
+
+    sym = Symbol.Identifier;
+    if (c == ':') {
+      sym = Symbol.Keyword;
+      ptr += 1;
+
+      if (Character.isLetter(charAt(ptr))) {
+        sym = Symbol.KeywordSequence;
+        while (Character.isLetter(c = charAt(ptr)) || c == ':') {
+          ptr += 1;
+        }
+      }
+    }
+
+    text = null;
+  }
+
+  private void lexNumber() {
+    sym = Symbol.Integer;
+
+    do {
+      ptr += 1;
+      if ('.' == charAt(ptr) && Character.isDigit(charAt(ptr + 1))) {
+        sym = Symbol.Double;
+        ptr += 1;
+      }
+    } while (Character.isDigit(charAt(ptr)));
+
+    text = null;
+  }
+
+  private String lexString() {
+    ptr += 1;
+    int start = ptr;
+
+    // without escapes and quotes, the string is a plain copy of the characters
+    while (ptr < chars.length && chars[ptr] != '\'' && chars[ptr] != '\\') {
+      ptr += 1;
+    }
+    if (ptr >= chars.length || (chars[ptr] == '\'' && charAt(ptr + 1) != '\'')) {
+      String result = new String(chars, start, ptr - start);
+      ptr += 1;
+      return result;
+    }
+
+    StringBuilder sb = new StringBuilder(ptr - start + 16);
+    sb.append(chars, start, ptr - start);
+
+    while (ptr < chars.length && (chars[ptr] != '\'' || charAt(ptr + 1) == '\'')) {
+      char c = chars[ptr];
+      if (c == '\'') {
+        sb.append('\'');
+        ptr += 2;
+      } else if (c == '\\') {
+        ptr += 1;
+        lexEscapeChar(sb);
+      } else {
+        sb.append(c);
+        ptr += 1;
+      }
+    }
+
+    ptr += 1;
+    return sb.toString();
+  }
+
+  private void lexEscapeChar(final StringBuilder sb) {
+    switch (charAt(ptr)) {
+      // @formatter:off
+      case 't': sb.append('\t'); break;
+      case 'b': sb.append('\b'); break;
+      case 'n': sb.append('\n'); break;
+      case 'r': sb.append('\r'); break;
+      case 'f': sb.append('\f'); break;
+      case '0': sb.append('\0'); break;
+      case '\'': sb.append('\''); break;
+      case '\\': sb.append('\\'); break;
+      // @formatter:on
+    }
+    ptr += 1;
+  }
+
+  private boolean nextWordIs(final String text) {
+    if (!content.startsWith(text, ptr)) {
+      return false;
+    }
+    return !isIdentifierChar(charAt(ptr + text.length()));
+  }
+
+  private static Symbol operator(final char c) {
+    switch (c) {
+      // @formatter:off
+      case '~':  return Symbol.Not;
+      case '&':  return Symbol.And;
+      case '|':  return Symbol.Or;
+      case '*':  return Symbol.Star;
+      case '/':  return Symbol.Div;
+      case '\\': return Symbol.Mod;
+      case '+':  return Symbol.Plus;
+      case '=':  return Symbol.Equal;
+      case '>':  return Symbol.More;
+      case '<':  return Symbol.Less;
+      case ',':  return Symbol.Comma;
+      case '@':  return Symbol.At;
+      case '%':  return Symbol.Per;
+      default:   return Symbol.Minus;
+      // @formatter:on
+    }
+  }
+
+  private static boolean isOperator(final char c) {
+    return c == '~' || c == '&' || c == '|' || c == '*' || c == '/'
+        || c == '\\' || c == '+' || c == '=' || c == '>' || c == '<'
+        || c == ',' || c == '@' || c == '%' || c == '-';
+  }
+
+  private static boolean isIdentifierChar(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+}
@@ -27,6 +27,7 @@ package trufflesom.compiler;
 import static trufflesom.vm.SymbolTable.symbolFor;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 
@@ -97,6 +98,11 @@ public final class ClassGenerationContext {
     return superClass;
   }
 
+  /** Return the super class of the instance side, or {@code null} if there is none. */
+  SClass getInstanceSideSuperClass() {
+    return superClass;
+  }
+
   public void setSuperClass(final SClass superClass) {
     this.superClass = superClass;
     setInstanceFieldsOfSuper(superClass.getInstanceFieldDefinitions());
@@ -124,12 +130,20 @@ public final class ClassGenerationContext {
       throw new ParseError(msg, Symbol.NONE, parser);
     }
 
+    addInstanceMethod(meth);
+  }
+
+  void addInstanceMethod(final SInvokable meth) {
     instanceMethods.put(meth.getSignature(), meth);
     if (meth instanceof SPrimitive) {
       instanceHasPrimitives = true;
     }
   }
 
+  Collection<SInvokable> getInstanceMethods() {
+    return instanceMethods.values();
+  }
+
   public void switchToClassSide() {
     classSide = true;
   }
@@ -141,12 +155,30 @@ public final class ClassGenerationContext {
       throw new ParseError(msg, Symbol.NONE, parser);
     }
 
+    addClassMethod(meth);
+  }
+
+  void addClassMethod(final SInvokable meth) {
     classMethods.put(meth.getSignature(), meth);
     if (meth instanceof SPrimitive) {
       classHasPrimitives = true;
     }
   }
 
+  Collection<SInvokable> getClassMethods() {
+    return classMethods.values();
+  }
+
+  /** Includes the fields inherited from the super class. */
+  List<Field> getInstanceFields() {
+    return instanceFields;
+  }
+
+  /** Includes the fields inherited from the super class. */
+  List<Field> getClassFields() {
+    return classFields;
+  }
+
   public Field addInstanceField(final SSymbol fieldName, final long coord) {
     int length = SourceCoordinate.getLength(coord);
     assert fieldName.getString().length() == length;
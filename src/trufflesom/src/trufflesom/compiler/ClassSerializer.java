@@ -0,0 +1,557 @@
+package trufflesom.compiler;
+
+import static trufflesom.vm.SymbolTable.strFrameOnStack;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.compiler.Variable.Argument;
+import trufflesom.compiler.Variable.Internal;
+import trufflesom.compiler.Variable.Local;
+import trufflesom.interpreter.LexicalScope;
+import trufflesom.interpreter.Method;
+import trufflesom.interpreter.nodes.ArgumentReadNode.LocalArgumentReadNode;
+import trufflesom.interpreter.nodes.ExpressionNode;
+import trufflesom.interpreter.nodes.FieldNode.FieldReadNode;
+import trufflesom.interpreter.nodes.FieldNode.FieldWriteNode;
+import trufflesom.interpreter.nodes.FieldNode.WriteAndReturnSelf;
+import trufflesom.interpreter.nodes.GlobalNode;
+import trufflesom.interpreter.nodes.ReturnNonLocalNode.CatchNonLocalReturnNode;
+import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
+import trufflesom.interpreter.nodes.bc.BytecodeLoopNode.BackJump;
+import trufflesom.interpreter.nodes.literals.DoubleLiteralNode;
+import trufflesom.interpreter.nodes.literals.GenericLiteralNode;
+import trufflesom.interpreter.nodes.literals.IntegerLiteralNode;
+import trufflesom.interpreter.nodes.literals.LiteralNode;
+import trufflesom.primitives.Primitives;
+import trufflesom.vm.Universe;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SInvokable.SMethod;
+import trufflesom.vmobjects.SInvokable.SPrimitive;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Writes a class as produced by the {@link ParserBc} to a stream, and reads it back without
+ * lexing or parsing its source.
+ *
+ * <p>
+ * A class is written right after it was parsed, before any of its methods ran and quickened
+ * their bytecodes. Objects of the VM are written as symbolic references, which are resolved
+ * again when reading: symbols by their string, blocks as nested methods, and the superclass by
+ * its name, which is loaded with {@link Universe#loadClass(SSymbol)}, as the parser does. The
+ * bytecodes access fields by index. Therefore, the fields inherited from the superclass need
+ * to be the same as when the class was written, otherwise, {@link #read} returns
+ * {@code null}, and the class needs to be parsed.
+ *
+ * <p>
+ * Only the method bodies of the bytecode parser are supported: bytecode loops, and the trivial
+ * bodies returning a literal, a global, or a field, and setting a field. For anything else,
+ * {@link #write} throws a {@link NotSerializableException}.
+ */
+public final class ClassSerializer {
+  private static final byte PRIMITIVE = 0;
+  private static final byte METHOD    = 1;
+
+  private static final byte ARGUMENT = 0;
+  private static final byte LOCAL    = 1;
+  private static final byte INTERNAL = 2;
+
+  private static final byte BYTECODES   = 0;
+  private static final byte LITERAL     = 1;
+  private static final byte GLOBAL      = 2;
+  private static final byte FIELD_READ  = 3;
+  private static final byte FIELD_WRITE = 4;
+
+  private static final byte NULL        = 0;
+  private static final byte NIL         = 1;
+  private static final byte TRUE        = 2;
+  private static final byte FALSE       = 3;
+  private static final byte LONG        = 4;
+  private static final byte DOUBLE      = 5;
+  private static final byte BIG_INTEGER = 6;
+  private static final byte STRING      = 7;
+  private static final byte SYMBOL      = 8;
+  private static final byte BLOCK       = 9;
+
+  private ClassSerializer() {}
+
+  public static void write(final DataOutputStream out, final ClassGenerationContext cgc)
+      throws IOException {
+    writeString(out, cgc.getName().getString());
+
+    SClass superClass = cgc.getInstanceSideSuperClass();
+    out.writeBoolean(superClass != null);
+    if (superClass != null) {
+      writeString(out, superClass.getName().getString());
+    }
+    out.writeLong(cgc.getSourceCoord());
+
+    int numInheritedInstanceFields = 0;
+    int numInheritedClassFields = 0;
+    if (superClass != null) {
+      numInheritedInstanceFields = superClass.getInstanceFieldDefinitions().length;
+      numInheritedClassFields = superClass.getSOMClass().getInstanceFieldDefinitions().length;
+    }
+    writeFields(out, cgc.getInstanceFields(), numInheritedInstanceFields);
+    writeMethods(out, cgc.getInstanceMethods());
+
+    out.writeBoolean(cgc.isClassSide());
+    writeFields(out, cgc.getClassFields(), numInheritedClassFields);
+    writeMethods(out, cgc.getClassMethods());
+  }
+
+  /**
+   * Read a class written by {@link #write}. This loads the superclass, if it is not yet
+   * loaded.
+   *
+   * @return the class, or {@code null} if the superclass could not be loaded, or has
+   *         different fields than when the class was written
+   */
+  public static ClassGenerationContext read(final DataInputStream in, final Source source)
+      throws IOException {
+    try {
+      ClassGenerationContext cgc = new ClassGenerationContext(source, null);
+      cgc.setName(symbolFor(readString(in)));
+
+      if (in.readBoolean()) {
+        SClass superClass = Universe.loadClass(symbolFor(readString(in)));
+        if (superClass == null) {
+          return null;
+        }
+        cgc.setSuperClass(superClass);
+      }
+      cgc.setSourceCoord(in.readLong());
+
+      if (!readFields(in, cgc, false)) {
+        return null;
+      }
+      int numMethods = in.readInt();
+      for (int i = 0; i < numMethods; i++) {
+        cgc.addInstanceMethod(readInvokable(in, source));
+      }
+
+      if (in.readBoolean()) {
+        cgc.switchToClassSide();
+      }
+      if (!readFields(in, cgc, true)) {
+        return null;
+      }
+      numMethods = in.readInt();
+      for (int i = 0; i < numMethods; i++) {
+        cgc.addClassMethod(readInvokable(in, source));
+      }
+      return cgc;
+    } catch (ClassCastException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+      throw new IOException("Corrupted class", e);
+    }
+  }
+
+  private static void writeFields(final DataOutputStream out, final List<Field> fields,
+      final int numInherited) throws IOException {
+    out.writeInt(numInherited);
+    out.writeInt(fields.size());
+    for (Field f : fields) {
+      writeString(out, f.getName().getString());
+      out.writeLong(f.getSourceCoordinate());
+    }
+  }
+
+  /**
+   * Read the fields, and add the ones that are not inherited.
+   *
+   * @return false if the inherited fields are not the ones of the superclass
+   */
+  private static boolean readFields(final DataInputStream in,
+      final ClassGenerationContext cgc, final boolean classSide) throws IOException {
+    List<Field> inherited = classSide ? cgc.getClassFields() : cgc.getInstanceFields();
+    int numInherited = in.readInt();
+    int numFields = in.readInt();
+    if (numInherited != inherited.size()) {
+      return false;
+    }
+
+    for (int i = 0; i < numFields; i++) {
+      SSymbol name = symbolFor(readString(in));
+      long coord = in.readLong();
+      if (i < numInherited) {
+        if (inherited.get(i).getName() != name) {
+          return false;
+        }
+      } else if (classSide) {
+        cgc.addClassField(name, coord);
+      } else {
+        cgc.addInstanceField(name, coord);
+      }
+    }
+    return true;
+  }
+
+  private static void writeMethods(final DataOutputStream out,
+      final Collection<SInvokable> methods) throws IOException {
+    out.writeInt(methods.size());
+    for (SInvokable m : methods) {
+      if (m instanceof SPrimitive) {
+        out.writeByte(PRIMITIVE);
+        writeString(out, m.getSignature().getString());
+        out.writeLong(m.getInvokable().getSourceCoordinate());
+      } else {
+        out.writeByte(METHOD);
+        writeMethod(out, (SMethod) m);
+      }
+    }
+  }
+
+  private static SInvokable readInvokable(final DataInputStream in, final Source source)
+      throws IOException {
+    byte kind = in.readByte();
+    if (kind == PRIMITIVE) {
+      SSymbol signature = symbolFor(readString(in));
+      return Primitives.constructEmptyPrimitive(signature, source, in.readLong(), null);
+    }
+
+    if (kind != METHOD) {
+      throw new IOException("Unknown kind of method: " + kind);
+    }
+    return readMethod(in, source, null);
+  }
+
+  private static void writeMethod(final DataOutputStream out, final SMethod m)
+      throws IOException {
+    Method method = (Method) m.getInvokable();
+    LexicalScope scope = method.getScope();
+
+    writeString(out, m.getSignature().getString());
+    writeString(out, method.getName());
+    out.writeLong(method.getSourceCoordinate());
+
+    writeVariables(out, scope.getVariables());
+    out.writeInt(scope.getFrameDescriptor().getNumberOfSlots());
+
+    ExpressionNode body = method.getBody();
+    boolean catchesNonLocalReturn = body instanceof CatchNonLocalReturnNode;
+    out.writeBoolean(catchesNonLocalReturn);
+    if (catchesNonLocalReturn) {
+      body = body.getFirstMethodBodyNode();
+    }
+    writeBody(out, body, scope);
+  }
+
+  private static SMethod readMethod(final DataInputStream in, final Source source,
+      final LexicalScope outer) throws IOException {
+    SSymbol signature = symbolFor(readString(in));
+    String name = readString(in);
+    long coord = in.readLong();
+
+    LexicalScope scope = new LexicalScope(outer);
+    scope.setVariables(readVariables(in));
+    int numLocals = in.readInt();
+    boolean catchesNonLocalReturn = in.readBoolean();
+
+    List<SMethod> embeddedBlocks = new ArrayList<>();
+    ExpressionNode body = readBody(in, source, scope, embeddedBlocks);
+
+    scope.finalizeVariables(numLocals);
+    body.initialize(coord);
+
+    if (catchesNonLocalReturn) {
+      body = new CatchNonLocalReturnNode(body, getFrameOnStackMarker(scope)).initialize(coord);
+    }
+
+    Method method = new Method(name, source, coord, body, scope,
+        (ExpressionNode) body.deepCopy());
+    return new SMethod(signature, method, embeddedBlocks.toArray(new SMethod[0]));
+  }
+
+  private static Internal getFrameOnStackMarker(final LexicalScope scope) throws IOException {
+    for (Variable v : scope.getVariables()) {
+      if (v instanceof Internal && strFrameOnStack.equals(v.name)) {
+        return (Internal) v;
+      }
+    }
+    throw new IOException("The method does not have a frame-on-stack marker");
+  }
+
+  private static void writeVariables(final DataOutputStream out, final Variable[] vars)
+      throws IOException {
+    if (vars == null) {
+      throw new NotSerializableException("Scope without variables");
+    }
+
+    out.writeInt(vars.length);
+    for (Variable v : vars) {
+      if (v instanceof Argument) {
+        out.writeByte(ARGUMENT);
+        out.writeInt(((Argument) v).index);
+      } else if (v instanceof Internal) {
+        out.writeByte(INTERNAL);
+        out.writeInt(((Internal) v).getIndex());
+      } else {
+        out.writeByte(LOCAL);
+        out.writeInt(((Local) v).getIndex());
+      }
+      writeString(out, v.name);
+      out.writeLong(v.coord);
+    }
+  }
+
+  private static Variable[] readVariables(final DataInputStream in) throws IOException {
+    Variable[] vars = new Variable[in.readInt()];
+    for (int i = 0; i < vars.length; i++) {
+      byte kind = in.readByte();
+      int index = in.readInt();
+
+      // variables with the same coordinate are expected to have the identical name, which
+      // includes the arguments for self, which all have the coordinate of self in Object
+      String name = readString(in).intern();
+      long coord = in.readLong();
+
+      switch (kind) {
+        case ARGUMENT:
+          vars[i] = new Argument(name, index, coord);
+          break;
+        case LOCAL:
+          vars[i] = new Local(name, coord, index);
+          break;
+        case INTERNAL:
+          vars[i] = new Internal(name, coord, index);
+          break;
+        default:
+          throw new IOException("Unknown kind of variable: " + kind);
+      }
+    }
+    return vars;
+  }
+
+  private static void writeBody(final DataOutputStream out, final ExpressionNode body,
+      final LexicalScope scope) throws IOException {
+    if (body instanceof BytecodeLoopNode) {
+      BytecodeLoopNode node = (BytecodeLoopNode) body;
+      out.writeByte(BYTECODES);
+
+      byte[] bytecodes = node.getBytecodeArray();
+      out.writeInt(bytecodes.length);
+      out.write(bytecodes);
+
+      out.writeInt(node.getNumberOfLocals());
+      out.writeInt(node.getMaximumNumberOfStackElements());
+      out.writeInt(node.getFrameOnStackMarkerIndex());
+      out.writeInt(node.getContextLevel());
+
+      BackJump[] loops = node.getInlinedLoops();
+      out.writeInt(loops.length);
+      for (BackJump loop : loops) {
+        out.writeInt(loop.getLoopBeginIdx());
+        out.writeInt(loop.getBackwardsJumpIdx());
+      }
+
+      Object[] literals = node.getLiterals();
+      out.writeInt(literals.length);
+      for (Object literal : literals) {
+        writeLiteral(out, literal);
+      }
+    } else if (body instanceof GlobalNode && ((GlobalNode) body).getGlobalName() != null) {
+      out.writeByte(GLOBAL);
+      writeString(out, ((GlobalNode) body).getGlobalName().getString());
+    } else if (body instanceof IntegerLiteralNode || body instanceof DoubleLiteralNode
+        || body instanceof GenericLiteralNode || body instanceof GlobalNode) {
+      // true, false, and nil are global nodes without a name
+      out.writeByte(LITERAL);
+      writeLiteral(out, body.executeGeneric(null));
+    } else if (body instanceof FieldReadNode) {
+      FieldReadNode read = (FieldReadNode) body;
+      out.writeByte(FIELD_READ);
+      out.writeInt(read.getFieldIndex());
+      writeArgument(out, read.getSelf(), scope);
+    } else if (body instanceof WriteAndReturnSelf) {
+      FieldWriteNode write = ((WriteAndReturnSelf) body).getWrite();
+      out.writeByte(FIELD_WRITE);
+      out.writeInt(write.getFieldIndex());
+      writeArgument(out, write.getSelf(), scope);
+      writeArgument(out, write.getValue(), scope);
+    } else {
+      throw new NotSerializableException(body.getClass().getName());
+    }
+  }
+
+  private static ExpressionNode readBody(final DataInputStream in, final Source source,
+      final LexicalScope scope, final List<SMethod> embeddedBlocks) throws IOException {
+    byte kind = in.readByte();
+    switch (kind) {
+      case BYTECODES: {
+        byte[] bytecodes = new byte[in.readInt()];
+        in.readFully(bytecodes);
+
+        int numLocals = in.readInt();
+        int maxStackDepth = in.readInt();
+        int frameOnStackMarkerIndex = in.readInt();
+        int contextLevel = in.readInt();
+
+        BackJump[] loops = new BackJump[in.readInt()];
+        for (int i = 0; i < loops.length; i++) {
+          loops[i] = new BackJump(in.readInt(), in.readInt());
+        }
+
+        Object[] literals = new Object[in.readInt()];
+        for (int i = 0; i < literals.length; i++) {
+          literals[i] = readLiteral(in, source, scope, embeddedBlocks);
+        }
+
+        return new BytecodeLoopNode(bytecodes, numLocals, literals, maxStackDepth,
+            frameOnStackMarkerIndex, loops, contextLevel);
+      }
+      case LITERAL:
+        return LiteralNode.create(readLiteral(in, source, scope, embeddedBlocks));
+      case GLOBAL:
+        return GlobalNode.create(symbolFor(readString(in)), null);
+      case FIELD_READ: {
+        int fieldIdx = in.readInt();
+        return new FieldReadNode(new LocalArgumentReadNode(readArgument(in, scope)), fieldIdx);
+      }
+      case FIELD_WRITE: {
+        int fieldIdx = in.readInt();
+        Argument self = readArgument(in, scope);
+        Argument value = readArgument(in, scope);
+        return FieldWriteNode.createForMethod(fieldIdx, self, value);
+      }
+      default:
+        throw new IOException("Unknown kind of method body: " + kind);
+    }
+  }
+
+  /** Write the argument as context level and index into the variables of its scope. */
+  private static void writeArgument(final DataOutputStream out, final ExpressionNode node,
+      final LexicalScope scope) throws IOException {
+    if (node.getClass() != LocalArgumentReadNode.class) {
+      throw new NotSerializableException(node.getClass().getName());
+    }
+
+    Argument arg = ((LocalArgumentReadNode) node).arg;
+    LexicalScope s = scope;
+    int contextLevel = 0;
+    while (s != null) {
+      Variable[] vars = s.getVariables();
+      for (int i = 0; i < vars.length; i++) {
+        if (vars[i] == arg) {
+          out.writeInt(contextLevel);
+          out.writeInt(i);
+          return;
+        }
+      }
+      s = s.getOuterScopeOrNull();
+      contextLevel += 1;
+    }
+    throw new NotSerializableException("Argument " + arg + " is not in scope");
+  }
+
+  private static Argument readArgument(final DataInputStream in, final LexicalScope scope)
+      throws IOException {
+    int contextLevel = in.readInt();
+    int index = in.readInt();
+
+    LexicalScope s = scope;
+    for (int i = 0; i < contextLevel; i++) {
+      s = s.getOuterScope();
+    }
+    return (Argument) s.getVariables()[index];
+  }
+
+  private static void writeLiteral(final DataOutputStream out, final Object literal)
+      throws IOException {
+    if (literal == null) {
+      out.writeByte(NULL);
+    } else if (literal == Nil.nilObject) {
+      out.writeByte(NIL);
+    } else if (literal instanceof Boolean) {
+      out.writeByte((Boolean) literal ? TRUE : FALSE);
+    } else if (literal instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) literal);
+    } else if (literal instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) literal);
+    } else if (literal instanceof BigInteger) {
+      out.writeByte(BIG_INTEGER);
+      byte[] bytes = ((BigInteger) literal).toByteArray();
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    } else if (literal instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) literal);
+    } else if (literal instanceof SSymbol) {
+      out.writeByte(SYMBOL);
+      writeString(out, ((SSymbol) literal).getString());
+    } else if (literal instanceof SMethod) {
+      out.writeByte(BLOCK);
+      writeMethod(out, (SMethod) literal);
+    } else {
+      throw new NotSerializableException(literal.getClass().getName());
+    }
+  }
+
+  /**
+   * Read a literal. Blocks are read as methods nested into the given scope, and are added to
+   * the embedded blocks.
+   */
+  private static Object readLiteral(final DataInputStream in, final Source source,
+      final LexicalScope scope, final List<SMethod> embeddedBlocks) throws IOException {
+    byte kind = in.readByte();
+    switch (kind) {
+      case NULL:
+        return null;
+      case NIL:
+        return Nil.nilObject;
+      case TRUE:
+        return true;
+      case FALSE:
+        return false;
+      case LONG:
+        return in.readLong();
+      case DOUBLE:
+        return in.readDouble();
+      case BIG_INTEGER: {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new BigInteger(bytes);
+      }
+      case STRING:
+        return readString(in);
+      case SYMBOL:
+        return symbolFor(readString(in));
+      case BLOCK: {
+        SMethod block = readMethod(in, source, scope);
+        scope.addEmbeddedScope(((Method) block.getInvokable()).getScope());
+        embeddedBlocks.add(block);
+        return block;
+      }
+      default:
+        throw new IOException("Unknown kind of literal: " + kind);
+    }
+  }
+
+  /** Unlike {@link DataOutputStream#writeUTF(String)}, this supports strings over 64KB. */
+  static void writeString(final DataOutputStream out, final String str)
+      throws IOException {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static String readString(final DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
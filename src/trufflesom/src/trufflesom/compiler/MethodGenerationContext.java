@@ -84,6 +84,9 @@ public class MethodGenerationContext
   protected boolean accessesVariablesOfOuterScope;
   protected boolean accessesLocalsOfOuterScope;
 
+  // arguments of outer blocks may become locals when the outer block is inlined
+  protected boolean accessesArgumentsOfOuterBlocks;
+
   protected final LinkedHashMap<String, Argument> arguments;
   protected final LinkedHashMap<String, Local>    locals;
 
@@ -194,6 +197,16 @@ public class MethodGenerationContext
     return throwsNonLocalReturn || accessesVariablesOfOuterScope;
   }
 
+  /**
+   * A block that accesses only self and the arguments of the enclosing method, and does not
+   * return non-locally, does not need the locals of the outer frames. Its context can be a
+   * frame with just the arguments, so that the outer frame does not need to be materialized.
+   */
+  public boolean requiresOnlyOuterArguments() {
+    return requiresContext() && !throwsNonLocalReturn && !accessesLocalsOfOuterScope
+        && !accessesArgumentsOfOuterBlocks;
+  }
+
   private MethodGenerationContext markOuterContextsToRequireContextAndGetRootContext() {
     MethodGenerationContext ctx = outerGenc;
     while (ctx.outerGenc != null) {
@@ -391,6 +404,8 @@ public class MethodGenerationContext
         accessesVariablesOfOuterScope = true;
         if (outerVar instanceof Local) {
           accessesLocalsOfOuterScope = true;
+        } else if (!isArgumentOfMethod(outerVar)) {
+          accessesArgumentsOfOuterBlocks = true;
         }
       }
       return outerVar;
@@ -398,6 +413,14 @@ public class MethodGenerationContext
     return null;
   }
 
+  private boolean isArgumentOfMethod(final Variable var) {
+    MethodGenerationContext ctx = this;
+    while (ctx.outerGenc != null) {
+      ctx = ctx.outerGenc;
+    }
+    return ctx.arguments.containsValue(var);
+  }
+
   public ExpressionNode getLocalReadNode(final Variable variable, final long coord) {
     return variable.getReadNode(getContextLevel(variable), coord);
   }
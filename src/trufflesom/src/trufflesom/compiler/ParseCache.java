@@ -0,0 +1,404 @@
+package trufflesom.compiler;
+
+import static trufflesom.vm.SymbolTable.symObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
+
+
+/**
+ * On-disk cache for the classes compiled by the {@link ParserBc}.
+ *
+ * <p>
+ * An entry holds a class as written by the {@link ClassSerializer}, so that loading it does
+ * not lex or parse the source. It is keyed by the canonical path of the source file, or for
+ * files in archives, by the name of the source. The entry is only used when the SHA-256 hash
+ * of the current content matches the recorded one, and the settings that change the
+ * bytecodes are the same. Otherwise, the class is parsed as usual, and the entry is
+ * rewritten. Classes that the {@link ClassSerializer} does not support are not cached, and
+ * are parsed on every run.
+ *
+ * <p>
+ * The classes loaded by a run can also be saved into an image, a snapshot of the classes by
+ * name, with their source code. A later run restores the classes of the image directly,
+ * before it looks at the class path: it neither looks up, reads, nor hashes their files.
+ * This means that changes to the source files are not seen until the image is saved again.
+ * Only classes that are not in the image are loaded from the class path. An image is only
+ * used with the class path it was saved with.
+ */
+public final class ParseCache {
+  private static final int MAGIC          = 0x534f4d43; // SOMC
+  private static final int IMAGE_MAGIC    = 0x534f4d49; // SOMI
+  private static final int FORMAT_VERSION = 3;
+
+  /** A class, with the source it was compiled from. */
+  private static final class ImageEntry {
+    /** The path of the source file, or {@code null} for sources without one. */
+    private final String path;
+    private final String name;
+    private final String content;
+
+    /** The class, in the format of the entry files. */
+    private final byte[] entry;
+
+    ImageEntry(final String path, final String name, final String content,
+        final byte[] entry) {
+      this.path = path;
+      this.name = name;
+      this.content = content;
+      this.entry = entry;
+    }
+
+    Source createSource() throws IOException {
+      if (path != null) {
+        return SomLanguage.getSource(new File(path), content);
+      }
+      return SomLanguage.getSource(content, name);
+    }
+  }
+
+  /** The directory for the entries, or {@code null} if they are not stored in files. */
+  private final File cacheDir;
+
+  /** The classes of the loaded image, by class name. */
+  private final HashMap<String, ImageEntry> imageEntries;
+
+  /** The class path the loaded image was saved with. */
+  private String[] imageClassPath;
+
+  /** The classes loaded so far, by class name, for {@link #saveImage}, or {@code null}. */
+  private final LinkedHashMap<String, ImageEntry> usedEntries;
+
+  public ParseCache(final File cacheDir) {
+    this(cacheDir, false);
+  }
+
+  public ParseCache(final File cacheDir, final boolean recordForImage) {
+    this.cacheDir = cacheDir;
+    this.imageEntries = new HashMap<>();
+    this.usedEntries = recordForImage ? new LinkedHashMap<>() : null;
+  }
+
+  /**
+   * Create the cache configured by {@link VmSettings#ParseCacheDir},
+   * {@link VmSettings#LoadImage}, and {@link VmSettings#SaveImage}.
+   *
+   * @return the cache, or {@code null} if it is disabled
+   */
+  public static ParseCache createFromSettings() {
+    if (VmSettings.ParseCacheDir == null && VmSettings.LoadImage == null
+        && VmSettings.SaveImage == null) {
+      return null;
+    }
+
+    File cacheDir =
+        VmSettings.ParseCacheDir == null ? null : new File(VmSettings.ParseCacheDir);
+    ParseCache cache = new ParseCache(cacheDir, VmSettings.SaveImage != null);
+
+    if (VmSettings.LoadImage != null) {
+      try {
+        cache.loadImage(new File(VmSettings.LoadImage));
+        if (VmSettings.Verbose) {
+          Universe.errorPrintln("[image] Loaded " + cache.imageEntries.size()
+              + " classes from " + VmSettings.LoadImage);
+        }
+      } catch (IOException e) {
+        Universe.errorPrintln(
+            "Could not load image, parsing classes instead: " + e.getMessage());
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * Restore a class from the loaded image. This loads the superclass, as parsing the class
+   * would.
+   *
+   * @return the class, or {@code null} if it is not in the image, or the image was saved
+   *         with a different class path
+   */
+  @TruffleBoundary
+  public ClassGenerationContext restore(final String className, final String[] classPath) {
+    ImageEntry image = imageEntries.get(className);
+    if (image == null || !Arrays.equals(imageClassPath, classPath)) {
+      return null;
+    }
+
+    try {
+      ClassGenerationContext cgc = read(image.entry, null, null, image.createSource());
+      if (cgc != null && usedEntries != null) {
+        usedEntries.put(className, image);
+      }
+      return cgc;
+    } catch (IOException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Load the class from a valid entry. This loads the superclass, as parsing the class would.
+   *
+   * @return the class, or {@code null} if there is no valid entry, and the class needs to be
+   *         parsed
+   */
+  @TruffleBoundary
+  public ClassGenerationContext load(final String className, final Source source,
+      final String content) {
+    if (cacheDir == null) {
+      return null;
+    }
+
+    String key = getKey(source);
+    byte[] entry = readEntryFile(key);
+    if (entry == null) {
+      return null;
+    }
+
+    try {
+      ClassGenerationContext cgc = read(entry, key, sha256(content), source);
+      if (cgc != null) {
+        record(className, source, content, entry);
+      }
+      return cgc;
+    } catch (IOException | IllegalArgumentException e) {
+      // a corrupted or outdated entry, it is going to be overwritten
+      return null;
+    }
+  }
+
+  /**
+   * Store the class, which was just parsed from the source, and did not execute yet.
+   * Failing to write the cache is not an error, it merely means that the next run needs to
+   * parse the class again.
+   */
+  @TruffleBoundary
+  public void store(final String className, final Source source, final String content,
+      final ClassGenerationContext cgc) {
+    String key = getKey(source);
+    try {
+      byte[] entry = createEntry(key, sha256(content), cgc);
+      record(className, source, content, entry);
+      if (cacheDir != null) {
+        write(key, entry);
+      }
+    } catch (IOException e) {
+      // ignore, the cache is only an optimization. This includes unsupported classes.
+    }
+  }
+
+  private void record(final String className, final Source source, final String content,
+      final byte[] entry) {
+    if (usedEntries != null) {
+      usedEntries.put(className,
+          new ImageEntry(source.getPath(), source.getName(), content, entry));
+    }
+  }
+
+  /** Load an image saved by {@link #saveImage}, of which the classes can be restored. */
+  @TruffleBoundary
+  public void loadImage(final File file) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+      if (in.readInt() != IMAGE_MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException(file + " is not an image of this version of TruffleSOM");
+      }
+
+      String[] classPath = new String[in.readInt()];
+      for (int i = 0; i < classPath.length; i++) {
+        classPath[i] = in.readUTF();
+      }
+
+      int numEntries = in.readInt();
+      for (int i = 0; i < numEntries; i++) {
+        String className = in.readUTF();
+        String path = in.readBoolean() ? in.readUTF() : null;
+        String name = in.readUTF();
+        String content = ClassSerializer.readString(in);
+        byte[] entry = new byte[in.readInt()];
+        in.readFully(entry);
+        imageEntries.put(className, new ImageEntry(path, name, content, entry));
+      }
+      imageClassPath = classPath;
+    } catch (NegativeArraySizeException e) {
+      throw new IOException("Corrupted image " + file, e);
+    }
+  }
+
+  /**
+   * Save the classes loaded so far, in the order they were loaded, into an image.
+   *
+   * @return the number of saved classes
+   */
+  @TruffleBoundary
+  public int saveImage(final File file, final String[] classPath) throws IOException {
+    assert usedEntries != null : "The cache needs to be created with recordForImage";
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+      out.writeInt(IMAGE_MAGIC);
+      out.writeInt(FORMAT_VERSION);
+
+      out.writeInt(classPath.length);
+      for (String cpEntry : classPath) {
+        out.writeUTF(cpEntry);
+      }
+
+      out.writeInt(usedEntries.size());
+      for (Entry<String, ImageEntry> e : usedEntries.entrySet()) {
+        ImageEntry image = e.getValue();
+        out.writeUTF(e.getKey());
+        out.writeBoolean(image.path != null);
+        if (image.path != null) {
+          out.writeUTF(image.path);
+        }
+        out.writeUTF(image.name);
+        ClassSerializer.writeString(out, image.content);
+        out.writeInt(image.entry.length);
+        out.write(image.entry);
+      }
+    }
+    return usedEntries.size();
+  }
+
+  private static String getKey(final Source source) {
+    String path = source.getPath();
+    if (path == null) {
+      return source.getName();
+    }
+
+    File file = new File(path);
+    try {
+      return file.getCanonicalPath();
+    } catch (IOException e) {
+      return file.getAbsolutePath();
+    }
+  }
+
+  private File getEntryFile(final String key) {
+    return new File(cacheDir, toHex(sha256(key)) + ".class");
+  }
+
+  /** @return the content of the entry file, or {@code null} if there is none */
+  private byte[] readEntryFile(final String key) {
+    try {
+      return Files.readAllBytes(getEntryFile(key).toPath());
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @param key the key of the entry, or {@code null} for the classes of an image, which are
+   *          restored without checking their source
+   * @param contentHash the hash of the current content, or {@code null} for an image
+   */
+  private static ClassGenerationContext read(final byte[] entry, final String key,
+      final byte[] contentHash, final Source source) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+          || in.readBoolean() != VmSettings.UseSuperinstructions) {
+        return null;
+      }
+
+      String entryKey = in.readUTF();
+      byte[] hash = new byte[32];
+      in.readFully(hash);
+      if (key != null && (!key.equals(entryKey) || !Arrays.equals(hash, contentHash))) {
+        return null;
+      }
+
+      // the self arguments of all methods refer to the source section of self in Object
+      long selfCoord = in.readLong();
+
+      ClassGenerationContext cgc = ClassSerializer.read(in, source);
+      if (cgc == null) {
+        return null;
+      }
+
+      if (cgc.getName() == symObject) {
+        // parsing Object would have set them
+        Universe.selfCoord = selfCoord;
+        Universe.selfSource = source;
+      } else if (selfCoord != Universe.selfCoord) {
+        return null;
+      }
+      return cgc;
+    }
+  }
+
+  private static byte[] createEntry(final String key, final byte[] contentHash,
+      final ClassGenerationContext cgc) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeBoolean(VmSettings.UseSuperinstructions);
+      out.writeUTF(key);
+      out.write(contentHash);
+      out.writeLong(Universe.selfCoord);
+      ClassSerializer.write(out, cgc);
+    }
+    return bytes.toByteArray();
+  }
+
+  private void write(final String key, final byte[] entry) throws IOException {
+    Files.createDirectories(cacheDir.toPath());
+
+    File entryFile = getEntryFile(key);
+    Path target = entryFile.toPath();
+    Path tmp = Files.createTempFile(cacheDir.toPath(), entryFile.getName(), ".tmp");
+
+    try {
+      Files.write(tmp, entry);
+
+      try {
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static byte[] sha256(final String str) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return digest.digest(str.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required to be supported by the JVM", e);
+    }
+  }
+
+  private static String toHex(final byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+      sb.append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+}
@@ -79,6 +79,7 @@ import trufflesom.interpreter.nodes.ExpressionNode;
 import trufflesom.interpreter.nodes.FieldNode.FieldReadNode;
 import trufflesom.interpreter.nodes.GlobalNode;
 import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
 import trufflesom.vmobjects.SSymbol;
@@ -222,16 +223,24 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
 
   protected Parser(final String content, final Source source,
       final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> structuralProbe) {
+    this(createLexer(content), source, structuralProbe);
+  }
+
+  protected Parser(final Lexer lexer, final Source source,
+      final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> structuralProbe) {
     this.source = source;
     this.structuralProbe = structuralProbe;
 
     sym = NONE;
-    lexer = createLexer(content);
+    this.lexer = lexer;
     nextSym = NONE;
     getSymbolFromLexer();
   }
 
   protected static Lexer createLexer(final String content) {
+    if (VmSettings.UseCharArrayLexer) {
+      return CharArrayLexer.lex(content);
+    }
     return new Lexer(content);
   }
 
@@ -501,7 +510,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   private SSymbol binarySelectorImpl() throws ParseError {
-    String s = new String(text);
+    String s = text;
 
     // Checkstyle: stop @formatter:off
     if (acceptOneOf(singleOpSyms)) {
@@ -521,7 +530,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   private String identifier() throws ParseError {
-    String s = new String(text);
+    String s = text;
     boolean isPrimitive = accept(Primitive);
     if (!isPrimitive) {
       expect(Identifier);
@@ -530,7 +539,7 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   protected String keyword() throws ParseError {
-    String s = new String(text);
+    String s = text;
     expect(Keyword);
 
     return s;
@@ -681,14 +690,14 @@ public abstract class Parser<MGenC extends MethodGenerationContext> {
   }
 
   private SSymbol keywordSelector() throws ParseError {
-    String s = new String(text);
+    String s = text;
     expectOneOf(keywordSelectorSyms);
     SSymbol symb = symbolFor(s);
     return symb;
   }
 
   protected String string() throws ParseError {
-    String s = new String(text);
+    String s = text;
     expect(STString);
     return s;
   }
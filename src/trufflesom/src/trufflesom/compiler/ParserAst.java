@@ -38,6 +38,7 @@ import trufflesom.interpreter.nodes.MessageSendNode;
 import trufflesom.interpreter.nodes.NonLocalVariableNode.NonLocalVariableReadNode;
 import trufflesom.interpreter.nodes.SequenceNode;
 import trufflesom.interpreter.nodes.literals.BlockNode;
+import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithArgumentContext;
 import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithContext;
 import trufflesom.interpreter.nodes.literals.DoubleLiteralNode;
 import trufflesom.interpreter.nodes.literals.GenericLiteralNode;
@@ -74,6 +75,12 @@ public class ParserAst extends Parser<MethodGenerationContext> {
     this.inlinableNodes = Primitives.inlinableNodes;
   }
 
+  public ParserAst(final Lexer lexer, final Source source,
+      final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> structuralProbe) {
+    super(lexer, source, structuralProbe);
+    this.inlinableNodes = Primitives.inlinableNodes;
+  }
+
   @Override
   protected MethodGenerationContext createMGenC(final ClassGenerationContext cgenc,
       final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> structProbe) {
@@ -512,7 +519,10 @@ public class ParserAst extends Parser<MethodGenerationContext> {
         SMethod blockMethod = (SMethod) bgenc.assemble(blockBody, lastMethodsCoord);
         mgenc.addEmbeddedBlockMethod(blockMethod);
 
-        if (bgenc.requiresContext()) {
+        if (bgenc.requiresOnlyOuterArguments()) {
+          return new BlockNodeWithArgumentContext(blockMethod,
+              bgenc.accessesLocalsOfOuterScope).initialize(getCoordWithLength(coord));
+        } else if (bgenc.requiresContext()) {
           return new BlockNodeWithContext(blockMethod,
               bgenc.accessesLocalsOfOuterScope).initialize(getCoordWithLength(coord));
         } else {
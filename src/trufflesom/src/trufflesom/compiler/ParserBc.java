@@ -59,6 +59,11 @@ public class ParserBc extends Parser<BytecodeMethodGenContext> {
     super(content, source, structuralProbe);
   }
 
+  public ParserBc(final Lexer lexer, final Source source,
+      final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> structuralProbe) {
+    super(lexer, source, structuralProbe);
+  }
+
   @Override
   protected BytecodeMethodGenContext createMGenC(final ClassGenerationContext cgenc,
       final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> structProbe) {
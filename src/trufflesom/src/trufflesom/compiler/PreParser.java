@@ -0,0 +1,105 @@
+package trufflesom.compiler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.vm.ClassPathIndex.ClassFile;
+import trufflesom.vm.Universe;
+
+
+/**
+ * Reads and lexes all classes on the class path in the background, so that loading a class
+ * on the main thread only needs to parse it. The Truffle sources are however created on the
+ * main thread, because that needs the current context.
+ *
+ * <p>
+ * Parsing itself cannot be done ahead of time. The parsers load the superclass of a class,
+ * and resolve globals and primitives, which depends on the order in which the VM loads
+ * classes. Reading and lexing a file however has no side effects. The results are kept until
+ * a class is loaded, and are then handed over to the parser with a {@link ReplayLexer}.
+ */
+public final class PreParser {
+
+  /** The content of a class file, and the lexer replaying its tokens. */
+  public static final class PreParsed {
+    public final ClassFile classFile;
+    public final String    content;
+    public final Lexer     lexer;
+
+    private PreParsed(final ClassFile classFile, final String content, final Lexer lexer) {
+      this.classFile = classFile;
+      this.content = content;
+      this.lexer = lexer;
+    }
+
+    /** Needs to be called on a thread with the current context. */
+    public Source getSource() throws IOException {
+      return classFile.getSource(content);
+    }
+  }
+
+  private final ConcurrentHashMap<String, ForkJoinTask<PreParsed>> pending;
+
+  private int numUsed;
+
+  @TruffleBoundary
+  public PreParser(final Map<String, ClassFile> classFiles) {
+    pending = new ConcurrentHashMap<>(classFiles.size());
+
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    for (Entry<String, ClassFile> e : classFiles.entrySet()) {
+      ClassFile classFile = e.getValue();
+      pending.put(e.getKey(), pool.submit(() -> {
+        try {
+          return preParse(classFile);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }));
+    }
+  }
+
+  /** Read and lex the class file on the current thread. */
+  public static PreParsed preParse(final ClassFile classFile) throws IOException {
+    String content = classFile.readContent();
+    return new PreParsed(classFile, content, ReplayLexer.lexAll(content));
+  }
+
+  /**
+   * Get the pre-parsed class, waiting for it, if it is still in progress.
+   *
+   * @return the pre-parsed class, or {@code null} if it is not available, in which case the
+   *         class needs to be read and lexed as usual
+   */
+  @TruffleBoundary
+  public PreParsed take(final String className) {
+    ForkJoinTask<PreParsed> task = pending.remove(className);
+    if (task == null) {
+      return null;
+    }
+
+    try {
+      PreParsed result = task.join();
+      numUsed += 1;
+      return result;
+    } catch (RuntimeException e) {
+      // for instance, the file could not be read. Loading it normally reports the problem.
+      return null;
+    }
+  }
+
+  @TruffleBoundary
+  public void printStatistics() {
+    Universe.errorPrintln("[pp] Pre-parsed classes");
+    Universe.errorPrintln("[pp] Used:   " + numUsed);
+    Universe.errorPrintln("[pp] Unused: " + pending.size());
+  }
+}
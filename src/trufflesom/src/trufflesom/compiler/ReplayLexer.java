@@ -0,0 +1,214 @@
+package trufflesom.compiler;
+
+import java.util.Arrays;
+
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Replays a recorded token stream without lexing the source again.
+ * The content is only used to report the current line for parse errors. The texts that the
+ * {@link CharArrayLexer} did not record are created from its characters.
+ */
+final class ReplayLexer extends Lexer {
+  private final String   content;
+  private final char[]   chars;
+  private final Symbol[] syms;
+  private final String[] texts;
+  private final int[]    starts;
+  private final int[]    lengths;
+  private final int[]    hashes;
+  private final int[]    ends;
+
+  private int     current;
+  private boolean peekDone;
+
+  /**
+   * Lex the whole content, without involving a parser, and return a lexer that replays the
+   * tokens. Lexing does not depend on any VM state, so this can be done on any thread.
+   */
+  public static Lexer lexAll(final String content) {
+    if (VmSettings.UseCharArrayLexer) {
+      return CharArrayLexer.lex(content);
+    }
+
+    RecordingLexer recording = new RecordingLexer(content);
+    while (recording.getSym() != Symbol.NONE) {
+      // record all tokens
+    }
+    return recording.createReplay(content);
+  }
+
+  ReplayLexer(final String content, final Symbol[] syms, final String[] texts,
+      final int[] starts, final int[] ends) {
+    this(content, null, syms, texts, starts, null, null, ends);
+  }
+
+  /**
+   * @param chars the characters of the content
+   * @param lengths the lengths of the tokens whose text is {@code null}, which is created
+   *          from the characters when the parser asks for it
+   * @param hashes the {@link String#hashCode()} of the tokens whose text is {@code null}
+   */
+  ReplayLexer(final String content, final char[] chars, final Symbol[] syms,
+      final String[] texts, final int[] starts, final int[] lengths, final int[] hashes,
+      final int[] ends) {
+    super(content);
+    this.content = content;
+    this.chars = chars;
+    this.syms = syms;
+    this.texts = texts;
+    this.starts = starts;
+    this.lengths = lengths;
+    this.hashes = hashes;
+    this.ends = ends;
+    this.current = -1;
+  }
+
+  @Override
+  protected Symbol getSym() {
+    peekDone = false;
+    if (current < syms.length) {
+      current += 1;
+    }
+    return currentSym();
+  }
+
+  private Symbol currentSym() {
+    if (current >= syms.length) {
+      return Symbol.NONE;
+    }
+    return syms[current];
+  }
+
+  @Override
+  protected Symbol peek() {
+    if (peekDone) {
+      throw new IllegalStateException("SOM lexer: cannot peek twice!");
+    }
+    peekDone = true;
+
+    int next = current + 1;
+    if (next >= syms.length) {
+      return Symbol.NONE;
+    }
+    return syms[next];
+  }
+
+  @Override
+  protected boolean getPeekDone() {
+    return peekDone;
+  }
+
+  @Override
+  protected String getText() {
+    if (current < 0 || current >= texts.length) {
+      return "";
+    }
+
+    String text = texts[current];
+    if (text == null) {
+      text = createText(starts[current], lengths[current], hashes[current]);
+      texts[current] = text;
+    }
+    return text;
+  }
+
+  /**
+   * Only the parser asks for texts, so this runs on the thread that parses, and may look at
+   * the symbol table.
+   *
+   * @return the string of the symbol with the given characters, if there is one already, so
+   *         that the parser finds the symbol without creating the string first
+   */
+  private String createText(final int start, final int length, final int hash) {
+    SSymbol symbol = SymbolTable.existingSymbolFor(chars, start, length, hash);
+    if (symbol != null) {
+      return symbol.getString();
+    }
+    return new String(chars, start, length);
+  }
+
+  @Override
+  protected int getNumberOfCharactersRead() {
+    if (current < 0) {
+      return 0;
+    }
+    if (current >= starts.length) {
+      return content.length();
+    }
+    return starts[current];
+  }
+
+  @Override
+  protected int getNumberOfNonWhiteCharsRead() {
+    if (current < 0) {
+      return 0;
+    }
+    if (current >= ends.length) {
+      return content.length();
+    }
+    return ends[current];
+  }
+
+  @Override
+  public String getCurrentLine() {
+    int idx = Math.min(getNumberOfCharactersRead(), content.length());
+    int start = content.lastIndexOf('\n', idx - 1) + 1;
+    int end = content.indexOf('\n', idx);
+    if (end == -1) {
+      end = content.length();
+    }
+    return content.substring(start, end);
+  }
+
+  /** Lexes normally, and records the tokens. */
+  private static final class RecordingLexer extends Lexer {
+    private Symbol[] syms;
+    private String[] texts;
+    private int[]    starts;
+    private int[]    ends;
+    private int      numTokens;
+
+    RecordingLexer(final String content) {
+      super(content);
+
+      int initialSize = Math.max(16, content.length() / 4);
+      syms = new Symbol[initialSize];
+      texts = new String[initialSize];
+      starts = new int[initialSize];
+      ends = new int[initialSize];
+    }
+
+    @Override
+    protected Symbol getSym() {
+      Symbol sym = super.getSym();
+      record(sym);
+      return sym;
+    }
+
+    private void record(final Symbol sym) {
+      if (numTokens == syms.length) {
+        int newSize = numTokens * 2;
+        syms = Arrays.copyOf(syms, newSize);
+        texts = Arrays.copyOf(texts, newSize);
+        starts = Arrays.copyOf(starts, newSize);
+        ends = Arrays.copyOf(ends, newSize);
+      }
+
+      syms[numTokens] = sym;
+      texts[numTokens] = getText();
+      starts[numTokens] = getNumberOfCharactersRead();
+      ends[numTokens] = getNumberOfNonWhiteCharsRead();
+      numTokens += 1;
+    }
+
+    private ReplayLexer createReplay(final String content) {
+      return new ReplayLexer(content, Arrays.copyOf(syms, numTokens),
+          Arrays.copyOf(texts, numTokens), Arrays.copyOf(starts, numTokens),
+          Arrays.copyOf(ends, numTokens));
+    }
+  }
+}
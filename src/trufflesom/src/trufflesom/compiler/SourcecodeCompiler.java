@@ -40,32 +40,107 @@ import trufflesom.vmobjects.SSymbol;
 
 public abstract class SourcecodeCompiler {
 
-  protected SourcecodeCompiler() {}
+  /** The cache for compiled classes, or {@code null} if classes are always parsed. */
+  private final ParseCache parseCache;
+
+  protected SourcecodeCompiler(final ParseCache parseCache) {
+    this.parseCache = parseCache;
+  }
 
   public abstract Parser<?> createParser(String code, Source source,
       StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe);
 
+  public abstract Parser<?> createParser(Lexer lexer, Source source,
+      StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe);
+
+  /**
+   * Save the classes loaded so far into an image, see {@link ParseCache#saveImage}.
+   */
+  public int saveImage(final File file, final String[] classPath) throws IOException {
+    if (parseCache == null) {
+      throw new IOException("Images are only supported by the bytecode compiler");
+    }
+    return parseCache.saveImage(file, classPath);
+  }
+
+  /**
+   * Restore the class from the loaded image, without looking at its source file.
+   *
+   * @return the class, or {@code null} if it needs to be compiled from its source
+   */
+  @TruffleBoundary
+  public SClass restoreClass(final String file, final String[] classPath,
+      final SClass systemClass,
+      final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe) {
+    if (parseCache == null || probe != null) {
+      return null;
+    }
+
+    ClassGenerationContext cgc = parseCache.restore(file, classPath);
+    if (cgc == null) {
+      return null;
+    }
+    return assemble(cgc, systemClass);
+  }
+
   @TruffleBoundary
   public SClass compileClass(final String path, final String file,
       final SClass systemClass,
       final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe)
       throws IOException, ProgramDefinitionError {
     String fname = path + File.separator + file + ".som";
-    File f = new File(fname);
-    Source source = SomLanguage.getSource(f);
+    Source source = SomLanguage.getSource(new File(fname));
+    return compileClass(source, file, systemClass, probe);
+  }
 
-    Parser<?> parser = createParser(source.getCharacters().toString(), source, probe);
-    SClass result = compile(parser, systemClass);
+  /** Compile the class from the given source, or load it from the parse cache. */
+  @TruffleBoundary
+  public SClass compileClass(final Source source, final String file,
+      final SClass systemClass,
+      final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe)
+      throws ProgramDefinitionError {
+    return compileClass(source, null, file, systemClass, probe);
+  }
+
+  /**
+   * Compile the class from a source that was already lexed, for instance by the
+   * {@link PreParser}, or load it from the parse cache.
+   *
+   * @param lexer the lexer to be used by the parser, or {@code null} to lex the source
+   */
+  @TruffleBoundary
+  public SClass compileClass(final Source source, final Lexer lexer, final String file,
+      final SClass systemClass,
+      final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe)
+      throws ProgramDefinitionError {
+    String content = source.getCharacters().toString();
 
-    SSymbol cname = result.getName();
-    String cnameC = cname.getString();
+    // with a structural probe, the parser needs to record the classes, methods, and slots
+    boolean useCache = parseCache != null && probe == null;
 
+    ClassGenerationContext cgc = null;
+    if (useCache) {
+      cgc = parseCache.load(file, source, content);
+    }
+
+    if (cgc == null) {
+      Parser<?> parser = lexer == null
+          ? createParser(content, source, probe)
+          : createParser(lexer, source, probe);
+      cgc = parse(parser);
+
+      if (useCache) {
+        parseCache.store(file, source, content, cgc);
+      }
+    }
+
+    String cnameC = cgc.getName().getString();
     if (file != cnameC) {
       throw new IllegalStateException("File name " + file
           + " does not match class name " + cnameC);
     }
 
-    return result;
+    return assemble(cgc, systemClass);
   }
 
   @TruffleBoundary
@@ -79,12 +154,20 @@ public abstract class SourcecodeCompiler {
 
   public static SClass compile(final Parser<?> parser, final SClass systemClass)
       throws ProgramDefinitionError {
+    return assemble(parse(parser), systemClass);
+  }
+
+  private static ClassGenerationContext parse(final Parser<?> parser)
+      throws ProgramDefinitionError {
     ClassGenerationContext cgc =
         new ClassGenerationContext(parser.getSource(), parser.structuralProbe);
-
-    SClass result = systemClass;
     parser.classdef(cgc);
+    return cgc;
+  }
 
+  private static SClass assemble(final ClassGenerationContext cgc,
+      final SClass systemClass) {
+    SClass result = systemClass;
     if (systemClass == null) {
       result = cgc.assemble();
     } else {
@@ -95,18 +178,39 @@ public abstract class SourcecodeCompiler {
   }
 
   public static class AstCompiler extends SourcecodeCompiler {
+    public AstCompiler() {
+      super(null);
+    }
+
     @Override
     public Parser<?> createParser(final String code, final Source source,
         final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe) {
       return new ParserAst(code, source, probe);
     }
+
+    @Override
+    public Parser<?> createParser(final Lexer lexer, final Source source,
+        final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe) {
+      return new ParserAst(lexer, source, probe);
+    }
   }
 
+  /** Compiles to bytecodes, and uses the {@link ParseCache}, if it is enabled. */
   public static class BcCompiler extends SourcecodeCompiler {
+    public BcCompiler() {
+      super(ParseCache.createFromSettings());
+    }
+
     @Override
     public Parser<?> createParser(final String code, final Source source,
         final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe) {
       return new ParserBc(code, source, probe);
     }
+
+    @Override
+    public Parser<?> createParser(final Lexer lexer, final Source source,
+        final StructuralProbe<SSymbol, SClass, SInvokable, Field, Variable> probe) {
+      return new ParserBc(lexer, source, probe);
+    }
   }
 }
@@ -140,7 +140,7 @@ public final class BytecodeGenerator {
   }
 
   public static void emitRETURNLOCAL(final BytecodeMethodGenContext mgenc) {
-    if (!mgenc.optimizeReturnField()) {
+    if (!mgenc.optimizeReturnField() && !mgenc.optimizeReturnArgument()) {
       emit1(mgenc, RETURN_LOCAL, 0);
     }
   }
@@ -308,6 +308,10 @@ public final class BytecodeGenerator {
     int stackEffect = -msg.getNumberOfSignatureArguments() + 1; // +1 for the return value
 
     byte idx = mgenc.addLiteralIfAbsent(msg, parser);
+    if (msg.getNumberOfSignatureArguments() == 2
+        && mgenc.optimizeBinarySendWithConstant(idx, parser)) {
+      return;
+    }
     emit2(mgenc, SEND, idx, stackEffect);
   }
 
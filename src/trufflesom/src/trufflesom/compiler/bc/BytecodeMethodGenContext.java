@@ -5,6 +5,7 @@ import static trufflesom.compiler.bc.BytecodeGenerator.emitJumpOnWithDummyOffset
 import static trufflesom.compiler.bc.BytecodeGenerator.emitJumpWithDummyOffset;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPOP;
 import static trufflesom.compiler.bc.BytecodeGenerator.emitPUSHCONSTANT;
+import static trufflesom.interpreter.bc.Bytecodes.ARG_CONST_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.DUP;
 import static trufflesom.interpreter.bc.Bytecodes.INC;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD;
@@ -13,6 +14,7 @@ import static trufflesom.interpreter.bc.Bytecodes.INVALID;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP2;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_BYTECODES;
+import static trufflesom.interpreter.bc.Bytecodes.LOCAL_CONST_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.POP;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
@@ -43,6 +45,7 @@ import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_1;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_LOCAL_2;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.PUSH_SELF;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_ARG1;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_0;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_1;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_2;
@@ -74,6 +77,7 @@ import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
 import trufflesom.interpreter.nodes.bc.BytecodeLoopNode.BackJump;
 import trufflesom.interpreter.nodes.literals.LiteralNode;
 import trufflesom.vm.NotYetImplementedException;
+import trufflesom.vm.VmSettings;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SClass;
@@ -97,6 +101,12 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
   private boolean finished;
   private boolean isCurrentlyInliningBlock = false;
 
+  /** Blocks use superinstructions if their outer method does. */
+  private boolean useSuperinstructions;
+
+  /** Offset of the last jump target, superinstructions must not span it. */
+  private int lastJumpTarget;
+
   private int currentStackDepth;
   private int maxStackDepth;
 
@@ -123,6 +133,20 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     bytecode = new ArrayList<>();
     inlinedLoops = new ArrayList<>();
     last4Bytecodes = new byte[4];
+
+    if (outerGenc == null) {
+      useSuperinstructions = VmSettings.UseSuperinstructions;
+    } else {
+      useSuperinstructions = ((BytecodeMethodGenContext) outerGenc).useSuperinstructions;
+    }
+  }
+
+  /**
+   * Overrides {@link VmSettings#UseSuperinstructions}, which is only set for the whole VM,
+   * to compile a method with or without superinstructions.
+   */
+  public void setUseSuperinstructions(final boolean useSuperinstructions) {
+    this.useSuperinstructions = useSuperinstructions;
   }
 
   public void dump() {
@@ -191,6 +215,7 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     int jumpOffset = bytecode.size() - instructionStart;
 
     checkJumpOffset(parser, jumpOffset);
+    lastJumpTarget = bytecode.size();
 
     if (jumpOffset <= 0xff) {
       bytecode.set(idxOfOffset, (byte) jumpOffset);
@@ -510,6 +535,12 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
       PUSH_CONSTANT, PUSH_CONSTANT_0, PUSH_CONSTANT_1, PUSH_CONSTANT_2,
       PUSH_0, PUSH_1, PUSH_NIL};
 
+  private static final byte[] PUSH_LOCAL_BYTECODES = new byte[] {
+      PUSH_LOCAL, PUSH_LOCAL_0, PUSH_LOCAL_1, PUSH_LOCAL_2};
+
+  private static final byte[] PUSH_ARGUMENT_BYTECODES = new byte[] {
+      PUSH_ARGUMENT, PUSH_SELF, PUSH_ARG1, PUSH_ARG2};
+
   private ExpressionNode optimizeLiteralReturn(final byte pushCandidate,
       final byte returnCandidate) {
 
@@ -822,6 +853,112 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     return true;
   }
 
+  private boolean canEmitSuperinstruction() {
+    // when we are inlining blocks, the jump targets are not yet all known
+    return useSuperinstructions && !isCurrentlyInliningBlock;
+  }
+
+  /** Superinstructions must not swallow a jump target. */
+  private boolean isJumpTargetInLastBytecodes(final int numBytecodes) {
+    return getOffsetOfLastBytecode(numBytecodes - 1) < lastJumpTarget;
+  }
+
+  private boolean isInCurrentContext(final int idxFromEnd) {
+    byte actual = last4Bytecodes[last4Bytecodes.length - 1 - idxFromEnd];
+    if (actual != PUSH_LOCAL && actual != PUSH_ARGUMENT) {
+      return true;
+    }
+
+    int bcOffset = getOffsetOfLastBytecode(idxFromEnd);
+    return bytecode.get(bcOffset + 2) == 0;
+  }
+
+  private byte getConstantIndex(final byte pushCandidate, final ParserBc parser)
+      throws ParseError {
+    if (pushCandidate == PUSH_0) {
+      return addLiteralIfAbsent(0L, parser);
+    } else if (pushCandidate == PUSH_1) {
+      return addLiteralIfAbsent(1L, parser);
+    } else if (pushCandidate == PUSH_NIL) {
+      return addLiteralIfAbsent(Nil.nilObject, parser);
+    }
+    return getIndex(0);
+  }
+
+  /**
+   * Try to use a superinstruction for a binary send with a constant argument
+   * to a local variable or an argument of the current context, for instance:
+   *
+   * <pre>
+   *   PUSH_LOCAL_0
+   *   PUSH_CONSTANT
+   *   SEND #&lt;
+   * </pre>
+   *
+   * The SEND hasn't been written yet.
+   *
+   * @return true, if optimized
+   */
+  public boolean optimizeBinarySendWithConstant(final byte selectorIdx,
+      final ParserBc parser) throws ParseError {
+    if (!canEmitSuperinstruction()) {
+      return false;
+    }
+
+    byte pushConstantCandidate = lastBytecodeIsOneOf(0, PUSH_CONSTANT_BYTECODES);
+    if (pushConstantCandidate == INVALID) {
+      return false;
+    }
+
+    byte superinstruction;
+    if (lastBytecodeIsOneOf(1, PUSH_LOCAL_BYTECODES) != INVALID) {
+      superinstruction = LOCAL_CONST_SEND;
+    } else if (lastBytecodeIsOneOf(1, PUSH_ARGUMENT_BYTECODES) != INVALID) {
+      superinstruction = ARG_CONST_SEND;
+    } else {
+      return false;
+    }
+
+    if (!isInCurrentContext(1) || isJumpTargetInLastBytecodes(2)) {
+      return false;
+    }
+
+    byte rcvrIdx = getIndex(1);
+    byte constantIdx = getConstantIndex(pushConstantCandidate, parser);
+
+    removeLastBytecodes(2); // remove the two push bytecodes
+    resetLastBytecodeBuffer();
+
+    // the two pushes were already accounted for, and the send leaves only its result
+    addBytecode(superinstruction, -1);
+    addBytecodeArgument(rcvrIdx);
+    addBytecodeArgument(constantIdx);
+    addBytecodeArgument(selectorIdx);
+    return true;
+  }
+
+  /**
+   * Try to use a RETURN_ARG1 instead of a PUSH_ARG1, RETURN_LOCAL sequence.
+   * The RETURN_LOCAL hasn't been written yet.
+   *
+   * @return true, if optimized
+   */
+  public boolean optimizeReturnArgument() {
+    if (!canEmitSuperinstruction()) {
+      return false;
+    }
+
+    if (lastBytecodeIs(0, PUSH_ARG1) == INVALID || isJumpTargetInLastBytecodes(1)) {
+      return false;
+    }
+
+    removeLastBytecodes(1); // remove the PUSH_ARG1 bytecode
+    resetLastBytecodeBuffer();
+
+    addBytecode(RETURN_ARG1, -1);
+    return true;
+  }
+
   /**
    * This works only, because we have a simple forward-pass parser,
    * and inlining, where this is used, happens right after the block was added.
@@ -838,7 +975,7 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     // HACK: similar to the {@see IfInlinedLiteralNode}
     // HACK: we don't support anything but booleans at the moment
 
-    if (lastBytecodeIsOneOf(0, PUSH_BLOCK_BYTECODES) == INVALID) {
+    if (!isLiteralBlockWithoutArguments(0)) {
       return false;
     }
 
@@ -908,12 +1045,11 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
     // HACK: We do assume that the receiver on the stack is a boolean,
     // HACK: similar to the IfTrueIfFalseNode.
     // HACK: We don't support anything but booleans at the moment.
-    byte pushBlockCandidate = lastBytecodeIsOneOf(0, PUSH_BLOCK_BYTECODES);
-    if (pushBlockCandidate == INVALID) {
+    if (!isLiteralBlockWithoutArguments(0)) {
       return false;
     }
 
-    assert getBytecodeLength(pushBlockCandidate) == 2;
+    assert getBytecodeLength(PUSH_BLOCK) == 2;
     byte blockLiteralIdx = bytecode.get(bytecode.size() - 1);
 
     removeLastBytecodes(1);
@@ -974,14 +1110,22 @@ public class BytecodeMethodGenContext extends MethodGenerationContext {
   }
 
   private boolean hasTwoLiteralBlockArguments() {
-    if (lastBytecodeIsOneOf(1, PUSH_BLOCK_BYTECODES) == INVALID) {
-      return false;
-    }
+    return isLiteralBlockWithoutArguments(1) && isLiteralBlockWithoutArguments(0);
+  }
 
-    if (lastBytecodeIsOneOf(0, PUSH_BLOCK_BYTECODES) == INVALID) {
+  /**
+   * Blocks with arguments are not inlined, their body may access the arguments
+   * with bytecodes that only work in the block's own context, for instance
+   * PUSH_ARG1 or the superinstructions.
+   */
+  private boolean isLiteralBlockWithoutArguments(final int idxFromEnd) {
+    if (lastBytecodeIsOneOf(idxFromEnd, PUSH_BLOCK_BYTECODES) == INVALID) {
       return false;
     }
-    return true;
+
+    byte blockLiteralIdx = bytecode.get(getOffsetOfLastBytecode(idxFromEnd) + 1);
+    SMethod blockMethod = (SMethod) literals.get(blockLiteralIdx);
+    return blockMethod.getNumberOfArguments() == 1;
   }
 
   private void completeJumpsAndEmitReturningNil(final ParserBc parser, final int loopBeginIdx,
@@ -27,6 +27,7 @@
 package trufflesom.compiler.bc;
 
 import static trufflesom.compiler.bc.BytecodeMethodGenContext.getJumpOffset;
+import static trufflesom.interpreter.bc.Bytecodes.ARG_CONST_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD;
 import static trufflesom.interpreter.bc.Bytecodes.INC_FIELD_PUSH;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP;
@@ -49,6 +50,7 @@ import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_NOT_NIL_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_NOT_NIL_TOP_TOP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_TOP_NIL;
+import static trufflesom.interpreter.bc.Bytecodes.LOCAL_CONST_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
 import static trufflesom.interpreter.bc.Bytecodes.POP_LOCAL;
@@ -335,6 +337,25 @@ public class Disassembler {
           break;
         }
 
+        case LOCAL_CONST_SEND:
+        case ARG_CONST_SEND: {
+          int idx = bytecodes.get(b + 1);
+          int constantIdx = bytecodes.get(b + 2);
+          int selectorIdx = bytecodes.get(b + 3);
+
+          Universe.errorPrint((bytecode == LOCAL_CONST_SEND ? "local: " : "argument: ")
+              + idx + ", constant: (index: " + constantIdx + ")");
+          if (literals != null) {
+            Universe.errorPrint(" value: " + literals[constantIdx]);
+          }
+          Universe.errorPrint(", (index: " + selectorIdx + ")");
+          if (literals != null) {
+            Universe.errorPrint(" signature: " + literals[selectorIdx]);
+          }
+          Universe.errorPrintln();
+          break;
+        }
+
         case RETURN_NON_LOCAL: {
           if (m != null) {
             Universe.errorPrintln("context: " + m.getContextLevel());
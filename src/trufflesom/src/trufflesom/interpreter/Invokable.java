@@ -1,5 +1,6 @@
 package trufflesom.interpreter;
 
+import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
@@ -83,6 +84,25 @@ public abstract class Invokable extends RootNode implements WithSource {
 
   public abstract void propagateLoopCountThroughoutLexicalScope(long count);
 
+  /**
+   * Reports the iterations of a loop implemented in a node, for instance in a primitive, to
+   * the invokable containing the node.
+   */
+  public static void reportLoopCount(final Node node, final long count) {
+    if (count == 0) {
+      return;
+    }
+
+    CompilerAsserts.neverPartOfCompilation("reportLoopCount");
+    Node current = node.getParent();
+    while (current != null && !(current instanceof RootNode)) {
+      current = current.getParent();
+    }
+    if (current != null) {
+      ((Invokable) current).propagateLoopCountThroughoutLexicalScope(count);
+    }
+  }
+
   public SClass getHolder() {
     return holder;
   }
@@ -21,25 +21,61 @@
  */
 package trufflesom.interpreter;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.nodes.ControlFlowException;
 
 
+/**
+ * Unwinds the stack for a non-local return, until the frame of the target method is reached.
+ *
+ * <p>
+ * In the interpreter, each return site reuses a single instance, to avoid an allocation per
+ * return. This is safe, because no SOM code runs while the exception unwinds the stack, and
+ * the target takes the result out of the exception before the next non-local return. In
+ * compiled code, a new instance is used, so that the compiler can remove it when the return
+ * and its target are in the same compilation unit.
+ */
 public final class ReturnException extends ControlFlowException {
   private static final long serialVersionUID = 8003954137724716L;
 
-  private final transient Object             result;
-  private final transient FrameOnStackMarker target;
+  private transient Object result;
+  private transient Frame  target;
+
+  public ReturnException() {}
 
-  public ReturnException(final Object result, final FrameOnStackMarker target) {
+  private ReturnException(final Object result, final Frame target) {
     this.result = result;
     this.target = target;
   }
 
-  public Object result() {
-    return result;
+  /**
+   * @param target the materialized frame of the method to return from
+   * @return the exception to throw
+   */
+  public ReturnException returnTo(final Object result, final Frame target) {
+    if (CompilerDirectives.inInterpreter()) {
+      this.result = result;
+      this.target = target;
+      return this;
+    }
+    return new ReturnException(result, target);
+  }
+
+  /**
+   * Hands the result to the target method, and drops the references to the result and the
+   * target frame. Otherwise, a reused instance would keep both alive until the next return.
+   *
+   * @return the result of the non-local return
+   */
+  public Object takeResult() {
+    Object r = result;
+    result = null;
+    target = null;
+    return r;
   }
 
-  public boolean reachedTarget(final FrameOnStackMarker current) {
+  public boolean reachedTarget(final Frame current) {
     return current == target;
   }
 }
@@ -17,11 +17,15 @@ import com.oracle.truffle.api.instrumentation.ProvidedTags;
 import com.oracle.truffle.api.instrumentation.StandardTags.ExpressionTag;
 import com.oracle.truffle.api.instrumentation.StandardTags.RootTag;
 import com.oracle.truffle.api.instrumentation.StandardTags.StatementTag;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 
 import trufflesom.compiler.SourcecodeCompiler.AstCompiler;
 import trufflesom.compiler.SourcecodeCompiler.BcCompiler;
+import trufflesom.interpreter.bc.BytecodeProfile;
+import trufflesom.interpreter.nodes.dispatch.MegamorphicMethodCache;
+import trufflesom.interpreter.nodes.dispatch.SendSiteStatistics;
 import trufflesom.interpreter.objectstorage.StorageAnalyzer;
 import trufflesom.tools.nodestats.Tags.AnyNode;
 import trufflesom.vm.NotYetImplementedException;
@@ -48,8 +52,35 @@ public class SomLanguage extends TruffleLanguage<SomLanguage> {
   @Option(help = "Test Selector", category = OptionCategory.USER) //
   protected static final OptionKey<String> TEST_SELECTOR = new OptionKey<>("");
 
+  @Option(help = "Maximal number of inline cache entries for message sends",
+      category = OptionCategory.EXPERT) //
+  protected static final OptionKey<Integer> SEND_CACHE_SIZE = new OptionKey<>(6);
+
+  @Option(help = "Maximal number of inline cache entries for perform: and reflective dispatch",
+      category = OptionCategory.EXPERT) //
+  protected static final OptionKey<Integer> PERFORM_CACHE_SIZE = new OptionKey<>(6);
+
+  @Option(help = "Maximal number of inline cache entries for block evaluation",
+      category = OptionCategory.EXPERT) //
+  protected static final OptionKey<Integer> BLOCK_CACHE_SIZE = new OptionKey<>(6);
+
+  @Option(help = "Maximal number of inline cache entries for global lookups",
+      category = OptionCategory.EXPERT) //
+  protected static final OptionKey<Integer> GLOBAL_CACHE_SIZE = new OptionKey<>(6);
+
+  private static final ContextReference<SomLanguage> CONTEXT =
+      ContextReference.create(SomLanguage.class);
+
   @CompilationFinal(dimensions = 1) private String[] args;
 
+  private final MegamorphicMethodCache methodCache = new MegamorphicMethodCache();
+
+  /** Inline cache sizes, read from the options when the context is created. */
+  @CompilationFinal private int sendCacheSize;
+  @CompilationFinal private int performCacheSize;
+  @CompilationFinal private int blockCacheSize;
+  @CompilationFinal private int globalCacheSize;
+
   private String classPath;
   private String testClass;
   private String testSelector;
@@ -64,6 +95,11 @@ public class SomLanguage extends TruffleLanguage<SomLanguage> {
     testClass = config.get(TEST_CLASS);
     testSelector = config.get(TEST_SELECTOR);
 
+    sendCacheSize = config.get(SEND_CACHE_SIZE);
+    performCacheSize = config.get(PERFORM_CACHE_SIZE);
+    blockCacheSize = config.get(BLOCK_CACHE_SIZE);
+    globalCacheSize = config.get(GLOBAL_CACHE_SIZE);
+
     return this;
   }
 
@@ -85,6 +121,35 @@ public class SomLanguage extends TruffleLanguage<SomLanguage> {
 
   @CompilationFinal private static SomLanguage current;
 
+  public static SomLanguage getContext(final Node node) {
+    return CONTEXT.get(node);
+  }
+
+  public MegamorphicMethodCache getMethodCache() {
+    return methodCache;
+  }
+
+  /*
+   * The cache sizes are only needed while specializing, so they are read from the current
+   * context, instead of one found via a node.
+   */
+
+  public static int getSendCacheSize() {
+    return getContext(null).sendCacheSize;
+  }
+
+  public static int getPerformCacheSize() {
+    return getContext(null).performCacheSize;
+  }
+
+  public static int getBlockCacheSize() {
+    return getContext(null).blockCacheSize;
+  }
+
+  public static int getGlobalCacheSize() {
+    return getContext(null).globalCacheSize;
+  }
+
   /** This is used by the Language Server to get to an initialized instance easily. */
   public static SomLanguage getCurrent() {
     return current;
@@ -103,6 +168,20 @@ public class SomLanguage extends TruffleLanguage<SomLanguage> {
                  .build();
   }
 
+  /** Create the source for a file, of which the content was already read. */
+  public static Source getSource(final File file, final String content) throws IOException {
+    return Source.newBuilder(LANG_ID, file.toURI().toURL())
+                 .content(content)
+                 .mimeType(MIME_TYPE)
+                 .build();
+  }
+
+  public static Source getSource(final String text, final String name) {
+    return Source.newBuilder(LANG_ID, text, name)
+                 .mimeType(MIME_TYPE)
+                 .build();
+  }
+
   private static final String START_STR = "START";
   private static final String INIT_STR  = "INIT";
 
@@ -136,6 +215,22 @@ public class SomLanguage extends TruffleLanguage<SomLanguage> {
           return 1;
         } catch (SomExit e) {
           return e.errorCode;
+        } finally {
+          if (VmSettings.PrintMethodCacheStats) {
+            methodCache.printStatistics();
+          }
+          if (VmSettings.SendSiteStats) {
+            SendSiteStatistics.printReport();
+          }
+          if (VmSettings.ProfileBytecodes) {
+            BytecodeProfile.printReport();
+          }
+          if (VmSettings.Verbose) {
+            Universe.printClassPathStatistics();
+          }
+          if (VmSettings.SaveImage != null) {
+            Universe.saveImage();
+          }
         }
       }
     }
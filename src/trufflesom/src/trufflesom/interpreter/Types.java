@@ -31,10 +31,12 @@ import java.math.BigInteger;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.ImplicitCast;
 import com.oracle.truffle.api.dsl.TypeSystem;
 
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SRope;
 
 
 @TypeSystem({boolean.class,
@@ -44,6 +46,12 @@ import trufflesom.vmobjects.SClass;
     Object[].class}) // Object[] is only for argument passing
 public class Types {
 
+  /** Primitives that expect a {@link String} flatten ropes. */
+  @ImplicitCast
+  public static String castRope(final SRope rope) {
+    return rope.getString();
+  }
+
   public static SClass getClassOf(final Object obj) {
     CompilerAsserts.neverPartOfCompilation();
     assert obj != null;
@@ -0,0 +1,277 @@
+package trufflesom.interpreter.bc;
+
+import static trufflesom.interpreter.bc.Bytecodes.HALT;
+import static trufflesom.interpreter.bc.Bytecodes.JUMP;
+import static trufflesom.interpreter.bc.Bytecodes.JUMP2_BACKWARDS;
+import static trufflesom.interpreter.bc.Bytecodes.LOCAL_CONST_SEND;
+import static trufflesom.interpreter.bc.Bytecodes.NUM_BYTECODES;
+import static trufflesom.interpreter.bc.Bytecodes.PUSH_GLOBAL;
+import static trufflesom.interpreter.bc.Bytecodes.Q_PUSH_GLOBAL;
+import static trufflesom.interpreter.bc.Bytecodes.Q_SEND;
+import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_3;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_2;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_LOCAL;
+import static trufflesom.interpreter.bc.Bytecodes.SEND;
+import static trufflesom.interpreter.bc.Bytecodes.getBytecodeLength;
+import static trufflesom.interpreter.bc.Bytecodes.getBytecodeName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import trufflesom.vm.Universe;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Counts the dynamically executed bytecodes, as well as the pairs and triples of bytecodes
+ * that are executed one after another, to identify candidates for superinstructions.
+ *
+ * <p>
+ * Recording is enabled with {@code -Dsom.bcProfile=true}, and is best done with
+ * {@code -Dsom.jitCompiler=false}, so that all bytecodes are executed by the interpreter.
+ * Sequences are only counted when the bytecodes follow each other in the bytecode array,
+ * because only those can be fused. Quickened bytecodes are counted as their original
+ * bytecode, and sends are distinguished by their selector.
+ *
+ * <p>
+ * At exit, the most frequent sequences are reported together with the declarations
+ * for the corresponding superinstructions, ranked by the number of dispatches they save.
+ */
+public final class BytecodeProfile {
+  private static final int TOP_N = 20;
+
+  private static final int  ELEMENT_BITS = 21;
+  private static final long ELEMENT_MASK = (1L << ELEMENT_BITS) - 1;
+
+  private static final Map<Long, long[]> singles = new HashMap<>();
+  private static final Map<Long, long[]> pairs   = new HashMap<>();
+  private static final Map<Long, long[]> triples = new HashMap<>();
+
+  /** Sends are recorded per selector, with ids following the bytecodes. */
+  private static final Map<SSymbol, Integer> selectorIds  = new IdentityHashMap<>();
+  private static final List<SSymbol>         selectorsById = new ArrayList<>();
+
+  private BytecodeProfile() {}
+
+  private static byte normalize(final byte bytecode) {
+    if (bytecode == Q_PUSH_GLOBAL) {
+      return PUSH_GLOBAL;
+    }
+    if (Q_SEND <= bytecode && bytecode <= Q_SEND_3) {
+      return SEND;
+    }
+    return bytecode;
+  }
+
+  private static int elementAt(final byte[] bytecodes, final Object[] literals,
+      final int bytecodeIndex) {
+    byte bytecode = normalize(bytecodes[bytecodeIndex]);
+    if (bytecode != SEND) {
+      return bytecode;
+    }
+
+    SSymbol selector = (SSymbol) literals[bytecodes[bytecodeIndex + 1]];
+    Integer id = selectorIds.get(selector);
+    if (id == null) {
+      id = NUM_BYTECODES + selectorsById.size();
+      selectorIds.put(selector, id);
+      selectorsById.add(selector);
+    }
+    return id;
+  }
+
+  private static boolean isFallThrough(final byte[] bytecodes, final int previousIndex,
+      final int bytecodeIndex) {
+    return previousIndex >= 0
+        && previousIndex + getBytecodeLength(bytecodes[previousIndex]) == bytecodeIndex;
+  }
+
+  private static void increment(final Map<Long, long[]> counts, final long key) {
+    long[] count = counts.get(key);
+    if (count == null) {
+      count = new long[1];
+      counts.put(key, count);
+    }
+    count[0] += 1;
+  }
+
+  /**
+   * Record the execution of the bytecode at {@code bytecodeIndex}. The indexes of the
+   * previously executed bytecodes are -1 at the start of the method.
+   */
+  @TruffleBoundary
+  public static synchronized void record(final byte[] bytecodes, final Object[] literals,
+      final int prevPrevIndex, final int prevIndex, final int bytecodeIndex) {
+    long current = elementAt(bytecodes, literals, bytecodeIndex);
+    increment(singles, current);
+
+    if (!isFallThrough(bytecodes, prevIndex, bytecodeIndex)) {
+      return;
+    }
+
+    long prev = elementAt(bytecodes, literals, prevIndex);
+    increment(pairs, (prev << ELEMENT_BITS) | current);
+
+    if (!isFallThrough(bytecodes, prevPrevIndex, prevIndex)) {
+      return;
+    }
+
+    long prevPrev = elementAt(bytecodes, literals, prevPrevIndex);
+    increment(triples, (prevPrev << (2 * ELEMENT_BITS)) | (prev << ELEMENT_BITS) | current);
+  }
+
+  private static int[] decode(final long key, final int length) {
+    int[] elements = new int[length];
+    for (int i = length - 1; i >= 0; i -= 1) {
+      elements[i] = (int) ((key >>> (ELEMENT_BITS * (length - 1 - i))) & ELEMENT_MASK);
+    }
+    return elements;
+  }
+
+  private static byte bytecodeOf(final int element) {
+    return element >= NUM_BYTECODES ? SEND : (byte) element;
+  }
+
+  private static String nameOf(final int element) {
+    if (element >= NUM_BYTECODES) {
+      return "SEND #" + selectorsById.get(element - NUM_BYTECODES).getString();
+    }
+    return getBytecodeName((byte) element);
+  }
+
+  private static String describe(final int[] elements) {
+    StringBuilder sb = new StringBuilder();
+    for (int e : elements) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(nameOf(e));
+    }
+    return sb.toString();
+  }
+
+  private static boolean endsControlFlow(final byte bytecode) {
+    return bytecode == HALT || (RETURN_LOCAL <= bytecode && bytecode <= RETURN_FIELD_2)
+        || (JUMP <= bytecode && bytecode <= JUMP2_BACKWARDS);
+  }
+
+  /**
+   * A sequence can become a superinstruction, if it does not contain one already,
+   * and control flow only leaves it with the last bytecode.
+   */
+  private static boolean isCandidate(final int[] elements) {
+    for (int i = 0; i < elements.length; i += 1) {
+      byte bytecode = bytecodeOf(elements[i]);
+      if (bytecode >= LOCAL_CONST_SEND) {
+        return false;
+      }
+      if (i < elements.length - 1 && endsControlFlow(bytecode)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String superinstructionName(final int[] elements) {
+    StringBuilder sb = new StringBuilder();
+    for (int e : elements) {
+      if (sb.length() > 0) {
+        sb.append('_');
+      }
+      sb.append(getBytecodeName(bytecodeOf(e)));
+    }
+    return sb.toString();
+  }
+
+  private static List<Entry<Long, long[]>> sorted(final Map<Long, long[]> counts) {
+    List<Entry<Long, long[]>> result = new ArrayList<>(counts.entrySet());
+    result.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+    return result;
+  }
+
+  private static long total(final Map<Long, long[]> counts) {
+    long sum = 0;
+    for (long[] c : counts.values()) {
+      sum += c[0];
+    }
+    return sum;
+  }
+
+  private static void printTop(final String title, final Map<Long, long[]> counts,
+      final int length, final long executed) {
+    Universe.errorPrintln("[bc] " + title);
+    int n = 0;
+    for (Entry<Long, long[]> e : sorted(counts)) {
+      if (n == TOP_N) {
+        break;
+      }
+      n += 1;
+
+      long count = e.getValue()[0];
+      Universe.errorPrintln(String.format("[bc] %8.4f%% %14d  %s",
+          100.0 * count / executed, count, describe(decode(e.getKey(), length))));
+    }
+    Universe.errorPrintln("[bc]");
+  }
+
+  private static final class Candidate {
+    private final int[] elements;
+    private final long  savedDispatches;
+
+    Candidate(final int[] elements, final long count) {
+      this.elements = elements;
+      this.savedDispatches = count * (elements.length - 1);
+    }
+  }
+
+  private static void addCandidates(final List<Candidate> candidates,
+      final Map<Long, long[]> counts, final int length) {
+    for (Entry<Long, long[]> e : counts.entrySet()) {
+      int[] elements = decode(e.getKey(), length);
+      if (isCandidate(elements)) {
+        candidates.add(new Candidate(elements, e.getValue()[0]));
+      }
+    }
+  }
+
+  private static void printCandidates() {
+    List<Candidate> candidates = new ArrayList<>();
+    addCandidates(candidates, pairs, 2);
+    addCandidates(candidates, triples, 3);
+    candidates.sort((a, b) -> Long.compare(b.savedDispatches, a.savedDispatches));
+
+    Universe.errorPrintln("[bc] Superinstruction Candidates, by saved dispatches");
+    int nextBytecode = NUM_BYTECODES;
+    for (int i = 0; i < Math.min(TOP_N, candidates.size()); i += 1) {
+      Candidate c = candidates.get(i);
+      Universe.errorPrintln("[bc]   public static final byte "
+          + superinstructionName(c.elements) + " = " + nextBytecode + "; // "
+          + describe(c.elements) + ", saves " + c.savedDispatches);
+      nextBytecode += 1;
+    }
+  }
+
+  @TruffleBoundary
+  public static synchronized void printReport() {
+    long executed = total(singles);
+
+    Universe.errorPrintln("[bc] Bytecode Profile");
+    Universe.errorPrintln("[bc] Executed Bytecodes: " + executed);
+    Universe.errorPrintln("[bc]");
+
+    if (executed == 0) {
+      return;
+    }
+
+    printTop("Bytecodes", singles, 1, executed);
+    printTop("Pairs", pairs, 2, executed);
+    printTop("Triples", triples, 3, executed);
+    printCandidates();
+  }
+}
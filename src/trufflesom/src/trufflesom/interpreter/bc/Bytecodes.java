@@ -121,6 +121,12 @@ public class Bytecodes {
   public static final byte Q_SEND_2      = 67;
   public static final byte Q_SEND_3      = 68;
 
+  // Superinstructions, selected based on the data of the bytecode profile,
+  // i.e., -Dsom.bcProfile=true. They are only emitted with -Dsom.superinstructions=true
+  public static final byte LOCAL_CONST_SEND = 69;
+  public static final byte ARG_CONST_SEND   = 70;
+  public static final byte RETURN_ARG1      = 71;
+
   public static final byte INVALID = -1;
 
   public static final byte NUM_1_BYTE_JUMP_BYTECODES = 10;
@@ -146,9 +152,10 @@ public class Bytecodes {
     return PADDED_BYTECODE_NAMES[bytecode];
   }
 
-  public static final byte LEN_NO_ARG   = 1;
-  public static final byte LEN_ONE_ARG  = 2;
-  public static final byte LEN_TWO_ARGS = 3;
+  public static final byte LEN_NO_ARG     = 1;
+  public static final byte LEN_ONE_ARG    = 2;
+  public static final byte LEN_TWO_ARGS   = 3;
+  public static final byte LEN_THREE_ARGS = 4;
 
   public static int getBytecodeLength(final byte bytecode) {
     return BYTECODE_LENGTH[bytecode];
@@ -190,7 +197,7 @@ public class Bytecodes {
   }
 
   static {
-    NUM_BYTECODES = Q_SEND_3 + 1;
+    NUM_BYTECODES = RETURN_ARG1 + 1;
 
     PADDED_BYTECODE_NAMES = new String[] {
         "HALT            ",
@@ -279,6 +286,10 @@ public class Bytecodes {
         "Q_SEND_1        ",
         "Q_SEND_2        ",
         "Q_SEND_3        ",
+
+        "LOCAL_CONST_SEND",
+        "ARG_CONST_SEND  ",
+        "RETURN_ARG1     ",
     };
 
     assert PADDED_BYTECODE_NAMES.length == NUM_BYTECODES : "Inconsistency between number of bytecodes and defined padded names";
@@ -369,6 +380,10 @@ public class Bytecodes {
         2, // Q_SEND_1
         2, // Q_SEND_2
         2, // Q_SEND_3
+
+        4, // LOCAL_CONST_SEND
+        4, // ARG_CONST_SEND
+        1, // RETURN_ARG1
     };
 
     assert BYTECODE_LENGTH.length == NUM_BYTECODES : "The BYTECODE_LENGTH array is not having the same size as number of bytecodes";
@@ -254,6 +254,10 @@ public abstract class FieldNode extends ExpressionNode {
       this.write = write;
     }
 
+    public FieldWriteNode getWrite() {
+      return (FieldWriteNode) write;
+    }
+
     @Override
     public Object doPreEvaluated(final VirtualFrame frame, final Object[] args) {
       write.doPreEvaluated(frame, args);
@@ -90,6 +90,11 @@ public abstract class GlobalNode extends ExpressionNode
     this.globalName = globalName;
   }
 
+  /** @return the name, or {@code null} for nodes created for a literal */
+  public SSymbol getGlobalName() {
+    return globalName;
+  }
+
   protected GlobalNode() {
     this.globalName = null;
   }
@@ -28,7 +28,6 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import trufflesom.bdt.inlining.ScopeAdaptationVisitor;
 import trufflesom.bdt.inlining.ScopeAdaptationVisitor.ScopeElement;
 import trufflesom.compiler.Variable.Internal;
-import trufflesom.interpreter.FrameOnStackMarker;
 import trufflesom.interpreter.ReturnException;
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SBlock;
@@ -39,6 +38,7 @@ public final class ReturnNonLocalNode extends ContextualNode {
   @Child private ExpressionNode expression;
   private final BranchProfile   blockEscaped;
   private final Internal        onStackMarkerVar;
+  private final ReturnException returnException;
 
   private final int onStackMarkerIndex;
 
@@ -50,6 +50,7 @@ public final class ReturnNonLocalNode extends ContextualNode {
     this.blockEscaped = BranchProfile.create();
     this.onStackMarkerVar = onStackMarkerVar;
     this.onStackMarkerIndex = onStackMarkerVar.getIndex();
+    this.returnException = new ReturnException();
   }
 
   public ReturnNonLocalNode(final ReturnNonLocalNode node) {
@@ -61,10 +62,9 @@ public final class ReturnNonLocalNode extends ContextualNode {
     Object result = expression.executeGeneric(frame);
 
     MaterializedFrame ctx = determineContext(frame);
-    FrameOnStackMarker marker = (FrameOnStackMarker) ctx.getObject(onStackMarkerIndex);
 
-    if (marker.isOnStack()) {
-      throw new ReturnException(result, marker);
+    if (ctx.getBoolean(onStackMarkerIndex)) {
+      throw returnException.returnTo(result, ctx);
     } else {
       blockEscaped.enter();
       SBlock block = (SBlock) frame.getArguments()[0];
@@ -99,7 +99,8 @@ public final class ReturnNonLocalNode extends ContextualNode {
   public static final class ReturnLocalNode extends NoPreEvalExprNode {
     @Child private ExpressionNode expression;
 
-    private final Internal onStackMarkerVar;
+    private final Internal        onStackMarkerVar;
+    private final ReturnException returnException;
 
     private final int onStackMarkerIndex;
 
@@ -108,19 +109,19 @@ public final class ReturnNonLocalNode extends ContextualNode {
 
       this.onStackMarkerVar = onStackMarker;
       this.onStackMarkerIndex = onStackMarker.getIndex();
+      this.returnException = new ReturnException();
     }
 
     @Override
     public Object executeGeneric(final VirtualFrame frame) {
       Object result = expression.executeGeneric(frame);
-      FrameOnStackMarker marker = (FrameOnStackMarker) frame.getObject(onStackMarkerIndex);
 
       // this ReturnLocalNode should only become part of an AST because of
       // inlining a literal block, and that block, should never be
       // captured as a value and passed around. Because, we should only ever
       // do the inlining for blocks where we know this doesn't happen.
-      assert marker.isOnStack();
-      throw new ReturnException(result, marker);
+      assert frame.getBoolean(onStackMarkerIndex);
+      throw returnException.returnTo(result, frame.materialize());
     }
 
     @Override
@@ -160,24 +161,27 @@ public final class ReturnNonLocalNode extends ContextualNode {
       return methodBody;
     }
 
+    /**
+     * The frame itself identifies the target of a non-local return, and the on-stack marker
+     * slot holds a boolean. Thus, no marker object needs to be allocated on method entry.
+     */
     @Override
     public Object executeGeneric(final VirtualFrame frame) {
-      FrameOnStackMarker marker = new FrameOnStackMarker();
-      frame.setObject(onStackMarkerIndex, marker);
+      frame.setBoolean(onStackMarkerIndex, true);
 
       try {
         return methodBody.executeGeneric(frame);
       } catch (ReturnException e) {
         nonLocalReturnHandler.enter();
-        if (!e.reachedTarget(marker)) {
+        if (!e.reachedTarget(frame.materialize())) {
           doPropagate.enter();
           throw e;
         } else {
           doCatch.enter();
-          return e.result();
+          return e.takeResult();
         }
       } finally {
-        marker.frameNoLongerOnStack();
+        frame.setBoolean(onStackMarkerIndex, false);
       }
     }
 
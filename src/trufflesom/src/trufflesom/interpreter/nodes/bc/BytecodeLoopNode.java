@@ -1,5 +1,6 @@
 package trufflesom.interpreter.nodes.bc;
 
+import static trufflesom.interpreter.bc.Bytecodes.ARG_CONST_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP2_ON_NIL_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP2_ON_NIL_TOP_TOP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP2_ON_NOT_NIL_POP;
@@ -42,6 +43,7 @@ import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_FALSE_TOP_NIL;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_POP;
 import static trufflesom.interpreter.bc.Bytecodes.JUMP_ON_TRUE_TOP_NIL;
+import static trufflesom.interpreter.bc.Bytecodes.LOCAL_CONST_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.POP;
 import static trufflesom.interpreter.bc.Bytecodes.POP_ARGUMENT;
 import static trufflesom.interpreter.bc.Bytecodes.POP_FIELD;
@@ -77,6 +79,7 @@ import static trufflesom.interpreter.bc.Bytecodes.Q_SEND;
 import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_1;
 import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_2;
 import static trufflesom.interpreter.bc.Bytecodes.Q_SEND_3;
+import static trufflesom.interpreter.bc.Bytecodes.RETURN_ARG1;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_0;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_1;
 import static trufflesom.interpreter.bc.Bytecodes.RETURN_FIELD_2;
@@ -118,11 +121,11 @@ import trufflesom.compiler.Variable.Local;
 import trufflesom.compiler.bc.BytecodeMethodGenContext;
 import trufflesom.compiler.bc.Disassembler;
 import trufflesom.interpreter.EscapedBlockException;
-import trufflesom.interpreter.FrameOnStackMarker;
 import trufflesom.interpreter.Invokable;
 import trufflesom.interpreter.Method;
 import trufflesom.interpreter.ReturnException;
 import trufflesom.interpreter.Types;
+import trufflesom.interpreter.bc.BytecodeProfile;
 import trufflesom.interpreter.bc.Bytecodes;
 import trufflesom.interpreter.bc.RespecializeException;
 import trufflesom.interpreter.bc.RestartLoopException;
@@ -145,6 +148,7 @@ import trufflesom.primitives.Primitives;
 import trufflesom.vm.Classes;
 import trufflesom.vm.NotYetImplementedException;
 import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SBlock;
@@ -172,6 +176,8 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
   private final int frameOnStackMarkerIndex;
 
+  private final ReturnException returnException = new ReturnException();
+
   public BytecodeLoopNode(final byte[] bytecodes, final int numLocals,
       final Object[] literals, final int maxStackDepth,
       final int frameOnStackMarkerIndex, final BackJump[] inlinedLoops, int contextLevel) {
@@ -376,6 +382,9 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
 
     int backBranchesTaken = 0;
 
+    int prevBytecodeIndex = -1;
+    int prevPrevBytecodeIndex = -1;
+
     while (true) {
       byte bytecode = bytecodes[bytecodeIndex];
 
@@ -383,6 +392,13 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
       CompilerAsserts.partialEvaluationConstant(bytecode);
       CompilerDirectives.ensureVirtualized(stack);
 
+      if (VmSettings.ProfileBytecodes) {
+        BytecodeProfile.record(bytecodes, literalsAndConstants, prevPrevBytecodeIndex,
+            prevBytecodeIndex, bytecodeIndex);
+        prevPrevBytecodeIndex = prevBytecodeIndex;
+        prevBytecodeIndex = bytecodeIndex;
+      }
+
       switch (HostCompilerDirectives.markThreadedSwitch(bytecode)) {
         case HALT: {
           return stack[stackPointer];
@@ -1234,12 +1250,96 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           break;
         }
 
+        case LOCAL_CONST_SEND:
+        case ARG_CONST_SEND: {
+          byte idx = bytecodes[bytecodeIndex + 1];
+          Object rcvr = bytecode == LOCAL_CONST_SEND ? frame.getObject(idx)
+              : arguments[idx];
+          Object arg = literalsAndConstants[bytecodes[bytecodeIndex + 2]];
+
+          stackPointer += 1;
+
+          try {
+            Node node = quickened[bytecodeIndex];
+            if (node == null) {
+              stack[stackPointer] = specializeSendWithConstant(frame, bytecodeIndex, rcvr, arg);
+            } else if (node instanceof BinaryExpressionNode) {
+              stack[stackPointer] =
+                  ((BinaryExpressionNode) node).executeEvaluated(frame, rcvr, arg);
+            } else {
+              stack[stackPointer] = ((AbstractMessageSendNode) node).doPreEvaluated(frame,
+                  new Object[] {rcvr, arg});
+            }
+            bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
+          } catch (RestartLoopException e) {
+            bytecodeIndex = 0;
+            stackPointer = -1;
+          } catch (EscapedBlockException e) {
+            CompilerDirectives.transferToInterpreter();
+            stack[stackPointer] = handleEscapedBlock(frame, e);
+            bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
+          } catch (RespecializeException r) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            stack[stackPointer] =
+                respecializeSendWithConstant(frame, bytecodeIndex, r, rcvr, arg);
+            bytecodeIndex += Bytecodes.LEN_THREE_ARGS;
+          }
+          break;
+        }
+
+        case RETURN_ARG1: {
+          LoopNode.reportLoopCount(this, backBranchesTaken);
+          return arguments[1];
+        }
+
         default:
           missingBytecode(bytecode);
       }
     }
   }
 
+  /**
+   * Specialize the send of a superinstruction. Unlike {@link #specializeSendBytecode}, this
+   * does not quicken the bytecode, because the superinstruction covers more than the send.
+   */
+  @InliningCutoff
+  private Object specializeSendWithConstant(final VirtualFrame frame,
+      final int bytecodeIndex, final Object rcvr, final Object arg) {
+    CompilerDirectives.transferToInterpreterAndInvalidate();
+
+    byte literalIdx = bytecodesField[bytecodeIndex + 3];
+    SSymbol signature = (SSymbol) literalsAndConstantsField[literalIdx];
+    Object[] callArgs = new Object[] {rcvr, arg};
+
+    ExpressionNode[] dummyArgs = new ExpressionNode[] {dummyNode, dummyNode};
+    Specializer<ExpressionNode, SSymbol> specializer =
+        Primitives.Current.getEagerSpecializer(signature, callArgs, dummyArgs);
+
+    if (specializer != null) {
+      BinaryExpressionNode quick =
+          (BinaryExpressionNode) specializer.create(callArgs, dummyArgs, sourceCoord);
+      quickenedField[bytecodeIndex] = insert(quick);
+      try {
+        return quick.executeEvaluated(frame, rcvr, arg);
+      } catch (RespecializeException r) {
+        return respecializeSendWithConstant(frame, bytecodeIndex, r, rcvr, arg);
+      }
+    }
+
+    GenericMessageSendNode quick = MessageSendNode.createGeneric(signature, null, sourceCoord);
+    quickenedField[bytecodeIndex] = insert(quick);
+    return quick.doPreEvaluated(frame, callArgs);
+  }
+
+  @InliningCutoff
+  private Object respecializeSendWithConstant(final VirtualFrame frame,
+      final int bytecodeIndex, final RespecializeException r, final Object rcvr,
+      final Object arg) {
+    CompilerDirectives.transferToInterpreterAndInvalidate();
+    quickenedField[bytecodeIndex] = insert(r.send);
+    return r.send.doPreEvaluated(frame, new Object[] {rcvr, arg});
+  }
+
   @InliningCutoff
   public Object specializeSendBytecode(final VirtualFrame frame, final int bytecodeIndex,
       final SSymbol signature, final int numberOfArguments, final Object[] callArgs) {
@@ -1306,11 +1406,9 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
   @InliningCutoff
   private void doReturnNonLocal(final VirtualFrame frame, final Object result) {
     MaterializedFrame ctx = determineContext(frame, contextLevel);
-    FrameOnStackMarker marker =
-        (FrameOnStackMarker) ctx.getObject(frameOnStackMarkerIndex);
 
-    if (marker.isOnStack()) {
-      throw new ReturnException(result, marker);
+    if (ctx.getBoolean(frameOnStackMarkerIndex)) {
+      throw returnException.returnTo(result, ctx);
     } else {
       SBlock block = (SBlock) frame.getArguments()[0];
       throw new EscapedBlockException(block);
@@ -1332,6 +1430,14 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
     return maxStackDepth;
   }
 
+  public int getFrameOnStackMarkerIndex() {
+    return frameOnStackMarkerIndex;
+  }
+
+  public BackJump[] getInlinedLoops() {
+    return inlinedLoopsField;
+  }
+
   public int getNumberOfBytecodes() {
     return bytecodesField.length;
   }
@@ -1411,6 +1517,14 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
       this.backwardsJumpIdx = backwardsJumpIdx;
     }
 
+    public int getLoopBeginIdx() {
+      return loopBeginIdx;
+    }
+
+    public int getBackwardsJumpIdx() {
+      return backwardsJumpIdx;
+    }
+
     @Override
     public int compareTo(final BackJump o) {
       return this.loopBeginIdx - o.loopBeginIdx;
@@ -1660,6 +1774,22 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           throw new IllegalStateException(
               "I wouldn't expect RETURN_FIELD_n ever to be inlined, since it's only generated in the most outer methods");
 
+        case LOCAL_CONST_SEND: {
+          // the superinstruction is split up again, the local may have moved
+          byte localIdx = bytecodes[i + 1];
+          Local local = inliner.getAdaptedLocal(localIdx, 0, true);
+          local.emitPush(mgenc);
+
+          emitPUSHCONSTANT(mgenc, literalsAndConstants[bytecodes[i + 2]], null);
+          emitSEND(mgenc, (SSymbol) literalsAndConstants[bytecodes[i + 3]], null);
+          break;
+        }
+
+        case ARG_CONST_SEND:
+        case RETURN_ARG1: {
+          throw new IllegalStateException("contextLevel is 0, so, not expected to be here");
+        }
+
         case INC:
         case DEC: {
           emit1(mgenc, bytecode, 0);
@@ -1902,6 +2032,20 @@ public class BytecodeLoopNode extends NoPreEvalExprNode implements ScopeReferenc
           break;
         }
 
+        case LOCAL_CONST_SEND: {
+          byte localIdx = bytecodes[i + 1];
+          Local l = inliner.getAdaptedLocal(localIdx, 0, requiresChangesToContextLevels);
+          if (localIdx != l.getIndex()) {
+            bytecodes[i + 1] = (byte) l.getIndex();
+          }
+          break;
+        }
+
+        case ARG_CONST_SEND:
+        case RETURN_ARG1: {
+          break;
+        }
+
         default:
           throw new NotYetImplementedException(
               "Support for bytecode " + getBytecodeName(bytecode) + " has not yet been added");
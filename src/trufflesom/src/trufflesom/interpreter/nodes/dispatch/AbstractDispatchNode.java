@@ -21,8 +21,6 @@ import trufflesom.vmobjects.SSymbol;
 @GenerateWrapper
 public abstract class AbstractDispatchNode extends Node
     implements DispatchChain, InstrumentableNode, WithSource {
-  public static final int INLINE_CACHE_SIZE = 6;
-
   @NeverDefault
   public static AbstractDispatchNode create(final SSymbol selector) {
     return new UninitializedDispatchNode(selector);
@@ -55,6 +55,10 @@ public final class CachedDnuNode extends AbstractCachedDispatchNode {
           + Types.getClassOf(rcvr).getName().getString());
     }
 
+    if (VmSettings.SendSiteStats) {
+      SendSiteStatistics.recordDnu(this, Types.getClassOf(rcvr));
+    }
+
     Object[] argsArr = new Object[] {
         rcvr, selector, SArguments.getArgumentsWithoutReceiver(arguments)};
     return cachedMethod.call(argsArr);
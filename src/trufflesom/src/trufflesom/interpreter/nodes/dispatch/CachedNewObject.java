@@ -47,7 +47,7 @@ public class CachedNewObject extends AbstractDispatchWithSource {
           isLatest = l.getAssumption();
         }
 
-        return new SObject(clazz, newInstanceLayout);
+        return SObject.create(clazz, newInstanceLayout);
       }
     }
     return nextInCache.executeDispatch(frame, arguments);
@@ -4,6 +4,7 @@ import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 
 import trufflesom.interpreter.objectstorage.ObjectLayout;
 import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SLargeObject;
 import trufflesom.vmobjects.SObject;
 
 
@@ -25,8 +26,8 @@ public abstract class DispatchGuard {
       return new CheckSClass(((SClass) obj).getObjectLayout());
     }
 
-    if (clazz == SObject.class) {
-      return new CheckSObject(((SObject) obj).getObjectLayout());
+    if (clazz == SObject.class || clazz == SLargeObject.class) {
+      return new CheckSObject(clazz, ((SObject) obj).getObjectLayout());
     }
 
     return new CheckClass(clazz);
@@ -78,16 +79,18 @@ public abstract class DispatchGuard {
 
   private static final class CheckSObject extends DispatchGuard {
 
+    private final Class<?>     expectedClass;
     private final ObjectLayout expected;
 
-    CheckSObject(final ObjectLayout expected) {
+    CheckSObject(final Class<?> expectedClass, final ObjectLayout expected) {
+      this.expectedClass = expectedClass;
       this.expected = expected;
     }
 
     @Override
     public boolean entryMatches(final Object obj) throws InvalidAssumptionException {
       expected.checkIsLatest();
-      return obj.getClass() == SObject.class &&
+      return obj.getClass() == expectedClass &&
           ((SObject) obj).getObjectLayout() == expected;
     }
   }
@@ -10,6 +10,7 @@ import com.oracle.truffle.api.nodes.IndirectCallNode;
 import trufflesom.interpreter.SArguments;
 import trufflesom.primitives.reflection.ObjectPrims.ClassPrim;
 import trufflesom.primitives.reflection.ObjectPrimsFactory.ClassPrimFactory;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
@@ -32,7 +33,11 @@ public final class GenericDispatchNode extends AbstractDispatchNode {
   private Object dispatch(final Object[] arguments) {
     Object rcvr = arguments[0];
     SClass rcvrClass = classNode.executeEvaluated(rcvr);
-    SInvokable method = rcvrClass.lookupInvokable(selector);
+    SInvokable method = MegamorphicMethodCache.lookup(this, rcvrClass, selector);
+
+    if (VmSettings.SendSiteStats) {
+      SendSiteStatistics.recordGenericReceiver(this, rcvrClass);
+    }
 
     CallTarget target;
     Object[] args;
@@ -43,6 +48,9 @@ public final class GenericDispatchNode extends AbstractDispatchNode {
     } else {
       // TODO: actually do use node
       CompilerDirectives.transferToInterpreter();
+      if (VmSettings.SendSiteStats) {
+        SendSiteStatistics.recordDnu(this, rcvrClass);
+      }
       // Won't use DNU caching here, because it is already a megamorphic node
       SArray argumentsArray = SArguments.getArgumentsWithoutReceiver(arguments);
       args = new Object[] {arguments[0], selector, argumentsArray};
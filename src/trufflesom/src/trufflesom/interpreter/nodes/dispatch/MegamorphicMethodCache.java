@@ -0,0 +1,137 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.vm.Universe;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Per-context method cache for megamorphic send sites.
+ *
+ * <p>
+ * Once a send site has seen too many receiver classes, it becomes a
+ * {@link GenericDispatchNode}, and each send needs a method lookup.
+ * {@link SClass#lookupInvokable(SSymbol)} already caches inherited methods in the
+ * {@code invokablesTable} of the receiver class, but is a boundary call with a
+ * {@code HashMap} lookup. The cache maps (receiver class, selector) pairs to the method,
+ * using a fixed-size direct-mapped table shared by all generic send sites of a context.
+ * The hits and misses are only counted with {@link VmSettings#PrintMethodCacheStats}.
+ *
+ * <p>
+ * The caches are flushed completely whenever the methods of a class or its superclass change.
+ * This happens rarely, mostly while loading classes, so there is no need to track
+ * which entries depend on which class. Since the classes are shared by all contexts,
+ * {@link #invalidate()} only increments a global version, and each cache drops
+ * its entries on the next lookup.
+ */
+public final class MegamorphicMethodCache {
+  private static final int SIZE = 1024;
+  private static final int MASK = SIZE - 1;
+
+  private static volatile int version;
+
+  private final Entry[] entries = new Entry[SIZE];
+
+  private int entriesVersion;
+
+  private long hits;
+  private long misses;
+
+  private static final class Entry {
+    private final SClass     rcvrClass;
+    private final SSymbol    selector;
+    private final SInvokable method;
+
+    Entry(final SClass rcvrClass, final SSymbol selector, final SInvokable method) {
+      this.rcvrClass = rcvrClass;
+      this.selector = selector;
+      this.method = method;
+    }
+  }
+
+  private static int index(final SClass rcvrClass, final SSymbol selector) {
+    int hash = System.identityHashCode(rcvrClass) * 31 + System.identityHashCode(selector);
+    return (hash ^ (hash >>> 16)) & MASK;
+  }
+
+  /**
+   * Lookup the method for the selector in the receiver class, using the cache of the context
+   * the node belongs to.
+   *
+   * @return the method, or {@code null} if the class does not understand the selector
+   */
+  @TruffleBoundary
+  public static SInvokable lookup(final Node node, final SClass rcvrClass,
+      final SSymbol selector) {
+    return SomLanguage.getContext(node).getMethodCache().lookup(rcvrClass, selector);
+  }
+
+  /**
+   * Lookup the method for the selector in the receiver class.
+   *
+   * @return the method, or {@code null} if the class does not understand the selector
+   */
+  @TruffleBoundary
+  public SInvokable lookup(final SClass rcvrClass, final SSymbol selector) {
+    int currentVersion = version;
+    if (entriesVersion != currentVersion) {
+      Arrays.fill(entries, null);
+      entriesVersion = currentVersion;
+    }
+
+    int i = index(rcvrClass, selector);
+    Entry e = entries[i];
+    if (e != null && e.rcvrClass == rcvrClass && e.selector == selector) {
+      if (VmSettings.PrintMethodCacheStats) {
+        hits += 1;
+      }
+      return e.method;
+    }
+
+    if (VmSettings.PrintMethodCacheStats) {
+      misses += 1;
+    }
+    SInvokable method = rcvrClass.lookupInvokable(selector);
+    if (method != null) {
+      entries[i] = new Entry(rcvrClass, selector, method);
+    }
+    return method;
+  }
+
+  /** Remove all entries of all caches, because a method dictionary or class hierarchy changed. */
+  public static void invalidate() {
+    version += 1;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public void resetStatistics() {
+    hits = 0;
+    misses = 0;
+  }
+
+  @TruffleBoundary
+  public void printStatistics() {
+    long total = hits + misses;
+    double hitRate = total == 0 ? 0.0 : 100.0 * hits / total;
+
+    Universe.errorPrintln("[mc] Megamorphic Method Cache");
+    Universe.errorPrintln("[mc] Hits:     " + hits);
+    Universe.errorPrintln("[mc] Misses:   " + misses);
+    Universe.errorPrintln("[mc] Hit Rate: " + String.format("%.2f%%", hitRate));
+  }
+}
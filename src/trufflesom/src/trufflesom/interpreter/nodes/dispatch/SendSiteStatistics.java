@@ -0,0 +1,237 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.bdt.source.SourceCoordinate;
+import trufflesom.interpreter.nodes.AbstractMessageSendNode;
+import trufflesom.vm.Universe;
+import trufflesom.vmobjects.SClass;
+
+
+/**
+ * Collects statistics about the dispatch chains of message send sites, to identify the
+ * polymorphic and megamorphic sends of a program.
+ *
+ * <p>
+ * Recording is enabled with {@code -Dsom.sendSiteStats=true}. For each send site, we record
+ * the maximal length of the dispatch chain, the receiver classes observed, the number of
+ * #doesNotUnderstand:arguments: sends, and whether the site became megamorphic.
+ * Sites that were split are reported together, because they share the same source location.
+ */
+public final class SendSiteStatistics {
+
+  private static final Map<AbstractMessageSendNode, Site> sites = new IdentityHashMap<>();
+
+  private SendSiteStatistics() {}
+
+  static final class Site implements Comparable<Site> {
+    private final String location;
+    private final String selector;
+
+    private final LinkedHashSet<SClass> receivers = new LinkedHashSet<>();
+
+    private int     chainLength;
+    private long    dnuHits;
+    private boolean megamorphic;
+
+    Site(final String location, final String selector) {
+      this.location = location;
+      this.selector = selector;
+    }
+
+    void merge(final Site other) {
+      receivers.addAll(other.receivers);
+      chainLength = Math.max(chainLength, other.chainLength);
+      dnuHits += other.dnuHits;
+      megamorphic |= other.megamorphic;
+    }
+
+    int getNumberOfReceivers() {
+      return receivers.size();
+    }
+
+    int getChainLength() {
+      return chainLength;
+    }
+
+    long getDnuHits() {
+      return dnuHits;
+    }
+
+    boolean isMegamorphic() {
+      return megamorphic;
+    }
+
+    boolean isPolymorphic() {
+      return megamorphic || receivers.size() > 1 || dnuHits > 0;
+    }
+
+    @Override
+    public int compareTo(final Site o) {
+      if (megamorphic != o.megamorphic) {
+        return megamorphic ? -1 : 1;
+      }
+      if (receivers.size() != o.receivers.size()) {
+        return o.receivers.size() - receivers.size();
+      }
+      if (chainLength != o.chainLength) {
+        return o.chainLength - chainLength;
+      }
+      if (dnuHits != o.dnuHits) {
+        return Long.compare(o.dnuHits, dnuHits);
+      }
+      return location.compareTo(o.location);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(location).append(' ').append(selector);
+      sb.append(" chain: ").append(megamorphic ? "generic" : String.valueOf(chainLength));
+      sb.append(" dnu: ").append(dnuHits);
+      sb.append(" receivers: ").append(receivers.size()).append(" [");
+
+      boolean first = true;
+      for (SClass c : receivers) {
+        if (!first) {
+          sb.append(", ");
+        }
+        first = false;
+        sb.append(c.getName() == null ? "?" : c.getName().getString());
+      }
+      sb.append(']');
+      return sb.toString();
+    }
+  }
+
+  private static Node getChainHead(final Node dispatch) {
+    Node i = dispatch;
+    while (i.getParent() instanceof AbstractDispatchNode) {
+      i = i.getParent();
+    }
+    return i;
+  }
+
+  private static Site getSite(final Node chainHead) {
+    Node parent = chainHead.getParent();
+    if (!(parent instanceof AbstractMessageSendNode)) {
+      // for instance, when instrumentation wrapped the dispatch chain
+      return null;
+    }
+
+    AbstractMessageSendNode send = (AbstractMessageSendNode) parent;
+    Site site = sites.get(send);
+    if (site == null) {
+      site = new Site(getLocation(send), send.getInvocationIdentifier());
+      sites.put(send, site);
+    }
+    return site;
+  }
+
+  private static String getLocation(final AbstractMessageSendNode send) {
+    Source source = send.getSource();
+    if (source == null) {
+      return "<unknown>";
+    }
+    return source.getName()
+        + SourceCoordinate.getLocationQualifier(source, send.getSourceCoordinate());
+  }
+
+  /** @return the statistics recorded for the send node, or {@code null} */
+  static synchronized Site getRecordedSite(final AbstractMessageSendNode send) {
+    return sites.get(send);
+  }
+
+  static synchronized void reset() {
+    sites.clear();
+  }
+
+  /** Record that a new entry for the receiver class was added to a dispatch chain. */
+  @TruffleBoundary
+  public static synchronized void recordCacheEntry(final AbstractDispatchNode node,
+      final SClass rcvrClass) {
+    Node head = getChainHead(node);
+    Site site = getSite(head);
+    if (site == null) {
+      return;
+    }
+    site.receivers.add(rcvrClass);
+    site.chainLength =
+        Math.max(site.chainLength, ((DispatchChain) head).lengthOfDispatchChain());
+  }
+
+  /** Record that a send site was replaced by a {@link GenericDispatchNode}. */
+  @TruffleBoundary
+  public static synchronized void recordMegamorphic(final GenericDispatchNode node) {
+    Site site = getSite(getChainHead(node));
+    if (site != null) {
+      site.megamorphic = true;
+    }
+  }
+
+  /** Record the receiver class of a send on a megamorphic site. */
+  @TruffleBoundary
+  public static synchronized void recordGenericReceiver(final GenericDispatchNode node,
+      final SClass rcvrClass) {
+    Site site = getSite(getChainHead(node));
+    if (site != null) {
+      site.receivers.add(rcvrClass);
+    }
+  }
+
+  /** Record that the send resulted in a #doesNotUnderstand:arguments: send. */
+  @TruffleBoundary
+  public static synchronized void recordDnu(final AbstractDispatchNode node,
+      final SClass rcvrClass) {
+    Site site = getSite(getChainHead(node));
+    if (site != null) {
+      site.receivers.add(rcvrClass);
+      site.dnuHits += 1;
+    }
+  }
+
+  @TruffleBoundary
+  public static synchronized void printReport() {
+    HashMap<String, Site> byLocation = new HashMap<>();
+    for (Site s : sites.values()) {
+      String key = s.location + " " + s.selector;
+      Site merged = byLocation.get(key);
+      if (merged == null) {
+        merged = new Site(s.location, s.selector);
+        byLocation.put(key, merged);
+      }
+      merged.merge(s);
+    }
+
+    ArrayList<Site> polymorphic = new ArrayList<>();
+    int megamorphic = 0;
+    for (Site s : byLocation.values()) {
+      if (s.isPolymorphic()) {
+        polymorphic.add(s);
+      }
+      if (s.megamorphic) {
+        megamorphic += 1;
+      }
+    }
+    polymorphic.sort(null);
+
+    Universe.errorPrintln("[ss] Send Site Statistics");
+    Universe.errorPrintln("[ss] Send Sites:        " + byLocation.size());
+    Universe.errorPrintln("[ss] Monomorphic Sites: " + (byLocation.size() - polymorphic.size()));
+    Universe.errorPrintln("[ss] Polymorphic Sites: " + (polymorphic.size() - megamorphic));
+    Universe.errorPrintln("[ss] Megamorphic Sites: " + megamorphic);
+    Universe.errorPrintln("[ss]");
+
+    for (Site s : polymorphic) {
+      Universe.errorPrintln("[ss] " + s);
+    }
+  }
+}
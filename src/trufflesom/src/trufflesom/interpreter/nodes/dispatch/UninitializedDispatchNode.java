@@ -7,7 +7,9 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.Node;
 
 import trufflesom.bdt.primitives.nodes.PreevaluatedExpression;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.Types;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SClass;
 import trufflesom.vmobjects.SInvokable;
 import trufflesom.vmobjects.SObject;
@@ -42,19 +44,25 @@ public final class UninitializedDispatchNode extends AbstractDispatchNode {
       }
     }
 
-    if (chainDepth < INLINE_CACHE_SIZE) {
+    if (chainDepth < SomLanguage.getSendCacheSize()) {
       UninitializedDispatchNode newChainEnd = new UninitializedDispatchNode(selector);
       AbstractDispatchNode node = createDispatch(rcvr, selector, newChainEnd);
 
       replace(node);
       newChainEnd.notifyAsInserted();
+      if (VmSettings.SendSiteStats) {
+        SendSiteStatistics.recordCacheEntry(node, Types.getClassOf(rcvr));
+      }
       return node;
     }
 
-    // the chain is longer than the maximum defined by INLINE_CACHE_SIZE and
+    // the chain is longer than the maximum defined by the send cache size and
     // thus, this callsite is considered to be megaprophic, and we generalize it.
     GenericDispatchNode genericReplacement = new GenericDispatchNode(selector);
     first.replace(genericReplacement);
+    if (VmSettings.SendSiteStats) {
+      SendSiteStatistics.recordMegamorphic(genericReplacement);
+    }
     return genericReplacement;
   }
 
@@ -4,6 +4,9 @@ import java.util.ArrayList;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.source.Source;
 
@@ -119,7 +122,79 @@ public class BlockNode extends LiteralNode {
     return blockMethod.getInvokable().inline(mgenc, blockMethod);
   }
 
-  public static final class BlockNodeWithContext extends BlockNode {
+  /**
+   * Use for the arguments of primitives that only invoke a block, and do not let it escape.
+   *
+   * @return a node that reuses a single block object, if the node is a block without context,
+   *         otherwise the given node
+   */
+  public static ExpressionNode withoutEscape(final ExpressionNode node) {
+    if (node != null && node.getClass() == BlockNode.class) {
+      BlockNode block = (BlockNode) node;
+      return new NonEscapingBlockNode(
+          block.blockMethod, block.reliesOnOuterFrameDescriptors).initialize(
+              block.sourceCoord);
+    }
+    return node;
+  }
+
+  /**
+   * Use for the arguments of a primitive that gets replaced by a generic send, because the
+   * block may then escape.
+   *
+   * @return a node that allocates a new block on each execution, if the node reuses one,
+   *         otherwise the given node
+   */
+  public static ExpressionNode withEscape(final ExpressionNode node) {
+    if (node instanceof NonEscapingBlockNode) {
+      NonEscapingBlockNode block = (NonEscapingBlockNode) node;
+      return new BlockNode(
+          block.blockMethod, block.reliesOnOuterFrameDescriptors).initialize(
+              block.sourceCoord);
+    }
+    return node;
+  }
+
+  /**
+   * A block without context that is only invoked by a primitive and does not escape. Since
+   * the block object is immutable, and its identity cannot be observed, it is allocated once
+   * and reused for each execution.
+   */
+  public static final class NonEscapingBlockNode extends BlockNode {
+    @CompilationFinal private SBlock block;
+
+    public NonEscapingBlockNode(final SMethod blockMethod,
+        final boolean reliesOnOuterFrameDescriptors) {
+      super(blockMethod, reliesOnOuterFrameDescriptors);
+    }
+
+    private SBlock getBlock() {
+      if (block == null) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        setBlockClass();
+        block = new SBlock(blockMethod, blockClass, null);
+      }
+      return block;
+    }
+
+    @Override
+    public SBlock executeGeneric(final VirtualFrame frame) {
+      return getBlock();
+    }
+
+    @Override
+    public Object doPreEvaluated(final VirtualFrame frame, final Object[] arguments) {
+      return getBlock();
+    }
+
+    @Override
+    protected BlockNode createNode(final SMethod adapted) {
+      return new NonEscapingBlockNode(
+          adapted, reliesOnOuterFrameDescriptors).initialize(sourceCoord);
+    }
+  }
+
+  public static class BlockNodeWithContext extends BlockNode {
 
     public BlockNodeWithContext(final SMethod blockMethod,
         final boolean reliesOnOuterFrameDescriptors) {
@@ -150,4 +225,46 @@ public class BlockNode extends LiteralNode {
           adapted, reliesOnOuterFrameDescriptors).initialize(sourceCoord);
     }
   }
+
+  /**
+   * A block that accesses only self and the arguments of the enclosing method. Its context is
+   * a frame with just the arguments of the outer frame. Thus, the outer frame does not need to
+   * be materialized, and the block does not keep its locals alive.
+   */
+  public static final class BlockNodeWithArgumentContext extends BlockNodeWithContext {
+    private static final FrameDescriptor argumentsOnly = new FrameDescriptor();
+
+    public BlockNodeWithArgumentContext(final SMethod blockMethod,
+        final boolean reliesOnOuterFrameDescriptors) {
+      super(blockMethod, reliesOnOuterFrameDescriptors);
+    }
+
+    @Override
+    public SBlock executeGeneric(final VirtualFrame frame) {
+      if (blockClass == null) {
+        CompilerDirectives.transferToInterpreter();
+        setBlockClass();
+      }
+      return new SBlock(blockMethod, blockClass, captureArguments(frame));
+    }
+
+    @Override
+    public Object doPreEvaluated(final VirtualFrame frame, final Object[] arguments) {
+      if (blockClass == null) {
+        CompilerDirectives.transferToInterpreter();
+        setBlockClass();
+      }
+      return new SBlock(blockMethod, blockClass, captureArguments(frame));
+    }
+
+    private static MaterializedFrame captureArguments(final VirtualFrame frame) {
+      return Truffle.getRuntime().createMaterializedFrame(frame.getArguments(), argumentsOnly);
+    }
+
+    @Override
+    protected BlockNode createNode(final SMethod adapted) {
+      return new BlockNodeWithArgumentContext(
+          adapted, reliesOnOuterFrameDescriptors).initialize(sourceCoord);
+    }
+  }
 }
@@ -10,6 +10,7 @@ import trufflesom.interpreter.nodes.ExpressionNode;
 import trufflesom.interpreter.nodes.GenericMessageSendNode;
 import trufflesom.interpreter.nodes.MessageSendNode;
 import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
+import trufflesom.interpreter.nodes.literals.BlockNode;
 import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SSymbol;
 
@@ -36,7 +37,8 @@ public abstract class BinaryExpressionNode extends ExpressionNode
     CompilerDirectives.transferToInterpreterAndInvalidate();
     ExpressionNode[] children;
     if (VmSettings.UseAstInterp) {
-      children = new ExpressionNode[] {getReceiver(), getArgument()};
+      children = new ExpressionNode[] {
+          BlockNode.withEscape(getReceiver()), BlockNode.withEscape(getArgument())};
     } else {
       children = null;
     }
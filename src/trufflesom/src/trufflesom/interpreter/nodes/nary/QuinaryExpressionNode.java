@@ -0,0 +1,67 @@
+package trufflesom.interpreter.nodes.nary;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+import trufflesom.interpreter.bc.RespecializeException;
+import trufflesom.interpreter.nodes.ExpressionNode;
+import trufflesom.interpreter.nodes.GenericMessageSendNode;
+import trufflesom.interpreter.nodes.MessageSendNode;
+import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SSymbol;
+
+
+@NodeChildren({
+    @NodeChild(value = "receiver", type = ExpressionNode.class),
+    @NodeChild(value = "arg1", type = ExpressionNode.class),
+    @NodeChild(value = "arg2", type = ExpressionNode.class),
+    @NodeChild(value = "arg3", type = ExpressionNode.class),
+    @NodeChild(value = "arg4", type = ExpressionNode.class)})
+public abstract class QuinaryExpressionNode extends EagerlySpecializableNode {
+
+  public abstract Object executeEvaluated(
+      VirtualFrame frame, Object receiver, Object arg1, Object arg2, Object arg3, Object arg4);
+
+  public abstract ExpressionNode getReceiver();
+
+  public abstract ExpressionNode getArg1();
+
+  public abstract ExpressionNode getArg2();
+
+  public abstract ExpressionNode getArg3();
+
+  public abstract ExpressionNode getArg4();
+
+  @Override
+  public final Object doPreEvaluated(final VirtualFrame frame,
+      final Object[] arguments) {
+    return executeEvaluated(frame, arguments[0], arguments[1], arguments[2], arguments[3],
+        arguments[4]);
+  }
+
+  protected GenericMessageSendNode makeGenericSend(final SSymbol selector) {
+    CompilerDirectives.transferToInterpreterAndInvalidate();
+    ExpressionNode[] children;
+    if (VmSettings.UseAstInterp) {
+      children =
+          new ExpressionNode[] {getReceiver(), getArg1(), getArg2(), getArg3(), getArg4()};
+    } else {
+      children = null;
+    }
+
+    GenericMessageSendNode send =
+        MessageSendNode.createGeneric(selector, children, sourceCoord);
+
+    if (VmSettings.UseAstInterp) {
+      replace(send);
+      send.notifyDispatchInserted();
+      return send;
+    }
+
+    assert getParent() instanceof BytecodeLoopNode : "This node was expected to be a direct child of a `BytecodeLoopNode`.";
+    throw new RespecializeException(send);
+  }
+}
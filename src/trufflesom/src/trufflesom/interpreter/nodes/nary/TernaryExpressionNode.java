@@ -9,6 +9,7 @@ import trufflesom.interpreter.nodes.ExpressionNode;
 import trufflesom.interpreter.nodes.GenericMessageSendNode;
 import trufflesom.interpreter.nodes.MessageSendNode;
 import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
+import trufflesom.interpreter.nodes.literals.BlockNode;
 import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SSymbol;
 
@@ -37,7 +38,8 @@ public abstract class TernaryExpressionNode extends EagerlySpecializableNode {
     CompilerDirectives.transferToInterpreterAndInvalidate();
     ExpressionNode[] children;
     if (VmSettings.UseAstInterp) {
-      children = new ExpressionNode[] {getReceiver(), getArg1(), getArg2()};
+      children = new ExpressionNode[] {BlockNode.withEscape(getReceiver()),
+          BlockNode.withEscape(getArg1()), BlockNode.withEscape(getArg2())};
     } else {
       children = null;
     }
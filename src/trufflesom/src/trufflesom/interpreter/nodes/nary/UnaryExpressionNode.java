@@ -9,6 +9,7 @@ import trufflesom.interpreter.nodes.ExpressionNode;
 import trufflesom.interpreter.nodes.GenericMessageSendNode;
 import trufflesom.interpreter.nodes.MessageSendNode;
 import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
+import trufflesom.interpreter.nodes.literals.BlockNode;
 import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SSymbol;
 
@@ -30,7 +31,7 @@ public abstract class UnaryExpressionNode extends EagerlySpecializableNode {
     CompilerDirectives.transferToInterpreterAndInvalidate();
     ExpressionNode[] children;
     if (VmSettings.UseAstInterp) {
-      children = new ExpressionNode[] {getReceiver()};
+      children = new ExpressionNode[] {BlockNode.withEscape(getReceiver())};
     } else {
       children = null;
     }
@@ -15,6 +15,7 @@ import com.oracle.truffle.api.nodes.RootNode;
 import trufflesom.bdt.primitives.Primitive;
 import trufflesom.interpreter.Invokable;
 import trufflesom.interpreter.nodes.nary.TernaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.NonEscapingBlockSplzr;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SInvokable;
@@ -22,7 +23,8 @@ import trufflesom.vmobjects.SSymbol;
 
 
 @GenerateNodeFactory
-@Primitive(selector = "to:do:", disabled = true, inParser = false)
+@Primitive(selector = "to:do:", disabled = true, inParser = false,
+    specializer = NonEscapingBlockSplzr.class)
 public abstract class IntToDoMessageNode extends TernaryMsgExprNode {
   protected static final int LIMIT = 3;
 
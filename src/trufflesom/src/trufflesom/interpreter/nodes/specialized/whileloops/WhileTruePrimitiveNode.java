@@ -6,6 +6,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.DirectCallNode;
 
 import trufflesom.bdt.primitives.Primitive;
+import trufflesom.primitives.basics.BlockPrims.NonEscapingBlockSplzr;
 import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SInvokable;
 import trufflesom.vmobjects.SObject;
@@ -13,7 +14,7 @@ import trufflesom.vmobjects.SObject;
 
 @GenerateNodeFactory
 @Primitive(className = "Block", primitive = "whileTrue:", selector = "whileTrue:",
-    receiverType = SBlock.class)
+    receiverType = SBlock.class, specializer = NonEscapingBlockSplzr.class)
 // TODO: need to check for the second argument, check WhileSplzr
 public abstract class WhileTruePrimitiveNode extends WhilePrimitiveNode {
   public WhileTruePrimitiveNode() {
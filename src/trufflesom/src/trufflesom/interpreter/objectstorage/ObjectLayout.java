@@ -6,7 +6,10 @@ import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 
 import trufflesom.interpreter.objectstorage.StorageLocation.UnwrittenStorageLocation;
+import trufflesom.vm.Classes;
+import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SLargeObject;
 import trufflesom.vmobjects.SObject;
 
 
@@ -18,19 +21,53 @@ public final class ObjectLayout {
   private final int objectStorageLocationsUsed;
   private final int totalNumberOfStorageLocations;
 
+  /** Instances are {@link SLargeObject}s, and use their additional inline slots. */
+  private final boolean forLargeObjects;
+  private final int     numInlinePrimFields;
+  private final int     numInlineObjFields;
+
   private final StorageLocation[] storageLocations;
   private final Class<?>[]        storageTypes;
 
   public ObjectLayout(final int numberOfFields, final SClass forClass) {
-    this(new Class<?>[numberOfFields], forClass);
+    this(numberOfFields, forClass,
+        useLargeObjects(VmSettings.UseLargeObjectLayout, numberOfFields, forClass));
+  }
+
+  ObjectLayout(final int numberOfFields, final SClass forClass,
+      final boolean forLargeObjects) {
+    this(new Class<?>[numberOfFields], forClass, forLargeObjects);
+  }
+
+  /**
+   * Instances of metaclasses, and of Metaclass itself, are {@link SClass}es. They are never
+   * large objects, so that classes do not carry the additional slots.
+   */
+  static boolean useLargeObjects(final boolean enabled, final int numberOfFields,
+      final SClass forClass) {
+    if (!enabled || numberOfFields <= SObject.NUM_OBJECT_FIELDS || forClass == null) {
+      return false;
+    }
+    return forClass != Classes.metaclassClass
+        && forClass.getSOMClass() != Classes.metaclassClass;
   }
 
-  public ObjectLayout(final Class<?>[] knownFieldTypes, final SClass forClass) {
+  private ObjectLayout(final Class<?>[] knownFieldTypes, final SClass forClass,
+      final boolean forLargeObjects) {
     CompilerAsserts.neverPartOfCompilation("Layouts should not be created in compiled code");
 
     this.forClass = forClass;
     this.latestLayoutForClass = Truffle.getRuntime().createAssumption();
 
+    this.forLargeObjects = forLargeObjects;
+    if (forLargeObjects) {
+      numInlinePrimFields = SLargeObject.NUM_PRIMITIVE_FIELDS;
+      numInlineObjFields = SLargeObject.NUM_OBJECT_FIELDS;
+    } else {
+      numInlinePrimFields = SObject.NUM_PRIMITIVE_FIELDS;
+      numInlineObjFields = SObject.NUM_OBJECT_FIELDS;
+    }
+
     storageTypes = knownFieldTypes;
     totalNumberOfStorageLocations = knownFieldTypes.length;
     storageLocations = new StorageLocation[knownFieldTypes.length];
@@ -43,13 +80,13 @@ public final class ObjectLayout {
 
       StorageLocation storage;
       if (type == Long.class) {
-        storage = StorageLocation.createForLong(i, nextFreePrimIdx);
+        storage = StorageLocation.createForLong(i, nextFreePrimIdx, numInlinePrimFields);
         nextFreePrimIdx++;
       } else if (type == Double.class) {
-        storage = StorageLocation.createForDouble(i, nextFreePrimIdx);
+        storage = StorageLocation.createForDouble(i, nextFreePrimIdx, numInlinePrimFields);
         nextFreePrimIdx++;
       } else if (type == Object.class) {
-        storage = StorageLocation.createForObject(nextFreeObjIdx);
+        storage = StorageLocation.createForObject(nextFreeObjIdx, numInlineObjFields);
         nextFreeObjIdx++;
       } else {
         assert type == null;
@@ -63,6 +100,10 @@ public final class ObjectLayout {
     objectStorageLocationsUsed = nextFreeObjIdx;
   }
 
+  public boolean isForLargeObjects() {
+    return forLargeObjects;
+  }
+
   public boolean isValid() {
     return latestLayoutForClass.isValid();
   }
@@ -105,7 +146,7 @@ public final class ObjectLayout {
       withGeneralizedField[fieldIndex] = Object.class;
 
       latestLayoutForClass.invalidate();
-      return new ObjectLayout(withGeneralizedField, forClass);
+      return new ObjectLayout(withGeneralizedField, forClass, forLargeObjects);
     }
   }
 
@@ -128,7 +169,7 @@ public final class ObjectLayout {
       withInitializedField[fieldIndex] = type;
 
       latestLayoutForClass.invalidate();
-      return new ObjectLayout(withInitializedField, forClass);
+      return new ObjectLayout(withInitializedField, forClass, forLargeObjects);
     }
   }
 
@@ -141,7 +182,7 @@ public final class ObjectLayout {
   }
 
   public int getNumberOfUsedExtendedObjectStorageLocations() {
-    int requiredExtensionFields = objectStorageLocationsUsed - SObject.NUM_OBJECT_FIELDS;
+    int requiredExtensionFields = objectStorageLocationsUsed - numInlineObjFields;
     if (requiredExtensionFields < 0) {
       return 0;
     }
@@ -149,7 +190,7 @@ public final class ObjectLayout {
   }
 
   public int getNumberOfUsedExtendedPrimStorageLocations() {
-    int requiredExtensionFields = primitiveStorageLocationsUsed - SObject.NUM_PRIMITIVE_FIELDS;
+    int requiredExtensionFields = primitiveStorageLocationsUsed - numInlinePrimFields;
     if (requiredExtensionFields < 0) {
       return 0;
     }
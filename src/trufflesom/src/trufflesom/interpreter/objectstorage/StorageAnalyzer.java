@@ -6,34 +6,66 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 import sun.misc.Unsafe;
+import trufflesom.vmobjects.SLargeObject;
 import trufflesom.vmobjects.SObject;
 
 
 public class StorageAnalyzer {
   private static final Unsafe unsafe = UnsafeUtil.load();
 
-  private static final long SMO_PRIM_FIELD_1_OFFSET = getFieldOffset("primField1");
-  private static final long SMO_PRIM_FIELD_2_OFFSET = getFieldOffset("primField2");
-  private static final long SMO_PRIM_FIELD_3_OFFSET = getFieldOffset("primField3");
-  private static final long SMO_PRIM_FIELD_4_OFFSET = getFieldOffset("primField4");
-  private static final long SMO_PRIM_FIELD_5_OFFSET = getFieldOffset("primField5");
-  private static final long SMO_FIELD_1_OFFSET      = getFieldOffset("field1");
-  private static final long SMO_FIELD_2_OFFSET      = getFieldOffset("field2");
-  private static final long SMO_FIELD_3_OFFSET      = getFieldOffset("field3");
-  private static final long SMO_FIELD_4_OFFSET      = getFieldOffset("field4");
-  private static final long SMO_FIELD_5_OFFSET      = getFieldOffset("field5");
+  private static final long SMO_PRIM_FIELD_1_OFFSET =
+      getFieldOffset(SObject.class, "primField1");
+  private static final long SMO_PRIM_FIELD_2_OFFSET =
+      getFieldOffset(SObject.class, "primField2");
+  private static final long SMO_PRIM_FIELD_3_OFFSET =
+      getFieldOffset(SObject.class, "primField3");
+  private static final long SMO_PRIM_FIELD_4_OFFSET =
+      getFieldOffset(SObject.class, "primField4");
+  private static final long SMO_PRIM_FIELD_5_OFFSET =
+      getFieldOffset(SObject.class, "primField5");
+  private static final long SMO_FIELD_1_OFFSET =
+      getFieldOffset(SObject.class, "field1");
+  private static final long SMO_FIELD_2_OFFSET =
+      getFieldOffset(SObject.class, "field2");
+  private static final long SMO_FIELD_3_OFFSET =
+      getFieldOffset(SObject.class, "field3");
+  private static final long SMO_FIELD_4_OFFSET =
+      getFieldOffset(SObject.class, "field4");
+  private static final long SMO_FIELD_5_OFFSET =
+      getFieldOffset(SObject.class, "field5");
+
+  private static final long SLO_PRIM_FIELD_6_OFFSET =
+      getFieldOffset(SLargeObject.class, "primField6");
+  private static final long SLO_PRIM_FIELD_7_OFFSET =
+      getFieldOffset(SLargeObject.class, "primField7");
+  private static final long SLO_PRIM_FIELD_8_OFFSET =
+      getFieldOffset(SLargeObject.class, "primField8");
+  private static final long SLO_PRIM_FIELD_9_OFFSET =
+      getFieldOffset(SLargeObject.class, "primField9");
+  private static final long SLO_PRIM_FIELD_10_OFFSET =
+      getFieldOffset(SLargeObject.class, "primField10");
+  private static final long SLO_FIELD_6_OFFSET =
+      getFieldOffset(SLargeObject.class, "field6");
+  private static final long SLO_FIELD_7_OFFSET =
+      getFieldOffset(SLargeObject.class, "field7");
+  private static final long SLO_FIELD_8_OFFSET =
+      getFieldOffset(SLargeObject.class, "field8");
+  private static final long SLO_FIELD_9_OFFSET =
+      getFieldOffset(SLargeObject.class, "field9");
+  private static final long SLO_FIELD_10_OFFSET =
+      getFieldOffset(SLargeObject.class, "field10");
 
   @CompilationFinal(
       dimensions = 1) private static final DirectObjectAccessor[]                  objAccessors  =
-          new DirectObjectAccessor[SObject.NUM_OBJECT_FIELDS];
+          new DirectObjectAccessor[SLargeObject.NUM_OBJECT_FIELDS];
   @CompilationFinal(
       dimensions = 1) private static final DirectPrimitiveAccessor[]               primAccessors =
-          new DirectPrimitiveAccessor[SObject.NUM_PRIMITIVE_FIELDS];
+          new DirectPrimitiveAccessor[SLargeObject.NUM_PRIMITIVE_FIELDS];
 
   @SuppressWarnings("deprecation")
-  private static long getFieldOffset(final String fieldName) {
+  private static long getFieldOffset(final Class<?> clazz, final String fieldName) {
     try {
-      Field field = SObject.class.getDeclaredField(fieldName);
+      Field field = clazz.getDeclaredField(fieldName);
       return unsafe.objectFieldOffset(field);
     } catch (NoSuchFieldException | SecurityException e) {
       throw new RuntimeException(e);
@@ -42,6 +74,8 @@ public class StorageAnalyzer {
 
   /**
    * Initialize field accessors with the offsets in the S*Object classes.
+   * The accessors beyond {@link SObject#NUM_OBJECT_FIELDS} are only used for
+   * {@link SLargeObject}s.
    */
   @TruffleBoundary
   public static void initAccessors() {
@@ -59,6 +93,11 @@ public class StorageAnalyzer {
     objAccessors[2] = new DirectObjectAccessor(SMO_FIELD_3_OFFSET);
     objAccessors[3] = new DirectObjectAccessor(SMO_FIELD_4_OFFSET);
     objAccessors[4] = new DirectObjectAccessor(SMO_FIELD_5_OFFSET);
+    objAccessors[5] = new DirectObjectAccessor(SLO_FIELD_6_OFFSET);
+    objAccessors[6] = new DirectObjectAccessor(SLO_FIELD_7_OFFSET);
+    objAccessors[7] = new DirectObjectAccessor(SLO_FIELD_8_OFFSET);
+    objAccessors[8] = new DirectObjectAccessor(SLO_FIELD_9_OFFSET);
+    objAccessors[9] = new DirectObjectAccessor(SLO_FIELD_10_OFFSET);
   }
 
   private static void initPrimitiveAccessors() {
@@ -67,6 +106,11 @@ public class StorageAnalyzer {
     primAccessors[2] = new DirectPrimitiveAccessor(SMO_PRIM_FIELD_3_OFFSET);
     primAccessors[3] = new DirectPrimitiveAccessor(SMO_PRIM_FIELD_4_OFFSET);
     primAccessors[4] = new DirectPrimitiveAccessor(SMO_PRIM_FIELD_5_OFFSET);
+    primAccessors[5] = new DirectPrimitiveAccessor(SLO_PRIM_FIELD_6_OFFSET);
+    primAccessors[6] = new DirectPrimitiveAccessor(SLO_PRIM_FIELD_7_OFFSET);
+    primAccessors[7] = new DirectPrimitiveAccessor(SLO_PRIM_FIELD_8_OFFSET);
+    primAccessors[8] = new DirectPrimitiveAccessor(SLO_PRIM_FIELD_9_OFFSET);
+    primAccessors[9] = new DirectPrimitiveAccessor(SLO_PRIM_FIELD_10_OFFSET);
   }
 
   public static final class DirectObjectAccessor {
@@ -53,30 +53,45 @@ public abstract class StorageLocation {
 
   public static StorageLocation createForLong(final long fieldIndex,
       final int primFieldIndex) {
+    return createForLong(fieldIndex, primFieldIndex, SObject.NUM_PRIMITIVE_FIELDS);
+  }
+
+  public static StorageLocation createForLong(final long fieldIndex,
+      final int primFieldIndex, final int numInlinePrimFields) {
     CompilerAsserts.neverPartOfCompilation("StorageLocation");
-    if (primFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
+    if (primFieldIndex < numInlinePrimFields) {
       return new LongDirectStoreLocation(fieldIndex, primFieldIndex);
     } else {
-      return new LongArrayStoreLocation(fieldIndex, primFieldIndex);
+      return new LongArrayStoreLocation(fieldIndex, primFieldIndex, numInlinePrimFields);
     }
   }
 
   public static StorageLocation createForDouble(final long fieldIndex,
       final int primFieldIndex) {
+    return createForDouble(fieldIndex, primFieldIndex, SObject.NUM_PRIMITIVE_FIELDS);
+  }
+
+  public static StorageLocation createForDouble(final long fieldIndex,
+      final int primFieldIndex, final int numInlinePrimFields) {
     CompilerAsserts.neverPartOfCompilation("StorageLocation");
-    if (primFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
+    if (primFieldIndex < numInlinePrimFields) {
       return new DoubleDirectStoreLocation(fieldIndex, primFieldIndex);
     } else {
-      return new DoubleArrayStoreLocation(fieldIndex, primFieldIndex);
+      return new DoubleArrayStoreLocation(fieldIndex, primFieldIndex, numInlinePrimFields);
     }
   }
 
   public static StorageLocation createForObject(final int objFieldIndex) {
+    return createForObject(objFieldIndex, SObject.NUM_OBJECT_FIELDS);
+  }
+
+  public static StorageLocation createForObject(final int objFieldIndex,
+      final int numInlineObjFields) {
     CompilerAsserts.neverPartOfCompilation("StorageLocation");
-    if (objFieldIndex < SObject.NUM_PRIMITIVE_FIELDS) {
+    if (objFieldIndex < numInlineObjFields) {
       return new ObjectDirectStorageLocation(objFieldIndex);
     } else {
-      return new ObjectArrayStorageLocation(objFieldIndex);
+      return new ObjectArrayStorageLocation(objFieldIndex, numInlineObjFields);
     }
   }
 
@@ -202,9 +217,9 @@ public abstract class StorageLocation {
       extends AbstractObjectStorageLocation {
     private final int extensionIndex;
 
-    public ObjectArrayStorageLocation(final int fieldIndex) {
+    public ObjectArrayStorageLocation(final int fieldIndex, final int numInlineObjFields) {
       super(fieldIndex);
-      extensionIndex = fieldIndex - SObject.NUM_OBJECT_FIELDS;
+      extensionIndex = fieldIndex - numInlineObjFields;
     }
 
     @Override
@@ -412,17 +427,19 @@ public abstract class StorageLocation {
   public abstract static class PrimitiveArrayStoreLocation extends PrimitiveStorageLocation {
     protected final int extensionIndex;
 
-    public PrimitiveArrayStoreLocation(final long fieldIndex, final int primField) {
+    public PrimitiveArrayStoreLocation(final long fieldIndex, final int primField,
+        final int numInlinePrimFields) {
       super(fieldIndex, primField);
-      extensionIndex = primField - SObject.NUM_PRIMITIVE_FIELDS;
+      extensionIndex = primField - numInlinePrimFields;
       assert extensionIndex >= 0;
     }
   }
 
   public static final class LongArrayStoreLocation extends PrimitiveArrayStoreLocation
       implements LongStorageLocation {
-    public LongArrayStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public LongArrayStoreLocation(final long fieldIndex, final int primField,
+        final int numInlinePrimFields) {
+      super(fieldIndex, primField, numInlinePrimFields);
     }
 
     @Override
@@ -501,8 +518,9 @@ public abstract class StorageLocation {
 
   public static final class DoubleArrayStoreLocation extends PrimitiveArrayStoreLocation
       implements DoubleStorageLocation {
-    public DoubleArrayStoreLocation(final long fieldIndex, final int primField) {
-      super(fieldIndex, primField);
+    public DoubleArrayStoreLocation(final long fieldIndex, final int primField,
+        final int numInlinePrimFields) {
+      super(fieldIndex, primField, numInlinePrimFields);
     }
 
     @Override
@@ -10,6 +10,7 @@ import trufflesom.bdt.inlining.ScopeAdaptationVisitor.ScopeElement;
 import trufflesom.compiler.Variable.Local;
 import trufflesom.interpreter.nodes.ExpressionNode;
 import trufflesom.interpreter.nodes.LocalVariableNode;
+import trufflesom.vmobjects.SRope;
 
 
 @NodeChild(value = "value", type = ExpressionNode.class)
@@ -44,7 +45,7 @@ public abstract class IncLocalVarWithExpNode extends LocalVariableNode {
       rewriteOn = {FrameSlotTypeException.class})
   public final Object doString(final VirtualFrame frame, final String value)
       throws FrameSlotTypeException {
-    String current = (String) frame.getObject(slotIndex);
+    String current = SRope.flatten(frame.getObject(slotIndex));
     String result = concat(current, value);
     frame.setObject(slotIndex, result);
     return result;
@@ -16,6 +16,7 @@ import trufflesom.interpreter.nodes.ExpressionNode;
 import trufflesom.interpreter.nodes.NonLocalVariableNode;
 import trufflesom.primitives.arithmetic.AdditionPrim;
 import trufflesom.primitives.arithmetic.AdditionPrimFactory;
+import trufflesom.vmobjects.SRope;
 
 
 @NodeChild(value = "value", type = ExpressionNode.class)
@@ -53,7 +54,7 @@ public abstract class IncNonLocalVarWithExpNode extends NonLocalVariableNode {
   public final Object doString(final VirtualFrame frame, final String value,
       @Bind("determineContext(frame)") final MaterializedFrame ctx)
       throws FrameSlotTypeException {
-    String current = (String) ctx.getObject(slotIndex);
+    String current = SRope.flatten(ctx.getObject(slotIndex));
     String result = concat(current, value);
     ctx.setObject(slotIndex, result);
     return result;
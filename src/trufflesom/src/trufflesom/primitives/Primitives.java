@@ -29,6 +29,7 @@ import static trufflesom.vm.SymbolTable.symbolFor;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map.Entry;
 
@@ -40,6 +41,7 @@ import com.oracle.truffle.api.source.Source;
 import trufflesom.bdt.inlining.InlinableNodes;
 import trufflesom.bdt.primitives.PrimitiveLoader;
 import trufflesom.bdt.primitives.Specializer;
+import trufflesom.bdt.source.SourceCoordinate;
 import trufflesom.bdt.tools.structure.StructuralProbe;
 import trufflesom.compiler.Field;
 import trufflesom.compiler.Variable;
@@ -89,11 +91,14 @@ import trufflesom.primitives.arithmetic.SqrtPrimFactory;
 import trufflesom.primitives.arithmetic.SubtractionPrimFactory;
 import trufflesom.primitives.arrays.AtPrimFactory;
 import trufflesom.primitives.arrays.AtPutPrimFactory;
+import trufflesom.primitives.arrays.CopyFromToPrimFactory;
 import trufflesom.primitives.arrays.CopyPrimFactory;
 import trufflesom.primitives.arrays.DoIndexesPrimFactory;
 import trufflesom.primitives.arrays.DoPrimFactory;
+import trufflesom.primitives.arrays.IndexOfPrimFactory;
 import trufflesom.primitives.arrays.NewPrimFactory;
 import trufflesom.primitives.arrays.PutAllNodeFactory;
+import trufflesom.primitives.arrays.ReplaceFromToWithStartingAtPrimFactory;
 import trufflesom.primitives.basics.AsStringPrimFactory;
 import trufflesom.primitives.basics.BlockPrimsFactory;
 import trufflesom.primitives.basics.DoublePrimsFactory;
@@ -103,10 +108,13 @@ import trufflesom.primitives.basics.HashPrimFactory;
 import trufflesom.primitives.basics.IntegerPrimsFactory;
 import trufflesom.primitives.basics.LengthPrimFactory;
 import trufflesom.primitives.basics.NewObjectPrimFactory;
+import trufflesom.primitives.basics.StringBuilderPrimsFactory;
 import trufflesom.primitives.basics.StringPrimsFactory;
 import trufflesom.primitives.basics.SystemPrimsFactory;
 import trufflesom.primitives.basics.UnequalUnequalPrimFactory;
 import trufflesom.primitives.basics.UnequalsPrimFactory;
+import trufflesom.primitives.collections.GrowableArrayPrimsFactory;
+import trufflesom.primitives.collections.HashMapPrimsFactory;
 import trufflesom.primitives.reflection.ClassPrimsFactory;
 import trufflesom.primitives.reflection.GlobalPrimFactory;
 import trufflesom.primitives.reflection.HasGlobalPrimFactory;
@@ -196,6 +204,32 @@ public final class Primitives extends PrimitiveLoader<ExpressionNode, SSymbol> {
     }
   }
 
+  /**
+   * Install the primitives of a class that is provided by the VM and has no source file,
+   * which means the primitives are its only methods.
+   */
+  public void installPrimitives(final SClass clazz, final Source source) {
+    HashMap<SSymbol, Specializer<ExpressionNode, SSymbol>> prims =
+        primitives.get(clazz.getName());
+    assert prims != null : "No primitives found for " + clazz.getName().getString();
+
+    LinkedHashMap<SSymbol, SInvokable> instanceMethods = new LinkedHashMap<>();
+    LinkedHashMap<SSymbol, SInvokable> classMethods = new LinkedHashMap<>();
+
+    for (Entry<SSymbol, Specializer<ExpressionNode, SSymbol>> e : prims.entrySet()) {
+      SInvokable prim = constructPrimitive(
+          e.getKey(), source, SourceCoordinate.create(1, 1), e.getValue(), null);
+      if (e.getValue().classSide()) {
+        classMethods.put(e.getKey(), prim);
+      } else {
+        instanceMethods.put(e.getKey(), prim);
+      }
+    }
+
+    clazz.setInstanceInvokables(instanceMethods, true);
+    clazz.getSOMClass().setInstanceInvokables(classMethods, true);
+  }
+
   @Override
   protected void registerPrimitive(
       final Specializer<ExpressionNode, SSymbol> splzr) {
@@ -246,6 +280,9 @@ public final class Primitives extends PrimitiveLoader<ExpressionNode, SSymbol> {
     addAll(allFactories, DoublePrimsFactory.getFactories());
     addAll(allFactories, IntegerPrimsFactory.getFactories());
     addAll(allFactories, StringPrimsFactory.getFactories());
+    addAll(allFactories, StringBuilderPrimsFactory.getFactories());
+    addAll(allFactories, HashMapPrimsFactory.getFactories());
+    addAll(allFactories, GrowableArrayPrimsFactory.getFactories());
     addAll(allFactories, SystemPrimsFactory.getFactories());
     addAll(allFactories, ClassPrimsFactory.getFactories());
     addAll(allFactories, MethodPrimsFactory.getFactories());
@@ -271,10 +308,13 @@ public final class Primitives extends PrimitiveLoader<ExpressionNode, SSymbol> {
     add(allFactories, AtPrimFactory.getInstance());
     add(allFactories, AtPutPrimFactory.getInstance());
     add(allFactories, CopyPrimFactory.getInstance());
+    add(allFactories, CopyFromToPrimFactory.getInstance());
     add(allFactories, DoIndexesPrimFactory.getInstance());
     add(allFactories, DoPrimFactory.getInstance());
+    add(allFactories, IndexOfPrimFactory.getInstance());
     add(allFactories, NewPrimFactory.getInstance());
     add(allFactories, PutAllNodeFactory.getInstance());
+    add(allFactories, ReplaceFromToWithStartingAtPrimFactory.getInstance());
 
     add(allFactories, AsStringPrimFactory.getInstance());
     add(allFactories, EqualsEqualsPrimFactory.getInstance());
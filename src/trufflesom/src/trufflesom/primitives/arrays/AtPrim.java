@@ -42,6 +42,16 @@ public abstract class AtPrim extends BinaryMsgExprNode {
     return receiver.getLongStorage()[(int) idx - 1];
   }
 
+  @Specialization(guards = "receiver.isByteType()")
+  public static final long doByteSArray(final SArray receiver, final long idx) {
+    return receiver.getByteStorage()[(int) idx - 1] & 0xFF;
+  }
+
+  @Specialization(guards = "receiver.isCharType()")
+  public static final long doCharSArray(final SArray receiver, final long idx) {
+    return receiver.getCharStorage()[(int) idx - 1];
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public static final double doDoubleSArray(final SArray receiver, final long idx) {
     return receiver.getDoubleStorage()[(int) idx - 1];
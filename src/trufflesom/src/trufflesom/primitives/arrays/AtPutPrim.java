@@ -3,6 +3,7 @@ package trufflesom.primitives.arrays;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 
 import trufflesom.bdt.primitives.Primitive;
@@ -12,6 +13,7 @@ import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SArray.PartiallyEmptyArray;
 
 
+@ImportStatic(SArray.class)
 @GenerateNodeFactory
 @Primitive(className = "Array", primitive = "at:put:", selector = "at:put:",
     receiverType = SArray.class, inParser = false)
@@ -185,6 +187,72 @@ public abstract class AtPutPrim extends TernaryExpressionNode {
     return transitionAndSet(receiver, index, value, newStorage);
   }
 
+  @Specialization(guards = {"receiver.isByteType()", "isByteValue(value)"})
+  public static final Object doByteSArray(final SArray receiver, final long index,
+      final long value) {
+    long idx = index - 1;
+    receiver.getByteStorage()[(int) idx] = (byte) value;
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "!isByteValue(value)"})
+  public static final Object doByteSArrayWithLargerLong(final SArray receiver,
+      final long index, final long value) {
+    byte[] storage = receiver.getByteStorage();
+    int idx = (int) index - 1;
+    if (SArray.isCharValue(value)) {
+      char[] newStorage = SArray.toChar(storage);
+      newStorage[idx] = (char) value;
+      receiver.transitionTo(newStorage);
+    } else {
+      long[] newStorage = SArray.toLong(storage);
+      newStorage[idx] = value;
+      receiver.transitionTo(newStorage);
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueIsNotLong(value)"})
+  public static final Object doByteSArray(final SArray receiver, final long index,
+      final Object value) {
+    byte[] storage = receiver.getByteStorage();
+    Object[] newStorage = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = (long) (storage[i] & 0xFF);
+    }
+
+    return transitionAndSet(receiver, index, value, newStorage);
+  }
+
+  @Specialization(guards = {"receiver.isCharType()", "isCharValue(value)"})
+  public static final Object doCharSArray(final SArray receiver, final long index,
+      final long value) {
+    long idx = index - 1;
+    receiver.getCharStorage()[(int) idx] = (char) value;
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isCharType()", "!isCharValue(value)"})
+  public static final Object doCharSArrayWithLargerLong(final SArray receiver,
+      final long index, final long value) {
+    long[] newStorage = SArray.toLong(receiver.getCharStorage());
+    newStorage[(int) index - 1] = value;
+    receiver.transitionTo(newStorage);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isCharType()", "valueIsNotLong(value)"})
+  public static final Object doCharSArray(final SArray receiver, final long index,
+      final Object value) {
+    char[] storage = receiver.getCharStorage();
+    Object[] newStorage = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = (long) storage[i];
+    }
+
+    return transitionAndSet(receiver, index, value, newStorage);
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public static final Object doDoubleSArray(final SArray receiver, final long index,
       final double value) {
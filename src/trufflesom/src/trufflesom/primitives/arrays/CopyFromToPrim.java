@@ -0,0 +1,85 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.TernaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+@GenerateNodeFactory
+@Primitive(selector = "copyFrom:to:", receiverType = SArray.class, inParser = false)
+public abstract class CopyFromToPrim extends TernaryMsgExprNode {
+  @Override
+  public final SSymbol getSelector() {
+    return SymbolTable.symbolFor("copyFrom:to:");
+  }
+
+  @Specialization(guards = "receiver.isEmptyType()")
+  public static final SArray doEmptyArray(final SArray receiver, final long start,
+      final long end) {
+    assert start > 0;
+    assert end <= receiver.getEmptyStorage();
+    return new SArray(end - start + 1);
+  }
+
+  @Specialization(guards = "receiver.isPartiallyEmptyType()")
+  public static final SArray doPartiallyEmptyArray(final SArray receiver, final long start,
+      final long end) {
+    Object[] result = new Object[(int) (end - start + 1)];
+    System.arraycopy(receiver.getPartiallyEmptyStorage().getStorage(), (int) start - 1,
+        result, 0, result.length);
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "receiver.isObjectType()")
+  public static final SArray doObjectArray(final SArray receiver, final long start,
+      final long end) {
+    Object[] result = new Object[(int) (end - start + 1)];
+    System.arraycopy(receiver.getObjectStorage(), (int) start - 1, result, 0, result.length);
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "receiver.isLongType()")
+  public static final SArray doLongArray(final SArray receiver, final long start,
+      final long end) {
+    long[] result = new long[(int) (end - start + 1)];
+    System.arraycopy(receiver.getLongStorage(), (int) start - 1, result, 0, result.length);
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public static final SArray doByteArray(final SArray receiver, final long start,
+      final long end) {
+    byte[] result = new byte[(int) (end - start + 1)];
+    System.arraycopy(receiver.getByteStorage(), (int) start - 1, result, 0, result.length);
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "receiver.isCharType()")
+  public static final SArray doCharArray(final SArray receiver, final long start,
+      final long end) {
+    char[] result = new char[(int) (end - start + 1)];
+    System.arraycopy(receiver.getCharStorage(), (int) start - 1, result, 0, result.length);
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "receiver.isDoubleType()")
+  public static final SArray doDoubleArray(final SArray receiver, final long start,
+      final long end) {
+    double[] result = new double[(int) (end - start + 1)];
+    System.arraycopy(receiver.getDoubleStorage(), (int) start - 1, result, 0, result.length);
+    return SArray.create(result);
+  }
+
+  @Specialization(guards = "receiver.isBooleanType()")
+  public static final SArray doBooleanArray(final SArray receiver, final long start,
+      final long end) {
+    boolean[] result = new boolean[(int) (end - start + 1)];
+    System.arraycopy(receiver.getBooleanStorage(), (int) start - 1, result, 0, result.length);
+    return SArray.create(result);
+  }
+}
@@ -32,6 +32,16 @@ public abstract class CopyPrim extends UnaryExpressionNode {
     return SArray.create(receiver.getLongStorage().clone());
   }
 
+  @Specialization(guards = "receiver.isByteType()")
+  public static final SArray doByteArray(final SArray receiver) {
+    return SArray.create(receiver.getByteStorage().clone());
+  }
+
+  @Specialization(guards = "receiver.isCharType()")
+  public static final SArray doCharArray(final SArray receiver) {
+    return SArray.create(receiver.getCharStorage().clone());
+  }
+
   @Specialization(guards = "receiver.isDoubleType()")
   public static final SArray doDoubleArray(final SArray receiver) {
     return SArray.create(receiver.getDoubleStorage().clone());
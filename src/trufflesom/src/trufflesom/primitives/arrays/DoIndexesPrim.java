@@ -11,6 +11,7 @@ import com.oracle.truffle.api.nodes.RootNode;
 import trufflesom.bdt.primitives.Primitive;
 import trufflesom.interpreter.Invokable;
 import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.NonEscapingBlockSplzr;
 import trufflesom.primitives.basics.BlockPrims.ValueOnePrim;
 import trufflesom.primitives.basics.BlockPrimsFactory.ValueOnePrimFactory;
 import trufflesom.primitives.basics.LengthPrim;
@@ -23,7 +24,7 @@ import trufflesom.vmobjects.SSymbol;
 
 @GenerateNodeFactory
 @Primitive(className = "Array", primitive = "doIndexes:", selector = "doIndexes:",
-    receiverType = SArray.class, disabled = true)
+    receiverType = SArray.class, disabled = true, specializer = NonEscapingBlockSplzr.class)
 public abstract class DoIndexesPrim extends BinaryMsgExprNode {
   @Child private ValueOnePrim block;
   @Child private LengthPrim   length;
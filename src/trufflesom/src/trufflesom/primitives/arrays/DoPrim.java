@@ -1,16 +1,14 @@
 package trufflesom.primitives.arrays;
 
-import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.nodes.Node;
-import com.oracle.truffle.api.nodes.RootNode;
 
 import trufflesom.bdt.primitives.Primitive;
 import trufflesom.interpreter.Invokable;
 import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.primitives.basics.BlockPrims.NonEscapingBlockSplzr;
 import trufflesom.primitives.basics.BlockPrims.ValueOnePrim;
 import trufflesom.primitives.basics.BlockPrimsFactory.ValueOnePrimFactory;
 import trufflesom.vm.SymbolTable;
@@ -23,7 +21,7 @@ import trufflesom.vmobjects.SSymbol;
 
 @GenerateNodeFactory
 @Primitive(className = "Array", primitive = "do:", selector = "do:",
-    receiverType = SArray.class, disabled = true)
+    receiverType = SArray.class, disabled = true, specializer = NonEscapingBlockSplzr.class)
 public abstract class DoPrim extends BinaryMsgExprNode {
   @Child private ValueOnePrim block = ValueOnePrimFactory.create(null, null);
 
@@ -45,7 +43,7 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
-        reportLoopCount(length);
+        Invokable.reportLoopCount(this, length);
       }
     }
     return arr;
@@ -65,7 +63,7 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
-        reportLoopCount(length);
+        Invokable.reportLoopCount(this, length);
       }
     }
     return arr;
@@ -85,7 +83,7 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
-        reportLoopCount(length);
+        Invokable.reportLoopCount(this, length);
       }
     }
     return arr;
@@ -105,7 +103,47 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
-        reportLoopCount(length);
+        Invokable.reportLoopCount(this, length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final SArray doByteArray(final VirtualFrame frame,
+      final SArray arr, final SBlock b) {
+    byte[] storage = arr.getByteStorage();
+    int length = storage.length;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        this.block.executeEvaluated(frame, b, (long) (storage[SArray.FIRST_IDX] & 0xFF));
+      }
+      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
+        this.block.executeEvaluated(frame, b, (long) (storage[(int) i] & 0xFF));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        Invokable.reportLoopCount(this, length);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isCharType()")
+  public final SArray doCharArray(final VirtualFrame frame,
+      final SArray arr, final SBlock b) {
+    char[] storage = arr.getCharStorage();
+    int length = storage.length;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        this.block.executeEvaluated(frame, b, (long) storage[SArray.FIRST_IDX]);
+      }
+      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
+        this.block.executeEvaluated(frame, b, (long) storage[(int) i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        Invokable.reportLoopCount(this, length);
       }
     }
     return arr;
@@ -125,7 +163,7 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
-        reportLoopCount(length);
+        Invokable.reportLoopCount(this, length);
       }
     }
     return arr;
@@ -145,24 +183,9 @@ public abstract class DoPrim extends BinaryMsgExprNode {
       }
     } finally {
       if (CompilerDirectives.inInterpreter()) {
-        reportLoopCount(length);
+        Invokable.reportLoopCount(this, length);
       }
     }
     return arr;
   }
-
-  protected final void reportLoopCount(final long count) {
-    if (count == 0) {
-      return;
-    }
-
-    CompilerAsserts.neverPartOfCompilation("reportLoopCount");
-    Node current = getParent();
-    while (current != null && !(current instanceof RootNode)) {
-      current = current.getParent();
-    }
-    if (current != null) {
-      ((Invokable) current).propagateLoopCountThroughoutLexicalScope(count);
-    }
-  }
 }
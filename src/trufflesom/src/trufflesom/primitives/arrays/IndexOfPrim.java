@@ -0,0 +1,91 @@
+package trufflesom.primitives.arrays;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Search for a value in arrays with primitive storage. The elements of those arrays compare
+ * by value, so we do not need to send #= to them. For other arrays, and values of a
+ * different type, we fall back to a normal send.
+ */
+@GenerateNodeFactory
+@Primitive(selector = "indexOf:", receiverType = SArray.class, inParser = false)
+public abstract class IndexOfPrim extends BinaryMsgExprNode {
+  @Override
+  public final SSymbol getSelector() {
+    return SymbolTable.symbolFor("indexOf:");
+  }
+
+  @Specialization(guards = "receiver.isLongType()")
+  public static final Object doLongArray(final SArray receiver, final long value) {
+    long[] storage = receiver.getLongStorage();
+    for (int i = 0; i < storage.length; i++) {
+      if (storage[i] == value) {
+        return (long) i + 1;
+      }
+    }
+    return Nil.nilObject;
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public static final Object doByteArray(final SArray receiver, final long value) {
+    if (!SArray.isByteValue(value)) {
+      return Nil.nilObject;
+    }
+
+    byte[] storage = receiver.getByteStorage();
+    byte b = (byte) value;
+    for (int i = 0; i < storage.length; i++) {
+      if (storage[i] == b) {
+        return (long) i + 1;
+      }
+    }
+    return Nil.nilObject;
+  }
+
+  @Specialization(guards = "receiver.isCharType()")
+  public static final Object doCharArray(final SArray receiver, final long value) {
+    if (!SArray.isCharValue(value)) {
+      return Nil.nilObject;
+    }
+
+    char[] storage = receiver.getCharStorage();
+    char c = (char) value;
+    for (int i = 0; i < storage.length; i++) {
+      if (storage[i] == c) {
+        return (long) i + 1;
+      }
+    }
+    return Nil.nilObject;
+  }
+
+  @Specialization(guards = "receiver.isDoubleType()")
+  public static final Object doDoubleArray(final SArray receiver, final double value) {
+    double[] storage = receiver.getDoubleStorage();
+    for (int i = 0; i < storage.length; i++) {
+      if (storage[i] == value) {
+        return (long) i + 1;
+      }
+    }
+    return Nil.nilObject;
+  }
+
+  @Specialization(guards = "receiver.isBooleanType()")
+  public static final Object doBooleanArray(final SArray receiver, final boolean value) {
+    boolean[] storage = receiver.getBooleanStorage();
+    for (int i = 0; i < storage.length; i++) {
+      if (storage[i] == value) {
+        return (long) i + 1;
+      }
+    }
+    return Nil.nilObject;
+  }
+}
@@ -5,6 +5,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -24,6 +25,7 @@ import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SObject;
 
 
+@ImportStatic(SArray.class)
 @GenerateNodeFactory
 @Primitive(className = "Array", primitive = "putAll:", selector = "putAll:", disabled = true,
     extraChild = LengthPrimFactory.class)
@@ -141,7 +143,21 @@ public abstract class PutAllNode extends BinaryExpressionNode {
     }
   }
 
-  @Specialization
+  @Specialization(guards = "isByteValue(value)")
+  public SArray doPutByte(final SArray rcvr, final long value,
+      final long length) {
+    rcvr.transitionToByteWithAll(length, value);
+    return rcvr;
+  }
+
+  @Specialization(guards = {"!isByteValue(value)", "isCharValue(value)"})
+  public SArray doPutChar(final SArray rcvr, final long value,
+      final long length) {
+    rcvr.transitionToCharWithAll(length, value);
+    return rcvr;
+  }
+
+  @Specialization(guards = "!isCharValue(value)")
   public SArray doPutLong(final SArray rcvr, final long value,
       final long length) {
     rcvr.transitionToLongWithAll(length, value);
@@ -0,0 +1,95 @@
+package trufflesom.primitives.arrays;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.QuinaryMsgExprNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * Copy a range of elements from one array into another with the same storage strategy.
+ * If the strategies differ, the elements need to be converted, which is left to the
+ * implementation in the SOM library.
+ *
+ * <p>
+ * The bytecode interpreter specializes only sends with up to two arguments,
+ * so this primitive is only used by the AST interpreter.
+ */
+@GenerateNodeFactory
+@Primitive(selector = "replaceFrom:to:with:startingAt:", receiverType = SArray.class,
+    inParser = false)
+public abstract class ReplaceFromToWithStartingAtPrim extends QuinaryMsgExprNode {
+  @Override
+  public final SSymbol getSelector() {
+    return SymbolTable.symbolFor("replaceFrom:to:with:startingAt:");
+  }
+
+  private static void copy(final Object src, final long srcStart, final Object dest,
+      final long start, final long end) {
+    int length = (int) (end - start + 1);
+    if (length > 0) {
+      System.arraycopy(src, (int) srcStart - 1, dest, (int) start - 1, length);
+    }
+  }
+
+  /** For instance, when growing a collection into a new array. */
+  @Specialization(guards = {"receiver.isEmptyType()", "replacement.isObjectType()"})
+  public static final SArray doEmptyArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    Object[] storage = new Object[receiver.getEmptyStorage()];
+    Arrays.fill(storage, Nil.nilObject);
+    copy(replacement.getObjectStorage(), replStart, storage, start, end);
+    receiver.transitionTo(storage);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isObjectType()", "replacement.isObjectType()"})
+  public static final SArray doObjectArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    copy(replacement.getObjectStorage(), replStart, receiver.getObjectStorage(), start, end);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isLongType()", "replacement.isLongType()"})
+  public static final SArray doLongArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    copy(replacement.getLongStorage(), replStart, receiver.getLongStorage(), start, end);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "replacement.isByteType()"})
+  public static final SArray doByteArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    copy(replacement.getByteStorage(), replStart, receiver.getByteStorage(), start, end);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isCharType()", "replacement.isCharType()"})
+  public static final SArray doCharArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    copy(replacement.getCharStorage(), replStart, receiver.getCharStorage(), start, end);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isDoubleType()", "replacement.isDoubleType()"})
+  public static final SArray doDoubleArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    copy(replacement.getDoubleStorage(), replStart, receiver.getDoubleStorage(), start, end);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isBooleanType()", "replacement.isBooleanType()"})
+  public static final SArray doBooleanArray(final SArray receiver, final long start,
+      final long end, final SArray replacement, final long replStart) {
+    copy(replacement.getBooleanStorage(), replStart, receiver.getBooleanStorage(), start,
+        end);
+    return receiver;
+  }
+}
@@ -75,6 +75,30 @@ public abstract class ToArgumentsArrayNode extends NoPreEvalExprNode {
     return args;
   }
 
+  @Specialization(guards = "somArray.isByteType()")
+  public static final Object[] doByteArray(final SArray somArray,
+      final Object rcvr) {
+    byte[] arr = somArray.getByteStorage();
+    Object[] args = new Object[arr.length + 1];
+    args[0] = rcvr;
+    for (int i = 0; i < arr.length; i++) {
+      args[i + 1] = (long) (arr[i] & 0xFF);
+    }
+    return args;
+  }
+
+  @Specialization(guards = "somArray.isCharType()")
+  public static final Object[] doCharArray(final SArray somArray,
+      final Object rcvr) {
+    char[] arr = somArray.getCharStorage();
+    Object[] args = new Object[arr.length + 1];
+    args[0] = rcvr;
+    for (int i = 0; i < arr.length; i++) {
+      args[i + 1] = (long) arr[i];
+    }
+    return args;
+  }
+
   @Specialization(guards = "somArray.isDoubleType()")
   public static final Object[] doDoubleArray(final SArray somArray,
       final Object rcvr) {
@@ -7,6 +7,7 @@ import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NeverDefault;
+import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.ReportPolymorphism;
 import com.oracle.truffle.api.dsl.ReportPolymorphism.Megamorphic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -16,8 +17,12 @@ import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.api.nodes.DirectCallNode;
 
 import trufflesom.bdt.primitives.Primitive;
+import trufflesom.bdt.primitives.Specializer;
 import trufflesom.bdt.primitives.nodes.PreevaluatedExpression;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.bc.RestartLoopException;
+import trufflesom.interpreter.nodes.ExpressionNode;
+import trufflesom.interpreter.nodes.literals.BlockNode;
 import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
 import trufflesom.interpreter.nodes.nary.QuaternaryExpressionNode;
 import trufflesom.interpreter.nodes.nary.TernaryExpressionNode;
@@ -28,15 +33,57 @@ import trufflesom.vm.VmSettings;
 import trufflesom.vmobjects.SAbstractObject;
 import trufflesom.vmobjects.SBlock;
 import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
 
 
 public abstract class BlockPrims {
-  protected static int InlineCacheSize = 6;
-
   public static final DirectCallNode createCallNode(final SInvokable method) {
     return Truffle.getRuntime().createDirectCallNode(method.getCallTarget());
   }
 
+  /**
+   * Specializer for primitives that only invoke the block literals passed to them. Such
+   * blocks do not escape, and if they do not have a context, a single block object is reused
+   * instead of allocating one on each execution.
+   */
+  public static class NonEscapingBlockSplzr extends Specializer<ExpressionNode, SSymbol> {
+    public NonEscapingBlockSplzr(final Primitive prim, final NodeFactory<ExpressionNode> fact) {
+      super(prim, fact);
+    }
+
+    protected boolean doesNotEscape(@SuppressWarnings("unused") final int argIdx) {
+      return true;
+    }
+
+    @Override
+    public ExpressionNode create(final Object[] arguments, final ExpressionNode[] argNodes,
+        final long coord) {
+      ExpressionNode[] nodes = argNodes.clone();
+      for (int i = 0; i < nodes.length; i += 1) {
+        if (doesNotEscape(i)) {
+          nodes[i] = BlockNode.withoutEscape(nodes[i]);
+        }
+      }
+      return super.create(arguments, nodes, coord);
+    }
+  }
+
+  /**
+   * The value primitives pass their arguments on to the block, where they may escape. Only
+   * the receiver block itself does not escape.
+   */
+  public static class NonEscapingBlockRcvrSplzr extends NonEscapingBlockSplzr {
+    public NonEscapingBlockRcvrSplzr(final Primitive prim,
+        final NodeFactory<ExpressionNode> fact) {
+      super(prim, fact);
+    }
+
+    @Override
+    protected boolean doesNotEscape(final int argIdx) {
+      return argIdx == 0;
+    }
+  }
+
   @GenerateNodeFactory
   @Primitive(className = "Block", primitive = "restart")
   public abstract static class RestartPrim extends UnaryExpressionNode {
@@ -54,8 +101,8 @@ public abstract class BlockPrims {
   @Primitive(className = "Block", primitive = "value")
   @Primitive(className = "Block1", primitive = "value")
   @Primitive(selector = "value", inParser = false,
-      receiverType = {SBlock.class, Boolean.class})
-  @ImportStatic(BlockPrims.class)
+      receiverType = {SBlock.class, Boolean.class}, specializer = NonEscapingBlockRcvrSplzr.class)
+  @ImportStatic({BlockPrims.class, SomLanguage.class})
   public abstract static class ValueNonePrim extends UnaryExpressionNode {
     @NeverDefault
     public static ValueNonePrim create() {
@@ -66,7 +113,7 @@ public abstract class BlockPrims {
 
     @Specialization(
         guards = {"receiver.getMethod() == method", "!method.isTrivial()"},
-        limit = "InlineCacheSize")
+        limit = "getBlockCacheSize()")
     public static final Object doSBlock(final SBlock receiver,
         @SuppressWarnings("unused") @Cached("receiver.getMethod()") final SInvokable method,
         @Cached("createCallNode(method)") final DirectCallNode call) {
@@ -75,7 +122,7 @@ public abstract class BlockPrims {
 
     @Specialization(
         guards = {"receiver.getMethod() == method", "method.isTrivial()"},
-        limit = "InlineCacheSize")
+        limit = "getBlockCacheSize()")
     public static final Object doTrivial(final SBlock receiver,
         @SuppressWarnings("unused") @Cached("receiver.getMethod()") final SInvokable method,
         @Cached("method.copyTrivialNode()") final PreevaluatedExpression expr) {
@@ -102,15 +149,15 @@ public abstract class BlockPrims {
   @GenerateWrapper
   @GenerateNodeFactory
   @Primitive(className = "Block2", primitive = "value:", selector = "value:", inParser = false,
-      receiverType = SBlock.class)
-  @ImportStatic(BlockPrims.class)
+      receiverType = SBlock.class, specializer = NonEscapingBlockRcvrSplzr.class)
+  @ImportStatic({BlockPrims.class, SomLanguage.class})
   public abstract static class ValueOnePrim extends BinaryExpressionNode {
 
     public abstract Object executeEvaluated(VirtualFrame frame, SBlock receiver, Object arg);
 
     @Specialization(
         guards = {"receiver.getMethod() == method", "!method.isTrivial()"},
-        limit = "InlineCacheSize")
+        limit = "getBlockCacheSize()")
     public static final Object doSBlock(final SBlock receiver, final Object arg,
         @SuppressWarnings("unused") @Cached("receiver.getMethod()") final SInvokable method,
         @Cached("createCallNode(method)") final DirectCallNode call) {
@@ -119,7 +166,7 @@ public abstract class BlockPrims {
 
     @Specialization(
         guards = {"receiver.getMethod() == method", "method.isTrivial()"},
-        limit = "InlineCacheSize")
+        limit = "getBlockCacheSize()")
     public static final Object doTrivial(final SBlock receiver, final Object arg,
         @SuppressWarnings("unused") @Cached("receiver.getMethod()") final SInvokable method,
         @Cached("method.copyTrivialNode()") final PreevaluatedExpression expr) {
@@ -146,15 +193,15 @@ public abstract class BlockPrims {
 
   @GenerateNodeFactory
   @Primitive(className = "Block3", primitive = "value:with:", selector = "value:with:",
-      inParser = false, receiverType = SBlock.class)
-  @ImportStatic(BlockPrims.class)
+      inParser = false, receiverType = SBlock.class, specializer = NonEscapingBlockRcvrSplzr.class)
+  @ImportStatic({BlockPrims.class, SomLanguage.class})
   public abstract static class ValueTwoPrim extends TernaryExpressionNode {
 
     public abstract Object executeEvaluated(SBlock receiver, Object arg1, Object arg2);
 
     @Specialization(
         guards = {"receiver.getMethod() == method", "!method.isTrivial()"},
-        limit = "InlineCacheSize")
+        limit = "getBlockCacheSize()")
     public static final Object doSBlock(final SBlock receiver, final Object arg1,
         final Object arg2,
         @SuppressWarnings("unused") @Cached("receiver.getMethod()") final SInvokable method,
@@ -164,7 +211,7 @@ public abstract class BlockPrims {
 
     @Specialization(
         guards = {"receiver.getMethod() == method", "method.isTrivial()"},
-        limit = "InlineCacheSize")
+        limit = "getBlockCacheSize()")
     public static final Object doTrivial(final SBlock receiver, final Object arg1,
         final Object arg2,
         @SuppressWarnings("unused") @Cached("receiver.getMethod()") final SInvokable method,
@@ -10,6 +10,7 @@ import trufflesom.bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -103,6 +104,22 @@ public abstract class EqualsPrim extends BinaryMsgExprNode {
     return left == right.doubleValue();
   }
 
+  @Specialization
+  public static final boolean doRope(final SRope receiver, final SRope argument) {
+    return receiver == argument || (receiver.length() == argument.length()
+        && receiver.getString().equals(argument.getString()));
+  }
+
+  @Specialization
+  public static final boolean doRope(final SRope receiver, final String argument) {
+    return receiver.length() == argument.length() && receiver.getString().equals(argument);
+  }
+
+  @Specialization
+  public static final boolean doString(final String receiver, final SRope argument) {
+    return receiver.length() == argument.length() && receiver.equals(argument.getString());
+  }
+
   @Specialization
   public static final boolean doString(final String receiver, final String argument) {
     return receiver.equals(argument);
@@ -7,6 +7,9 @@ import com.oracle.truffle.api.dsl.Specialization;
 import trufflesom.bdt.primitives.Primitive;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.vmobjects.SAbstractObject;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -14,15 +17,29 @@ import trufflesom.vmobjects.SSymbol;
 @Primitive(className = "Object", primitive = "hashcode")
 @Primitive(className = "String", primitive = "hashcode")
 public abstract class HashPrim extends UnaryExpressionNode {
+  @Specialization
+  public static final long doRope(final SRope receiver) {
+    return receiver.getString().hashCode();
+  }
+
   @Specialization
   public static final long doString(final String receiver) {
     return receiver.hashCode();
   }
 
   @Specialization
-  @TruffleBoundary
   public static final long doSSymbol(final SSymbol receiver) {
-    return receiver.getString().hashCode();
+    return receiver.getHash();
+  }
+
+  @Specialization
+  public static final long doSObject(final SObject receiver) {
+    return receiver.getHash();
+  }
+
+  @Specialization
+  public static final long doSArray(final SArray receiver) {
+    return receiver.getHash();
   }
 
   @Specialization
@@ -0,0 +1,110 @@
+package trufflesom.primitives.basics;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SStringBuilder;
+import trufflesom.vmobjects.SSymbol;
+
+
+public class StringBuilderPrims {
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "new", classSide = true)
+  public abstract static class NewStringBuilderPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SStringBuilder doSClass(
+        @SuppressWarnings("unused") final SClass receiver) {
+      return new SStringBuilder(SStringBuilder.DEFAULT_CAPACITY);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "new:", classSide = true)
+  public abstract static class NewWithCapacityPrim extends BinaryExpressionNode {
+    @Specialization
+    public static final SStringBuilder doSClass(
+        @SuppressWarnings("unused") final SClass receiver, final long capacity) {
+      return new SStringBuilder((int) capacity);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "append:", selector = "append:",
+      receiverType = SStringBuilder.class, inParser = false)
+  public abstract static class AppendPrim extends BinaryMsgExprNode {
+    @Override
+    public final SSymbol getSelector() {
+      return SymbolTable.symbolFor("append:");
+    }
+
+    @Specialization
+    public static final SStringBuilder doString(final SStringBuilder receiver,
+        final String value) {
+      receiver.append(value);
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doSSymbol(final SStringBuilder receiver,
+        final SSymbol value) {
+      receiver.append(value.getString());
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doLong(final SStringBuilder receiver,
+        final long value) {
+      receiver.append(value);
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doDouble(final SStringBuilder receiver,
+        final double value) {
+      receiver.append(value);
+      return receiver;
+    }
+
+    @Specialization
+    public static final SStringBuilder doStringBuilder(final SStringBuilder receiver,
+        final SStringBuilder value) {
+      receiver.append(value);
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "size")
+  public abstract static class SizePrim extends UnaryExpressionNode {
+    @Specialization
+    public static final long doStringBuilder(final SStringBuilder receiver) {
+      return receiver.getSize();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "reset")
+  public abstract static class ResetPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SStringBuilder doStringBuilder(final SStringBuilder receiver) {
+      receiver.reset();
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "StringBuilder", primitive = "asString")
+  public abstract static class AsStringPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final String doStringBuilder(final SStringBuilder receiver) {
+      return receiver.asString();
+    }
+  }
+}
@@ -1,7 +1,5 @@
 package trufflesom.primitives.basics;
 
-import static trufflesom.vm.SymbolTable.symbolFor;
-
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -14,6 +12,7 @@ import trufflesom.interpreter.nodes.nary.TernaryExpressionNode;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.vm.SymbolTable;
 import trufflesom.vmobjects.SAbstractObject;
+import trufflesom.vmobjects.SRope;
 import trufflesom.vmobjects.SSymbol;
 
 
@@ -28,33 +27,106 @@ public class StringPrims {
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doString(final String receiver, final String argument) {
-      return receiver + argument;
+    public static final Object doRope(final SRope receiver, final SRope argument) {
+      return SRope.concat(receiver, argument);
+    }
+
+    @Specialization
+    public static final Object doRope(final SRope receiver, final String argument) {
+      return SRope.concat(receiver, argument);
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doString(final String receiver, final SSymbol argument) {
-      return receiver + argument.getString();
+    public static final Object doString(final String receiver, final SRope argument) {
+      return SRope.concat(receiver, argument);
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doSSymbol(final SSymbol receiver, final String argument) {
-      return receiver.getString() + argument;
+    public static final Object doString(final String receiver, final String argument) {
+      return SRope.concat(receiver, argument);
     }
 
     @Specialization
-    @TruffleBoundary
-    public static final String doSSymbol(final SSymbol receiver, final SSymbol argument) {
-      return receiver.getString() + argument.getString();
+    public static final Object doString(final String receiver, final SSymbol argument) {
+      return SRope.concat(receiver, argument.getString());
+    }
+
+    @Specialization
+    public static final Object doSSymbol(final SSymbol receiver, final String argument) {
+      return SRope.concat(receiver.getString(), argument);
+    }
+
+    @Specialization
+    public static final Object doSSymbol(final SSymbol receiver, final SSymbol argument) {
+      return SRope.concat(receiver.getString(), argument.getString());
+    }
+  }
+
+  private static final int LATIN1_SIZE = 256;
+
+  /** The single-character strings for the Latin-1 range, so that charAt: does not allocate. */
+  @CompilationFinal(dimensions = 1) private static final String[] LATIN1_STRINGS;
+
+  static {
+    LATIN1_STRINGS = new String[LATIN1_SIZE];
+    for (int i = 0; i < LATIN1_SIZE; i++) {
+      LATIN1_STRINGS[i] = String.valueOf((char) i).intern();
+    }
+  }
+
+  public static String charToString(final char c) {
+    if (c < LATIN1_SIZE) {
+      return LATIN1_STRINGS[c];
+    }
+    return newCharString(c);
+  }
+
+  @TruffleBoundary
+  private static String newCharString(final char c) {
+    return String.valueOf(c);
+  }
+
+  /**
+   * The character-class checks are done inline for Latin-1, and agree with
+   * {@link Character#isWhitespace(char)}, {@link Character#isLetter(char)}, and
+   * {@link Character#isDigit(char)}, which we only call for other characters.
+   */
+  public static boolean isWhiteSpace(final char c) {
+    if (c < LATIN1_SIZE) {
+      return c == ' ' || ('\t' <= c && c <= '\r') || ('\u001C' <= c && c <= '\u001F');
+    }
+    return isWhiteSpaceBoundary(c);
+  }
+
+  @TruffleBoundary
+  private static boolean isWhiteSpaceBoundary(final char c) {
+    return Character.isWhitespace(c);
+  }
+
+  public static boolean isLetter(final char c) {
+    if (c < LATIN1_SIZE) {
+      return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z')
+          || c == '\u00AA' || c == '\u00B5' || c == '\u00BA'
+          || ('\u00C0' <= c && c != '\u00D7' && c != '\u00F7');
+    }
+    return isLetterBoundary(c);
+  }
+
+  @TruffleBoundary
+  private static boolean isLetterBoundary(final char c) {
+    return Character.isLetter(c);
+  }
+
+  public static boolean isDigit(final char c) {
+    if (c < LATIN1_SIZE) {
+      return '0' <= c && c <= '9';
     }
+    return isDigitBoundary(c);
   }
 
   @TruffleBoundary
-  private static String substring(final String str, final int start, final int end) {
-    return str.substring(start, end);
+  private static boolean isDigitBoundary(final char c) {
+    return Character.isDigit(c);
   }
 
   @GenerateNodeFactory
@@ -68,11 +140,25 @@ public class StringPrims {
       return SymbolTable.symbolFor("charAt:");
     }
 
+    @Specialization
+    public final String doRope(final SRope receiver, final long idx) {
+      int index = (int) idx;
+      if (0 < index && index <= receiver.length()) {
+        return charToString(receiver.charAt(index - 1));
+      }
+
+      if (!branchTaken) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        branchTaken = true;
+      }
+      return "Error - index out of bounds";
+    }
+
     @Specialization
     public final String doString(final String receiver, final long idx) {
       int index = (int) idx;
       if (0 < index && index <= receiver.length()) {
-        return substring(receiver, index - 1, index);
+        return charToString(receiver.charAt(index - 1));
       }
 
       if (!branchTaken) {
@@ -87,7 +173,7 @@ public class StringPrims {
       int index = (int) idx;
       String s = receiver.getString();
       if (0 < index && index <= s.length()) {
-        return substring(s, index - 1, index);
+        return charToString(s.charAt(index - 1));
       }
 
       if (!branchTaken) {
@@ -98,12 +184,61 @@ public class StringPrims {
     }
   }
 
+  /**
+   * Answers the character code at an index, so that tokenizers can compare characters without
+   * creating strings for them. The SOM library does not declare it, so it is installed by
+   * selector.
+   */
+  @GenerateNodeFactory
+  @Primitive(selector = "charCodeAt:", receiverType = {String.class, SRope.class, SSymbol.class},
+      inParser = false)
+  public abstract static class CharCodeAtPrim extends BinaryMsgExprNode {
+
+    @CompilationFinal private boolean branchTaken;
+
+    @Override
+    public final SSymbol getSelector() {
+      return SymbolTable.symbolFor("charCodeAt:");
+    }
+
+    @Specialization
+    public final Object doRope(final SRope receiver, final long idx) {
+      int index = (int) idx;
+      if (0 < index && index <= receiver.length()) {
+        return (long) receiver.charAt(index - 1);
+      }
+      return outOfBounds();
+    }
+
+    @Specialization
+    public final Object doString(final String receiver, final long idx) {
+      int index = (int) idx;
+      if (0 < index && index <= receiver.length()) {
+        return (long) receiver.charAt(index - 1);
+      }
+      return outOfBounds();
+    }
+
+    @Specialization
+    public final Object doSSymbol(final SSymbol receiver, final long idx) {
+      return doString(receiver.getString(), idx);
+    }
+
+    private String outOfBounds() {
+      if (!branchTaken) {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        branchTaken = true;
+      }
+      return "Error - index out of bounds";
+    }
+  }
+
   @GenerateNodeFactory
   @Primitive(className = "String", primitive = "asSymbol")
   public abstract static class AsSymbolPrim extends UnaryExpressionNode {
     @Specialization
     public static final SAbstractObject doString(final String receiver) {
-      return symbolFor(receiver);
+      return SymbolTable.dynamicSymbolFor(receiver);
     }
 
     @Specialization
@@ -116,17 +251,27 @@ public class StringPrims {
   @Primitive(className = "String", primitive = "primSubstringFrom:to:")
   public abstract static class SubstringPrim extends TernaryExpressionNode {
     @Specialization
-    public static final String doString(final String receiver, final long start,
+    public static final Object doRope(final SRope receiver, final long start,
+        final long end) {
+      try {
+        return SRope.substring(receiver, (int) start - 1, (int) end);
+      } catch (StringIndexOutOfBoundsException e) {
+        return "Error - index out of bounds";
+      }
+    }
+
+    @Specialization
+    public static final Object doString(final String receiver, final long start,
         final long end) {
       try {
-        return substring(receiver, (int) start - 1, (int) end);
+        return SRope.substring(receiver, (int) start - 1, (int) end);
       } catch (StringIndexOutOfBoundsException e) {
         return "Error - index out of bounds";
       }
     }
 
     @Specialization
-    public static final String doSSymbol(final SSymbol receiver, final long start,
+    public static final Object doSSymbol(final SSymbol receiver, final long start,
         final long end) {
       return doString(receiver.getString(), start, end);
     }
@@ -135,10 +280,9 @@ public class StringPrims {
   @GenerateNodeFactory
   @Primitive(className = "String", primitive = "isWhiteSpace")
   public abstract static class IsWhiteSpacePrim extends UnaryExpressionNode {
-    @TruffleBoundary
     @Specialization(guards = "receiver.length() == 1")
     public static final boolean doChar(final String receiver) {
-      return Character.isWhitespace(receiver.charAt(0));
+      return isWhiteSpace(receiver.charAt(0));
     }
 
     @Specialization(guards = "receiver.getString().length() == 1")
@@ -146,11 +290,10 @@ public class StringPrims {
       return doChar(receiver.getString());
     }
 
-    @TruffleBoundary
     @Specialization(guards = "receiver.length() != 1")
     public static final boolean doString(final String receiver) {
       for (int i = 0; i < receiver.length(); i++) {
-        if (!Character.isWhitespace(receiver.charAt(i))) {
+        if (!isWhiteSpace(receiver.charAt(i))) {
           return false;
         }
       }
@@ -171,10 +314,9 @@ public class StringPrims {
   @GenerateNodeFactory
   @Primitive(className = "String", primitive = "isLetters")
   public abstract static class IsLettersPrim extends UnaryExpressionNode {
-    @TruffleBoundary
     @Specialization(guards = "receiver.length() == 1")
     public static final boolean doChar(final String receiver) {
-      return Character.isLetter(receiver.charAt(0));
+      return isLetter(receiver.charAt(0));
     }
 
     @Specialization(guards = "receiver.getString().length() == 1")
@@ -182,11 +324,10 @@ public class StringPrims {
       return doChar(receiver.getString());
     }
 
-    @TruffleBoundary
     @Specialization(guards = "receiver.length() != 1")
     public static final boolean doString(final String receiver) {
       for (int i = 0; i < receiver.length(); i++) {
-        if (!Character.isLetter(receiver.charAt(i))) {
+        if (!isLetter(receiver.charAt(i))) {
           return false;
         }
       }
@@ -207,10 +348,9 @@ public class StringPrims {
   @GenerateNodeFactory
   @Primitive(className = "String", primitive = "isDigits")
   public abstract static class IsDigitsPrim extends UnaryExpressionNode {
-    @TruffleBoundary
     @Specialization(guards = "receiver.length() == 1")
     public static final boolean doChar(final String receiver) {
-      return Character.isDigit(receiver.charAt(0));
+      return isDigit(receiver.charAt(0));
     }
 
     @Specialization(guards = "receiver.getString().length() == 1")
@@ -218,11 +358,10 @@ public class StringPrims {
       return doChar(receiver.getString());
     }
 
-    @TruffleBoundary
     @Specialization(guards = "receiver.length() != 1")
     public static final boolean doString(final String receiver) {
       for (int i = 0; i < receiver.length(); i++) {
-        if (!Character.isDigit(receiver.charAt(i))) {
+        if (!isDigit(receiver.charAt(i))) {
           return false;
         }
       }
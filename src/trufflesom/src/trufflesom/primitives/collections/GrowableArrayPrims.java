@@ -0,0 +1,232 @@
+package trufflesom.primitives.collections;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
+import trufflesom.interpreter.nodes.nary.BinaryMsgExprNode;
+import trufflesom.interpreter.nodes.nary.TernaryExpressionNode;
+import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
+import trufflesom.primitives.arrays.AtPrimFactory;
+import trufflesom.primitives.arrays.AtPutPrimFactory;
+import trufflesom.primitives.basics.BlockPrims.ValueOnePrim;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueOnePrimFactory;
+import trufflesom.vm.SymbolTable;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SAbstractObject;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SBlock;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SGrowableArray;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * The primitives of GrowableArray store the elements with the {@code at:} and {@code at:put:}
+ * nodes of Array, see {@link SGrowableArray}.
+ */
+public class GrowableArrayPrims {
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "new", classSide = true)
+  public abstract static class NewGrowableArrayPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SGrowableArray doSClass(
+        @SuppressWarnings("unused") final SClass receiver) {
+      return new SGrowableArray(SGrowableArray.DEFAULT_CAPACITY);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "new:", classSide = true)
+  public abstract static class NewWithCapacityPrim extends BinaryExpressionNode {
+    @Specialization
+    public static final SGrowableArray doSClass(
+        @SuppressWarnings("unused") final SClass receiver, final long capacity) {
+      return new SGrowableArray((int) capacity);
+    }
+  }
+
+  @TruffleBoundary
+  private static Object indexOutOfBounds(final SGrowableArray receiver, final long index) {
+    return SAbstractObject.sendError(receiver,
+        "GrowableArray[1.." + receiver.getSize() + "] index out of bounds: " + index);
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "add:", selector = "add:",
+      receiverType = SGrowableArray.class, inParser = false)
+  public abstract static class AddPrim extends BinaryMsgExprNode {
+    @Child private TernaryExpressionNode atPut = AtPutPrimFactory.create(null, null, null);
+
+    @Override
+    public final SSymbol getSelector() {
+      return SymbolTable.symbolFor("add:");
+    }
+
+    @Specialization
+    public final Object doGrowableArray(final VirtualFrame frame,
+        final SGrowableArray receiver, final Object value) {
+      // adding may replace the storage, so get it afterwards
+      long idx = receiver.addIndex();
+      atPut.executeEvaluated(frame, receiver.getStorage(), idx, value);
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "at:")
+  public abstract static class AtPrim extends BinaryExpressionNode {
+    @Child private BinaryExpressionNode at = AtPrimFactory.create(null, null);
+
+    @Specialization(guards = "receiver.isValidIndex(index)")
+    public final Object doGrowableArray(final VirtualFrame frame,
+        final SGrowableArray receiver, final long index) {
+      return at.executeEvaluated(frame, receiver.getStorage(), receiver.storageIndex(index));
+    }
+
+    @Specialization(guards = "!receiver.isValidIndex(index)")
+    public static final Object doOutOfBounds(final SGrowableArray receiver,
+        final long index) {
+      return indexOutOfBounds(receiver, index);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "at:put:")
+  public abstract static class AtPutPrim extends TernaryExpressionNode {
+    @Child private TernaryExpressionNode atPut = AtPutPrimFactory.create(null, null, null);
+
+    @Specialization(guards = "receiver.isValidIndex(index)")
+    public final Object doGrowableArray(final VirtualFrame frame,
+        final SGrowableArray receiver, final long index, final Object value) {
+      atPut.executeEvaluated(frame, receiver.getStorage(), receiver.storageIndex(index), value);
+      return value;
+    }
+
+    @Specialization(guards = "!receiver.isValidIndex(index)")
+    public static final Object doOutOfBounds(final SGrowableArray receiver, final long index,
+        @SuppressWarnings("unused") final Object value) {
+      return indexOutOfBounds(receiver, index);
+    }
+  }
+
+  public abstract static class RemovePrim extends UnaryExpressionNode {
+    @Child private BinaryExpressionNode  at    = AtPrimFactory.create(null, null);
+    @Child private TernaryExpressionNode atPut = AtPutPrimFactory.create(null, null, null);
+
+    protected final Object remove(final VirtualFrame frame, final SArray storage,
+        final long idx) {
+      Object value = at.executeEvaluated(frame, storage, idx);
+      if (storage.isObjectType() || storage.isPartiallyEmptyType()) {
+        // do not keep the removed element alive
+        atPut.executeEvaluated(frame, storage, idx, Nil.nilObject);
+      }
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "removeFirst")
+  public abstract static class RemoveFirstPrim extends RemovePrim {
+    @Specialization(guards = "receiver.getSize() == 0")
+    public static final Object doEmpty(
+        @SuppressWarnings("unused") final SGrowableArray receiver) {
+      return Nil.nilObject;
+    }
+
+    @Specialization(guards = "receiver.getSize() > 0")
+    public final Object doGrowableArray(final VirtualFrame frame,
+        final SGrowableArray receiver) {
+      return remove(frame, receiver.getStorage(), receiver.removeFirstIdx());
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "removeLast")
+  public abstract static class RemoveLastPrim extends RemovePrim {
+    @Specialization(guards = "receiver.getSize() == 0")
+    public static final Object doEmpty(
+        @SuppressWarnings("unused") final SGrowableArray receiver) {
+      return Nil.nilObject;
+    }
+
+    @Specialization(guards = "receiver.getSize() > 0")
+    public final Object doGrowableArray(final VirtualFrame frame,
+        final SGrowableArray receiver) {
+      return remove(frame, receiver.getStorage(), receiver.removeLastIdx());
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "size")
+  public abstract static class SizePrim extends UnaryExpressionNode {
+    @Specialization
+    public static final long doGrowableArray(final SGrowableArray receiver) {
+      return receiver.getSize();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "isEmpty")
+  public abstract static class IsEmptyPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final boolean doGrowableArray(final SGrowableArray receiver) {
+      return receiver.getSize() == 0;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "removeAll")
+  public abstract static class RemoveAllPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SGrowableArray doGrowableArray(final SGrowableArray receiver) {
+      receiver.removeAll();
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "asArray")
+  public abstract static class AsArrayPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SArray doGrowableArray(final SGrowableArray receiver) {
+      return receiver.asArray();
+    }
+  }
+
+  /**
+   * Iterates over the elements present when the iteration starts, by index. If the block adds
+   * or removes elements, elements may be skipped or repeated, but the iteration does not go
+   * past the last element.
+   */
+  @GenerateNodeFactory
+  @Primitive(className = "GrowableArray", primitive = "do:")
+  public abstract static class DoPrim extends BinaryExpressionNode {
+    @Child private ValueOnePrim         block = ValueOnePrimFactory.create(null, null);
+    @Child private BinaryExpressionNode at    = AtPrimFactory.create(null, null);
+
+    @Specialization
+    public final SGrowableArray doGrowableArray(final VirtualFrame frame,
+        final SGrowableArray arr, final SBlock b) {
+      int size = arr.getSize();
+      long i = 1;
+      try {
+        for (; i <= size && arr.isValidIndex(i); i++) {
+          Object value = at.executeEvaluated(frame, arr.getStorage(), arr.storageIndex(i));
+          this.block.executeEvaluated(frame, b, value);
+        }
+      } finally {
+        if (CompilerDirectives.inInterpreter()) {
+          Invokable.reportLoopCount(this, i - 1);
+        }
+      }
+      return arr;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package trufflesom.primitives.collections;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
+import trufflesom.interpreter.nodes.nary.TernaryExpressionNode;
+import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
+import trufflesom.primitives.basics.BlockPrims.ValueOnePrim;
+import trufflesom.primitives.basics.BlockPrims.ValueTwoPrim;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueOnePrimFactory;
+import trufflesom.primitives.basics.BlockPrimsFactory.ValueTwoPrimFactory;
+import trufflesom.vm.Classes;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SBlock;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SHashMap;
+
+
+public class HashMapPrims {
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "new", classSide = true)
+  @Primitive(className = "IdentityHashMap", primitive = "new", classSide = true)
+  public abstract static class NewHashMapPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SHashMap doSClass(final SClass receiver) {
+      return new SHashMap(receiver == Classes.identityHashMapClass,
+          SHashMap.DEFAULT_CAPACITY);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "new:", classSide = true)
+  @Primitive(className = "IdentityHashMap", primitive = "new:", classSide = true)
+  public abstract static class NewWithCapacityPrim extends BinaryExpressionNode {
+    @Specialization
+    public static final SHashMap doSClass(final SClass receiver, final long capacity) {
+      return new SHashMap(receiver == Classes.identityHashMapClass, (int) capacity);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "at:")
+  @Primitive(className = "IdentityHashMap", primitive = "at:")
+  public abstract static class AtPrim extends BinaryExpressionNode {
+    @Specialization
+    public static final Object doLong(final SHashMap receiver, final long key) {
+      Object value = receiver.get(key);
+      return value == null ? Nil.nilObject : value;
+    }
+
+    @Specialization
+    public static final Object doObject(final SHashMap receiver, final Object key) {
+      Object value = receiver.get(key);
+      return value == null ? Nil.nilObject : value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "at:put:")
+  @Primitive(className = "IdentityHashMap", primitive = "at:put:")
+  public abstract static class AtPutPrim extends TernaryExpressionNode {
+    @Specialization
+    public static final Object doLong(final SHashMap receiver, final long key,
+        final Object value) {
+      receiver.put(key, value);
+      return value;
+    }
+
+    @Specialization
+    public static final Object doObject(final SHashMap receiver, final Object key,
+        final Object value) {
+      receiver.put(key, value);
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "containsKey:")
+  @Primitive(className = "IdentityHashMap", primitive = "containsKey:")
+  public abstract static class ContainsKeyPrim extends BinaryExpressionNode {
+    @Specialization
+    public static final boolean doLong(final SHashMap receiver, final long key) {
+      return receiver.containsKey(key);
+    }
+
+    @Specialization
+    public static final boolean doObject(final SHashMap receiver, final Object key) {
+      return receiver.containsKey(key);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "removeKey:")
+  @Primitive(className = "IdentityHashMap", primitive = "removeKey:")
+  public abstract static class RemoveKeyPrim extends BinaryExpressionNode {
+    @Specialization
+    public static final Object doObject(final SHashMap receiver, final Object key) {
+      Object value = receiver.remove(key);
+      return value == null ? Nil.nilObject : value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "size")
+  @Primitive(className = "IdentityHashMap", primitive = "size")
+  public abstract static class SizePrim extends UnaryExpressionNode {
+    @Specialization
+    public static final long doHashMap(final SHashMap receiver) {
+      return receiver.size();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "isEmpty")
+  @Primitive(className = "IdentityHashMap", primitive = "isEmpty")
+  public abstract static class IsEmptyPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final boolean doHashMap(final SHashMap receiver) {
+      return receiver.size() == 0;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "removeAll")
+  @Primitive(className = "IdentityHashMap", primitive = "removeAll")
+  public abstract static class RemoveAllPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SHashMap doHashMap(final SHashMap receiver) {
+      receiver.clear();
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "keys")
+  @Primitive(className = "IdentityHashMap", primitive = "keys")
+  public abstract static class KeysPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SArray doHashMap(final SHashMap receiver) {
+      return receiver.getKeys();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "values")
+  @Primitive(className = "IdentityHashMap", primitive = "values")
+  public abstract static class ValuesPrim extends UnaryExpressionNode {
+    @Specialization
+    public static final SArray doHashMap(final SHashMap receiver) {
+      return receiver.getValues();
+    }
+  }
+
+  /**
+   * Iterates over the values. If the block changes the map, entries may be skipped or
+   * repeated.
+   */
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "do:")
+  @Primitive(className = "IdentityHashMap", primitive = "do:")
+  public abstract static class DoPrim extends BinaryExpressionNode {
+    @Child private ValueOnePrim block = ValueOnePrimFactory.create(null, null);
+
+    @Specialization
+    public final SHashMap doHashMap(final VirtualFrame frame, final SHashMap receiver,
+        final SBlock b) {
+      int capacity = receiver.getCapacity();
+      try {
+        for (int i = 0; i < capacity; i++) {
+          Object value = receiver.getValueAt(i);
+          if (value != null) {
+            block.executeEvaluated(frame, b, value);
+          }
+        }
+      } finally {
+        if (CompilerDirectives.inInterpreter()) {
+          Invokable.reportLoopCount(this, capacity);
+        }
+      }
+      return receiver;
+    }
+  }
+
+  /**
+   * Iterates over keys and values. If the block changes the map, entries may be skipped or
+   * repeated.
+   */
+  @GenerateNodeFactory
+  @Primitive(className = "HashMap", primitive = "keysAndValuesDo:")
+  @Primitive(className = "IdentityHashMap", primitive = "keysAndValuesDo:")
+  public abstract static class KeysAndValuesDoPrim extends BinaryExpressionNode {
+    @Child private ValueTwoPrim block = ValueTwoPrimFactory.create(null, null, null);
+
+    @Specialization
+    public final SHashMap doHashMap(final VirtualFrame frame, final SHashMap receiver,
+        final SBlock b) {
+      int capacity = receiver.getCapacity();
+      try {
+        for (int i = 0; i < capacity; i++) {
+          Object value = receiver.getValueAt(i);
+          if (value != null) {
+            block.executeEvaluated(frame, b, receiver.getKeyAt(i), value);
+          }
+        }
+      } finally {
+        if (CompilerDirectives.inInterpreter()) {
+          Invokable.reportLoopCount(this, capacity);
+        }
+      }
+      return receiver;
+    }
+  }
+}
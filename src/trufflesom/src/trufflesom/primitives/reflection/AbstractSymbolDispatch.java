@@ -3,6 +3,7 @@ package trufflesom.primitives.reflection;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NeverDefault;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -18,9 +19,11 @@ import com.oracle.truffle.api.source.SourceSection;
 import trufflesom.bdt.inlining.nodes.WithSource;
 import trufflesom.bdt.primitives.nodes.PreevaluatedExpression;
 import trufflesom.bdt.source.SourceCoordinate;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.Types;
 import trufflesom.interpreter.nodes.AbstractMessageSendNode;
 import trufflesom.interpreter.nodes.MessageSendNode;
+import trufflesom.interpreter.nodes.dispatch.MegamorphicMethodCache;
 import trufflesom.primitives.arrays.ToArgumentsArrayNode;
 import trufflesom.primitives.arrays.ToArgumentsArrayNodeFactory;
 import trufflesom.tools.nodestats.Tags.AnyNode;
@@ -30,10 +33,9 @@ import trufflesom.vmobjects.SSymbol;
 
 
 @GenerateWrapper
+@ImportStatic(SomLanguage.class)
 public abstract class AbstractSymbolDispatch extends Node
     implements WithSource, InstrumentableNode {
-  public static final int INLINE_CACHE_SIZE = 6;
-
   private final long sourceCoord;
 
   public AbstractSymbolDispatch(final long coord) {
@@ -102,7 +104,7 @@ public abstract class AbstractSymbolDispatch extends Node
     return false;
   }
 
-  @Specialization(limit = "INLINE_CACHE_SIZE",
+  @Specialization(limit = "getPerformCacheSize()",
       guards = {"selector == cachedSelector", "argsArr == null"})
   @SuppressWarnings("unused")
   public Object doCachedWithoutArgArr(final VirtualFrame frame,
@@ -115,7 +117,7 @@ public abstract class AbstractSymbolDispatch extends Node
     return realCachedSend.doPreEvaluated(frame, arguments);
   }
 
-  @Specialization(limit = "INLINE_CACHE_SIZE", guards = "selector == cachedSelector")
+  @Specialization(limit = "getPerformCacheSize()", guards = "selector == cachedSelector")
   @SuppressWarnings("unused")
   public Object doCached(final VirtualFrame frame,
       final Object receiver, final SSymbol selector, final SArray argsArr,
@@ -133,7 +135,7 @@ public abstract class AbstractSymbolDispatch extends Node
   public Object doUncached(final Object receiver, final SSymbol selector,
       @SuppressWarnings("unused") final Object argsArr,
       @Shared("indirect") @Cached final IndirectCallNode call) {
-    SInvokable invokable = Types.getClassOf(receiver).lookupInvokable(selector);
+    SInvokable invokable = MegamorphicMethodCache.lookup(this, Types.getClassOf(receiver), selector);
 
     Object[] arguments = {receiver};
 
@@ -145,7 +147,7 @@ public abstract class AbstractSymbolDispatch extends Node
   public Object doUncached(final Object receiver, final SSymbol selector, final SArray argsArr,
       @Shared("indirect") @Cached final IndirectCallNode call,
       @Shared("arg") @Cached("createArgArrayNode()") final ToArgumentsArrayNode toArgArray) {
-    SInvokable invokable = Types.getClassOf(receiver).lookupInvokable(selector);
+    SInvokable invokable = MegamorphicMethodCache.lookup(this, Types.getClassOf(receiver), selector);
 
     Object[] arguments = toArgArray.executedEvaluated(null, argsArr, receiver);
 
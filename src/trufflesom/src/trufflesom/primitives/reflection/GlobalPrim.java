@@ -7,6 +7,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.Node;
 
 import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.nodes.GlobalNode;
 import trufflesom.interpreter.nodes.GlobalNode.UninitializedGlobalReadWithoutErrorNode;
 import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
@@ -29,8 +30,6 @@ public abstract class GlobalPrim extends BinaryExpressionNode {
   }
 
   private abstract static class GetGlobalNode extends Node {
-    protected static final int INLINE_CACHE_SIZE = 6;
-
     public abstract Object getGlobal(VirtualFrame frame, SSymbol argument);
   }
 
@@ -48,7 +47,7 @@ public abstract class GlobalPrim extends BinaryExpressionNode {
 
     @TruffleBoundary
     private GetGlobalNode specialize(final SSymbol argument) {
-      if (depth < INLINE_CACHE_SIZE) {
+      if (depth < SomLanguage.getGlobalCacheSize()) {
         return replace(new CachedGetGlobal(argument, depth));
       } else {
         GetGlobalNode head = this;
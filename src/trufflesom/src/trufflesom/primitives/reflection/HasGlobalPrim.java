@@ -6,6 +6,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.Node;
 
 import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.nodes.nary.BinaryExpressionNode;
 import trufflesom.vm.Globals;
 import trufflesom.vmobjects.SObject;
@@ -25,8 +26,6 @@ public abstract class HasGlobalPrim extends BinaryExpressionNode {
   }
 
   private abstract static class HasGlobalNode extends Node {
-    protected static final int INLINE_CACHE_SIZE = 6;
-
     public abstract boolean hasGlobal(SSymbol argument);
   }
 
@@ -49,7 +48,7 @@ public abstract class HasGlobalPrim extends BinaryExpressionNode {
     }
 
     private HasGlobalNode specialize(final SSymbol argument) {
-      if (depth < INLINE_CACHE_SIZE) {
+      if (depth < SomLanguage.getGlobalCacheSize()) {
         return replace(new CachedHasGlobal(argument, depth));
       } else {
         HasGlobalNode head = this;
@@ -7,6 +7,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.NeverDefault;
 import com.oracle.truffle.api.nodes.Node;
 
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.nodes.dispatch.DispatchChain;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode;
 import trufflesom.interpreter.objectstorage.FieldAccessorNode.AbstractReadFieldNode;
@@ -17,8 +18,6 @@ import trufflesom.vmobjects.SObject;
 
 
 public abstract class IndexDispatch extends Node implements DispatchChain {
-  public static final int INLINE_CACHE_SIZE = 6;
-
   @NeverDefault
   public static IndexDispatch create() {
     return new UninitializedDispatchNode(0);
@@ -50,7 +49,7 @@ public abstract class IndexDispatch extends Node implements DispatchChain {
     private IndexDispatch specialize(final SClass clazz, final int index, final boolean read) {
       transferToInterpreterAndInvalidate();
 
-      if (depth < INLINE_CACHE_SIZE) {
+      if (depth < SomLanguage.getPerformCacheSize()) {
         IndexDispatch uninit = new UninitializedDispatchNode(depth + 1);
         IndexDispatch specialized;
         if (read) {
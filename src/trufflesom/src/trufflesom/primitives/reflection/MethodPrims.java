@@ -2,6 +2,7 @@ package trufflesom.primitives.reflection;
 
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -9,8 +10,8 @@ import com.oracle.truffle.api.nodes.DirectCallNode;
 import com.oracle.truffle.api.nodes.IndirectCallNode;
 
 import trufflesom.bdt.primitives.Primitive;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.interpreter.nodes.ExpressionNode;
-import trufflesom.interpreter.nodes.dispatch.AbstractDispatchNode;
 import trufflesom.interpreter.nodes.nary.EagerlySpecializableNode;
 import trufflesom.interpreter.nodes.nary.UnaryExpressionNode;
 import trufflesom.primitives.arrays.ToArgumentsArrayNode;
@@ -53,6 +54,7 @@ public final class MethodPrims {
   @NodeChild(value = "argArr", type = ToArgumentsArrayNode.class,
       executeWith = {"somArr", "target"})
   @Primitive(selector = "invokeOn:with:", extraChild = ToArgumentsArrayNodeFactory.class)
+  @ImportStatic(SomLanguage.class)
   public abstract static class InvokeOnPrim extends EagerlySpecializableNode {
 
     public abstract Object executeEvaluated(VirtualFrame frame, SInvokable receiver,
@@ -65,7 +67,7 @@ public final class MethodPrims {
     }
 
     @Specialization(guards = "receiver == cachedReceiver",
-        limit = "" + AbstractDispatchNode.INLINE_CACHE_SIZE)
+        limit = "getPerformCacheSize()")
     @SuppressWarnings("unused")
     public static final Object doCached(
         final SInvokable receiver, final Object target, final SArray somArr,
@@ -0,0 +1,201 @@
+package trufflesom.vm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.interpreter.SomLanguage;
+
+
+/**
+ * Maps class names to the files that define them.
+ *
+ * <p>
+ * Each class path entry is scanned once, instead of probing every entry for every class
+ * that is loaded. An entry is either a directory, or a jar or zip archive, of which only the
+ * .som files at the top level are considered. As for the plain class path, a class that is
+ * defined in multiple entries is taken from the first one.
+ *
+ * <p>
+ * The index does not notice files that are added after it was built.
+ */
+public final class ClassPathIndex {
+  private static final String EXTENSION = ".som";
+
+  /** A .som file in a directory or an archive. */
+  public static final class ClassFile {
+    private static final String ARCHIVE_SEPARATOR = "!/";
+
+    /** The file on disk, {@code null} for files in archives. */
+    public final File file;
+
+    private final File   archive;
+    private final String entryName;
+
+    private ClassFile(final File file) {
+      this.file = file;
+      this.archive = null;
+      this.entryName = null;
+    }
+
+    private ClassFile(final File archive, final String entryName) {
+      this.file = null;
+      this.archive = archive;
+      this.entryName = entryName;
+    }
+
+    public Source getSource() throws IOException {
+      if (file != null) {
+        return SomLanguage.getSource(file);
+      }
+      return getSource(readContent());
+    }
+
+    /**
+     * Create the source from the already read content. Creating a source needs the current
+     * context, but {@link #readContent()} can be used on any thread.
+     */
+    public Source getSource(final String content) throws IOException {
+      if (file != null) {
+        return SomLanguage.getSource(file, content);
+      }
+      return SomLanguage.getSource(content, toString());
+    }
+
+    public String readContent() throws IOException {
+      if (file != null) {
+        return Files.readString(file.toPath());
+      }
+
+      try (ZipFile zip = new ZipFile(archive);
+          InputStream in = zip.getInputStream(zip.getEntry(entryName))) {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return file != null ? file.getPath() : archive.getPath() + ARCHIVE_SEPARATOR + entryName;
+    }
+  }
+
+  private final HashMap<String, ClassFile> classes;
+
+  private final int  numEntries;
+  private final long buildTimeNs;
+
+  private int numLoaded;
+  private int numNotFound;
+
+  @TruffleBoundary
+  public ClassPathIndex(final String[] classPath) {
+    long start = System.nanoTime();
+
+    classes = new HashMap<>();
+    for (String cpEntry : classPath) {
+      File entry = new File(cpEntry);
+      if (entry.isDirectory()) {
+        indexDirectory(entry);
+      } else if (isArchive(entry)) {
+        indexArchive(entry);
+      }
+    }
+
+    numEntries = classPath.length;
+    buildTimeNs = System.nanoTime() - start;
+  }
+
+  private static boolean isArchive(final File entry) {
+    String name = entry.getName();
+    return entry.isFile() && (name.endsWith(".jar") || name.endsWith(".zip"));
+  }
+
+  private static String getClassName(final String fileName) {
+    if (fileName.length() > EXTENSION.length() && fileName.endsWith(EXTENSION)) {
+      return fileName.substring(0, fileName.length() - EXTENSION.length());
+    }
+    return null;
+  }
+
+  private void indexDirectory(final File dir) {
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+
+    for (File f : files) {
+      String className = getClassName(f.getName());
+      if (className != null && f.isFile()) {
+        classes.putIfAbsent(className, new ClassFile(f));
+      }
+    }
+  }
+
+  private void indexArchive(final File archive) {
+    try (ZipFile zip = new ZipFile(archive)) {
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry e = entries.nextElement();
+        String name = e.getName();
+        if (e.isDirectory() || name.indexOf('/') != -1) {
+          continue;
+        }
+
+        String className = getClassName(name);
+        if (className != null) {
+          classes.putIfAbsent(className, new ClassFile(archive, name));
+        }
+      }
+    } catch (IOException e) {
+      // not a readable archive, treat it like a missing directory
+    }
+  }
+
+  /**
+   * @return the file defining the class, or {@code null} if there is none
+   */
+  @TruffleBoundary
+  public ClassFile lookup(final String className) {
+    ClassFile result = classes.get(className);
+    if (result == null) {
+      numNotFound += 1;
+    } else {
+      numLoaded += 1;
+    }
+    return result;
+  }
+
+  public int getNumberOfClasses() {
+    return classes.size();
+  }
+
+  /** @return all indexed classes, without counting them as lookups */
+  public Map<String, ClassFile> getClassFiles() {
+    return Collections.unmodifiableMap(classes);
+  }
+
+  @TruffleBoundary
+  public void printBuildTime() {
+    Universe.errorPrintln("[cp] Indexed " + classes.size() + " classes in " + numEntries
+        + " class path entries in " + String.format("%.2f", buildTimeNs / 1_000_000.0)
+        + "ms");
+  }
+
+  @TruffleBoundary
+  public void printStatistics() {
+    Universe.errorPrintln("[cp] Class path lookups");
+    Universe.errorPrintln("[cp] Found:     " + numLoaded);
+    Universe.errorPrintln("[cp] Not found: " + numNotFound);
+  }
+}
@@ -22,6 +22,12 @@ public class Classes {
   public static final SClass stringClass;
   public static final SClass doubleClass;
 
+  /** Provided by the VM, without source files. */
+  public static final SClass stringBuilderClass;
+  public static final SClass hashMapClass;
+  public static final SClass identityHashMapClass;
+  public static final SClass growableArrayClass;
+
   public static final SClass booleanClass;
 
   public static final SClass trueClass;
@@ -47,6 +53,10 @@ public class Classes {
     stringClass = newSystemClass();
     doubleClass = newSystemClass();
     booleanClass = newSystemClass();
+    stringBuilderClass = newSystemClass();
+    hashMapClass = newSystemClass();
+    identityHashMapClass = newSystemClass();
+    growableArrayClass = newSystemClass();
 
     trueClass = newSystemClass();
     falseClass = newSystemClass();
@@ -99,6 +109,10 @@ public class Classes {
     stringClass.resetSystemClass();
     doubleClass.resetSystemClass();
     booleanClass.resetSystemClass();
+    stringBuilderClass.resetSystemClass();
+    hashMapClass.resetSystemClass();
+    identityHashMapClass.resetSystemClass();
+    growableArrayClass.resetSystemClass();
 
     trueClass.resetSystemClass();
     falseClass.resetSystemClass();
@@ -1,6 +1,8 @@
 package trufflesom.vm;
 
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
@@ -8,8 +10,32 @@ import trufflesom.bdt.basic.IdProvider;
 import trufflesom.vmobjects.SSymbol;
 
 
+/**
+ * Interns symbols. The table is safe to use from multiple threads, and guarantees that there
+ * is only one symbol per string.
+ *
+ * <p>
+ * Symbols are kept in an open-addressing hash table. Looking up a symbol that exists does not
+ * take a lock, and a new symbol is put into a free slot with a compare-and-set. Only
+ * rebuilding the table takes a lock: the free slots of the old table are frozen, so that no
+ * symbol can be added to it anymore, and its symbols are copied into a new table. Threads that
+ * run into a frozen slot wait for the copy to finish, and then retry on the new table.
+ *
+ * <p>
+ * Symbols created at run time are only held weakly. A collected symbol keeps its slot until
+ * the table is rebuilt, which drops it. Since the table finds a symbol as long as it is
+ * reachable, there is still only one symbol per string. A symbol created at run time stays
+ * weakly held even if code refers to it later, because the code keeps it alive.
+ */
 public class SymbolTable {
-  private static final HashMap<String, SSymbol> symbolTable;
+  private static final int INITIAL_CAPACITY = 4096;
+
+  /** Marks a free slot of a table that is being rebuilt. */
+  private static final Object FROZEN = new Object();
+
+  private static final Object resizeLock = new Object();
+
+  private static volatile Table table;
 
   public static final String strSelf         = "self";
   public static final String strSuper        = "super";
@@ -42,22 +68,208 @@ public class SymbolTable {
     }
   }
 
+  /** A symbol that is only held by the table as long as it is reachable otherwise. */
+  private static final class WeakSymbol extends WeakReference<SSymbol> {
+    WeakSymbol(final SSymbol symbol) {
+      super(symbol);
+    }
+  }
+
+  private static final class Table {
+    private final AtomicReferenceArray<Object> slots;
+    private final AtomicInteger                size;
+    private final int                          mask;
+    private final int                          maxSize;
+
+    Table(final int capacity) {
+      slots = new AtomicReferenceArray<>(capacity);
+      size = new AtomicInteger();
+      mask = capacity - 1;
+      maxSize = capacity / 2;
+    }
+
+    /**
+     * @param weak whether a new symbol is only held weakly by the table
+     * @return the symbol for the string, or {@code null} if the table was frozen before
+     *         the symbol was found or added
+     */
+    SSymbol lookupOrAdd(final String string, final int hash, final boolean weak) {
+      int idx = hash & mask;
+      while (true) {
+        Object o = slots.get(idx);
+        if (o == null) {
+          SSymbol symbol = new SSymbol(string.intern());
+          if (slots.compareAndSet(idx, null, weak ? new WeakSymbol(symbol) : symbol)) {
+            if (size.incrementAndGet() > maxSize) {
+              rebuild(this);
+            }
+            return symbol;
+          }
+          // lost the race for the slot, look at what is there now
+          continue;
+        }
+
+        if (o == FROZEN) {
+          return null;
+        }
+
+        // a collected weak symbol keeps its slot until the table is rebuilt
+        SSymbol symbol = o instanceof WeakSymbol ? ((WeakSymbol) o).get() : (SSymbol) o;
+        if (symbol != null && symbol.getString().equals(string)) {
+          return symbol;
+        }
+        idx = (idx + 1) & mask;
+      }
+    }
+
+    /**
+     * @return the symbol for the characters, or {@code null} if there is none, or the table
+     *         was frozen before the symbol was found
+     */
+    SSymbol lookup(final char[] chars, final int start, final int length, final int hash) {
+      int idx = hash & mask;
+      while (true) {
+        Object o = slots.get(idx);
+        if (o == null || o == FROZEN) {
+          return null;
+        }
+
+        SSymbol symbol = o instanceof WeakSymbol ? ((WeakSymbol) o).get() : (SSymbol) o;
+        if (symbol != null && matches(symbol.getString(), chars, start, length)) {
+          return symbol;
+        }
+        idx = (idx + 1) & mask;
+      }
+    }
+
+    private static boolean matches(final String string, final char[] chars, final int start,
+        final int length) {
+      if (string.length() != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (string.charAt(i) != chars[start + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Only used while holding the {@link #resizeLock}, on a table nobody else sees. */
+    void add(final Object entry, final SSymbol symbol) {
+      int idx = hash(symbol.getString()) & mask;
+      while (slots.get(idx) != null) {
+        idx = (idx + 1) & mask;
+      }
+      slots.set(idx, entry);
+      size.incrementAndGet();
+    }
+
+    private static SSymbol liveSymbol(final Object entry) {
+      if (entry == FROZEN) {
+        return null;
+      }
+      if (entry instanceof WeakSymbol) {
+        return ((WeakSymbol) entry).get();
+      }
+      return (SSymbol) entry;
+    }
+
+    /**
+     * Copy the symbols that are still alive into a new table, which has room for at least
+     * as many new symbols as it contains.
+     */
+    Table copyLiveSymbols() {
+      // after freezing, no symbol can be added to this table anymore
+      int numLive = 0;
+      for (int i = 0; i < slots.length(); i++) {
+        slots.compareAndSet(i, null, FROZEN);
+        if (liveSymbol(slots.get(i)) != null) {
+          numLive += 1;
+        }
+      }
+
+      int capacity = INITIAL_CAPACITY;
+      while (numLive * 4 > capacity) {
+        capacity *= 2;
+      }
+
+      Table rebuilt = new Table(capacity);
+      for (int i = 0; i < slots.length(); i++) {
+        Object o = slots.get(i);
+        SSymbol symbol = liveSymbol(o);
+        if (symbol != null) {
+          rebuilt.add(o, symbol);
+        }
+      }
+      return rebuilt;
+    }
+  }
+
+  private static int hash(final String string) {
+    return spread(string.hashCode());
+  }
+
+  private static int spread(final int h) {
+    return h ^ (h >>> 16);
+  }
+
+  private static void rebuild(final Table full) {
+    synchronized (resizeLock) {
+      if (table == full) {
+        table = full.copyLiveSymbols();
+      }
+    }
+  }
+
+  private static SSymbol lookupOrAdd(final String string, final boolean weak) {
+    int hash = hash(string);
+    while (true) {
+      Table t = table;
+      SSymbol result = t.lookupOrAdd(string, hash, weak);
+      if (result != null) {
+        return result;
+      }
+      // the table is being rebuilt, wait for it, and retry on the new table
+      rebuild(t);
+    }
+  }
+
+  static int getCapacity() {
+    return table.slots.length();
+  }
+
+  /** Intern a symbol that is referenced by code, or by the VM itself. */
   @TruffleBoundary
   public static SSymbol symbolFor(final String string) {
-    String interned = string.intern();
-    // Lookup the symbol in the symbol table
-    SSymbol result = symbolTable.get(interned);
-    if (result != null) {
-      return result;
-    }
+    return lookupOrAdd(string, false);
+  }
 
-    result = new SSymbol(interned);
-    symbolTable.put(interned, result);
-    return result;
+  /**
+   * Look up the symbol for a range of characters, without creating a string for them. This
+   * does not add a symbol, so that callers can create the string only for new symbols.
+   *
+   * @param hash the {@link String#hashCode()} of the characters
+   * @return the symbol, or {@code null} if there is none yet
+   */
+  @TruffleBoundary
+  public static SSymbol existingSymbolFor(final char[] chars, final int start,
+      final int length, final int hash) {
+    return table.lookup(chars, start, length, spread(hash));
+  }
+
+  /**
+   * Intern a symbol that is created while running a program, for instance by
+   * {@code String>>#asSymbol}. The table does not keep such a symbol alive, so that it can be
+   * collected once the program does not refer to it anymore.
+   */
+  @TruffleBoundary
+  public static SSymbol dynamicSymbolFor(final String string) {
+    return lookupOrAdd(string, true);
   }
 
   static {
-    symbolTable = new HashMap<>();
+    table = new Table(INITIAL_CAPACITY);
 
     symNil = symbolFor("nil");
     symTrue = symbolFor("true");
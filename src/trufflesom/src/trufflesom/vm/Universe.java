@@ -31,12 +31,16 @@ import static trufflesom.vm.Classes.booleanClass;
 import static trufflesom.vm.Classes.classClass;
 import static trufflesom.vm.Classes.doubleClass;
 import static trufflesom.vm.Classes.falseClass;
+import static trufflesom.vm.Classes.growableArrayClass;
+import static trufflesom.vm.Classes.hashMapClass;
+import static trufflesom.vm.Classes.identityHashMapClass;
 import static trufflesom.vm.Classes.integerClass;
 import static trufflesom.vm.Classes.metaclassClass;
 import static trufflesom.vm.Classes.methodClass;
 import static trufflesom.vm.Classes.nilClass;
 import static trufflesom.vm.Classes.objectClass;
 import static trufflesom.vm.Classes.primitiveClass;
+import static trufflesom.vm.Classes.stringBuilderClass;
 import static trufflesom.vm.Classes.stringClass;
 import static trufflesom.vm.Classes.symbolClass;
 import static trufflesom.vm.Classes.trueClass;
@@ -61,9 +65,13 @@ import trufflesom.bdt.basic.ProgramDefinitionError;
 import trufflesom.bdt.tools.structure.StructuralProbe;
 import trufflesom.compiler.Disassembler;
 import trufflesom.compiler.Field;
+import trufflesom.compiler.PreParser;
+import trufflesom.compiler.PreParser.PreParsed;
 import trufflesom.compiler.SourcecodeCompiler;
 import trufflesom.compiler.Variable;
+import trufflesom.interpreter.SomLanguage;
 import trufflesom.primitives.Primitives;
+import trufflesom.vm.ClassPathIndex.ClassFile;
 import trufflesom.vm.constants.Nil;
 import trufflesom.vmobjects.SArray;
 import trufflesom.vmobjects.SClass;
@@ -85,6 +93,12 @@ public final class Universe {
 
   private static String[] classPath;
 
+  /** Built lazily from the {@link #classPath}, and dropped whenever it changes. */
+  private static ClassPathIndex classPathIndex;
+
+  /** Only used with {@link VmSettings#PreParseClassPath}, started with the index. */
+  private static PreParser preParser;
+
   @CompilationFinal private static int printIR;
 
   private static SourcecodeCompiler sourceCompiler;
@@ -196,6 +210,8 @@ public final class Universe {
       }
       remainingArgs.set(0, split[1]);
     }
+    classPathIndex = null;
+    preParser = null;
 
     return remainingArgs.toArray(new String[remainingArgs.size()]);
   }
@@ -234,6 +250,48 @@ public final class Universe {
     for (int i = 0; tokenizer.hasMoreTokens(); i++) {
       classPath[i] = tokenizer.nextToken();
     }
+    classPathIndex = null;
+    preParser = null;
+  }
+
+  @TruffleBoundary
+  private static ClassPathIndex getClassPathIndex() {
+    if (classPathIndex == null) {
+      classPathIndex = new ClassPathIndex(classPath);
+      if (VmSettings.Verbose) {
+        classPathIndex.printBuildTime();
+      }
+      if (VmSettings.PreParseClassPath) {
+        preParser = new PreParser(classPathIndex.getClassFiles());
+      }
+    }
+    return classPathIndex;
+  }
+
+  /**
+   * Save the classes loaded so far into the image given by {@link VmSettings#SaveImage}.
+   */
+  @TruffleBoundary
+  public static void saveImage() {
+    try {
+      int numClasses =
+          sourceCompiler.saveImage(new File(VmSettings.SaveImage), classPath);
+      if (VmSettings.Verbose) {
+        errorPrintln("[image] Saved " + numClasses + " classes to " + VmSettings.SaveImage);
+      }
+    } catch (IOException e) {
+      errorPrintln("Could not save image: " + e.getMessage());
+    }
+  }
+
+  @TruffleBoundary
+  public static void printClassPathStatistics() {
+    if (classPathIndex != null) {
+      classPathIndex.printStatistics();
+    }
+    if (preParser != null) {
+      preParser.printStatistics();
+    }
   }
 
   @TruffleBoundary
@@ -339,6 +397,10 @@ public final class Universe {
 
     initializeSystemClass(trueClass, booleanClass, "True");
     initializeSystemClass(falseClass, booleanClass, "False");
+    initializeSystemClass(stringBuilderClass, objectClass, "StringBuilder");
+    initializeSystemClass(hashMapClass, objectClass, "HashMap");
+    initializeSystemClass(identityHashMapClass, objectClass, "IdentityHashMap");
+    initializeSystemClass(growableArrayClass, objectClass, "GrowableArray");
 
     // Load methods and fields into the system classes
     loadSystemClass(objectClass);
@@ -356,12 +418,22 @@ public final class Universe {
     loadSystemClass(trueClass);
     loadSystemClass(falseClass);
 
+    // StringBuilder has no source file, its methods are all primitives
+    Primitives.Current.installPrimitives(stringBuilderClass,
+        SomLanguage.getSyntheticSource("", "StringBuilder"));
+    Primitives.Current.installPrimitives(hashMapClass,
+        SomLanguage.getSyntheticSource("", "HashMap"));
+    Primitives.Current.installPrimitives(identityHashMapClass,
+        SomLanguage.getSyntheticSource("", "IdentityHashMap"));
+    Primitives.Current.installPrimitives(growableArrayClass,
+        SomLanguage.getSyntheticSource("", "GrowableArray"));
+
     // Load the generic block class
     blockClasses[0] = loadClass(symbolFor("Block"));
 
     // Load the system class and create an instance of it
     systemClass = loadClass(symbolFor("System"));
-    systemObject = new SObject(systemClass);
+    systemObject = SObject.create(systemClass);
 
     // Put special objects into the dictionary of globals
     setGlobal("nil", nilObject);
@@ -484,27 +556,43 @@ public final class Universe {
       return null;
     }
 
-    // Try loading the class from all different paths
-    for (String cpEntry : classPath) {
-      try {
-        // Load the class from a file and return the loaded class
-        SClass result = sourceCompiler.compileClass(
-            cpEntry, name.getString(), sysClass, structuralProbe);
-        if (printIR > 0) {
-          Disassembler.dump(result.getSOMClass());
-          Disassembler.dump(result);
-        }
-        return result;
+    // classes in the image are restored without looking at the class path
+    SClass result =
+        sourceCompiler.restoreClass(name.getString(), classPath, sysClass, structuralProbe);
+    if (result == null) {
+      result = compileClass(name, sysClass);
+    }
 
-      } catch (IOException e) {
-        // Continue trying different paths
-      } catch (ProgramDefinitionError e) {
-        Universe.errorExit(e.toString());
-      }
+    if (result != null && printIR > 0) {
+      Disassembler.dump(result.getSOMClass());
+      Disassembler.dump(result);
+    }
+    return result;
+  }
+
+  private static SClass compileClass(final SSymbol name, final SClass sysClass) {
+    ClassFile classFile = getClassPathIndex().lookup(name.getString());
+    if (classFile == null) {
+      // The class could not be found.
+      return null;
     }
 
-    // The class could not be found.
-    return null;
+    try {
+      // Load the class from a file and return the loaded class
+      PreParsed preParsed = preParser == null ? null : preParser.take(name.getString());
+      if (preParsed != null) {
+        return sourceCompiler.compileClass(preParsed.getSource(), preParsed.lexer,
+            name.getString(), sysClass, structuralProbe);
+      }
+      return sourceCompiler.compileClass(classFile.getSource(), name.getString(), sysClass,
+          structuralProbe);
+    } catch (IOException e) {
+      // The file disappeared after the class path was indexed.
+      return null;
+    } catch (ProgramDefinitionError e) {
+      Universe.errorExit(e.toString());
+      return null;
+    }
   }
 
   @TruffleBoundary
@@ -6,9 +6,26 @@ public class VmSettings {
   public static final boolean UseBcInterp;
   public static final boolean UseJitCompiler;
   public static final boolean PrintStackTraceOnDNU;
+  public static final boolean PrintMethodCacheStats;
+  public static final boolean SendSiteStats;
+  public static final boolean ProfileBytecodes;
+  public static final boolean UseSuperinstructions;
+  public static final boolean UseLargeObjectLayout;
+  public static final boolean Verbose;
+  public static final boolean PreParseClassPath;
+  public static final boolean UseCharArrayLexer;
 
   public static final boolean UseInstrumentation;
 
+  /** Directory for the on-disk cache of compiled classes, or {@code null} when disabled. */
+  public static final String ParseCacheDir;
+
+  /** Image to save the loaded classes into at exit, or {@code null}. */
+  public static final String SaveImage;
+
+  /** Image with classes to restore instead of loading them, or {@code null}. */
+  public static final String LoadImage;
+
   static {
     String val = System.getProperty("som.interp", "AST").toUpperCase();
     UseAstInterp = "AST".equals(val);
@@ -28,5 +45,34 @@ public class VmSettings {
 
     val = System.getProperty("som.printStackTraceOnDNU", "false");
     PrintStackTraceOnDNU = "true".equals(val);
+
+    val = System.getProperty("som.methodCacheStats", "false");
+    PrintMethodCacheStats = "true".equals(val);
+
+    val = System.getProperty("som.sendSiteStats", "false");
+    SendSiteStats = "true".equals(val);
+
+    val = System.getProperty("som.bcProfile", "false");
+    ProfileBytecodes = "true".equals(val);
+
+    // superinstructions mostly reduce dispatch overhead in the interpreter
+    val = System.getProperty("som.superinstructions", UseJitCompiler ? "false" : "true");
+    UseSuperinstructions = "true".equals(val);
+
+    val = System.getProperty("som.largeObjectLayout", "false");
+    UseLargeObjectLayout = "true".equals(val);
+
+    val = System.getProperty("som.verbose", "false");
+    Verbose = "true".equals(val);
+
+    val = System.getProperty("som.preParse", "false");
+    PreParseClassPath = "true".equals(val);
+
+    val = System.getProperty("som.charArrayLexer", "false");
+    UseCharArrayLexer = "true".equals(val);
+
+    ParseCacheDir = System.getProperty("som.parseCache");
+    SaveImage = System.getProperty("som.saveImage");
+    LoadImage = System.getProperty("som.loadImage");
   }
 }
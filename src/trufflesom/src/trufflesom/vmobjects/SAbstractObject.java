@@ -16,8 +16,36 @@ import trufflesom.interpreter.Types;
 @ExportLibrary(InteropLibrary.class)
 public abstract class SAbstractObject implements TruffleObject {
 
+  /**
+   * The last identity hash handed out by {@link #nextHash()}.
+   *
+   * <p>
+   * The counter is neither volatile nor synchronized. This relies on SOM code running on a
+   * single thread: {@link trufflesom.interpreter.SomLanguage} does not allow multi-threaded
+   * contexts, and the pre-parser threads never hash objects. Hashes are only handed out
+   * lazily, from {@code getHash()}. Should that ever change, two objects could end up with
+   * the same hash, which is still correct, but hurts hash distribution.
+   */
+  private static int lastHash;
+
   public abstract SClass getSOMClass();
 
+  /**
+   * Identity hashes are numbered in the order objects are first hashed. Unlike the JVM's
+   * identity hash, this does not need to inflate the object header, and can be compiled to a
+   * field access.
+   *
+   * @return a positive hash, which is never 0
+   */
+  protected static int nextHash() {
+    int hash = lastHash + 1;
+    if (hash <= 0) {
+      hash = 1;
+    }
+    lastHash = hash;
+    return hash;
+  }
+
   @Override
   public String toString() {
     CompilerAsserts.neverPartOfCompilation();
@@ -52,6 +80,13 @@ public abstract class SAbstractObject implements TruffleObject {
     return send("escapedBlock:", arguments);
   }
 
+  @TruffleBoundary
+  @InliningCutoff
+  public static final Object sendError(final Object receiver, final String message) {
+    Object[] arguments = {receiver, message};
+    return send("error:", arguments);
+  }
+
   @SuppressWarnings("static-method")
   @ExportMessage
   public final boolean isNull() {
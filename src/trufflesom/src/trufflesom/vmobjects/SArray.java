@@ -13,6 +13,11 @@ import trufflesom.vm.constants.Nil;
  * The storage identifies the strategy behavior, which
  * is implemented directly in the AST nodes.
  *
+ * <p>
+ * Integers are stored in a {@code byte[]} if they are all in the range 0..255, and in a
+ * {@code char[]} if they are all in the range 0..65535. Writing a value outside of the range
+ * generalizes the storage to {@code long[]}, or {@code Object[]}.
+ *
  * @author smarr
  */
 public final class SArray extends SAbstractObject {
@@ -27,6 +32,14 @@ public final class SArray extends SAbstractObject {
     return new SArray(values);
   }
 
+  public static SArray create(final byte[] values) {
+    return new SArray(values);
+  }
+
+  public static SArray create(final char[] values) {
+    return new SArray(values);
+  }
+
   public static SArray create(final double[] values) {
     return new SArray(values);
   }
@@ -41,6 +54,16 @@ public final class SArray extends SAbstractObject {
 
   private Object storage;
 
+  /** The identity hash, or 0 if the array was not hashed yet. */
+  private int hash;
+
+  public int getHash() {
+    if (hash == 0) {
+      hash = nextHash();
+    }
+    return hash;
+  }
+
   public int getEmptyStorage() {
     assert isEmptyType();
     return (int) storage;
@@ -61,6 +84,16 @@ public final class SArray extends SAbstractObject {
     return (long[]) storage;
   }
 
+  public byte[] getByteStorage() {
+    assert isByteType();
+    return (byte[]) storage;
+  }
+
+  public char[] getCharStorage() {
+    assert isCharType();
+    return (char[]) storage;
+  }
+
   public double[] getDoubleStorage() {
     assert isDoubleType();
     return (double[]) storage;
@@ -87,6 +120,14 @@ public final class SArray extends SAbstractObject {
     return storage.getClass() == long[].class;
   }
 
+  public boolean isByteType() {
+    return storage.getClass() == byte[].class;
+  }
+
+  public boolean isCharType() {
+    return storage.getClass() == char[].class;
+  }
+
   public boolean isDoubleType() {
     return storage.getClass() == double[].class;
   }
@@ -151,6 +192,24 @@ public final class SArray extends SAbstractObject {
     storage = arr;
   }
 
+  public void transitionToByteWithAll(final long length, final long val) {
+    assert isByteValue(val);
+    byte[] arr = new byte[(int) length];
+    if (val != 0) {
+      Arrays.fill(arr, (byte) val);
+    }
+    storage = arr;
+  }
+
+  public void transitionToCharWithAll(final long length, final long val) {
+    assert isCharValue(val);
+    char[] arr = new char[(int) length];
+    if (val != 0) {
+      Arrays.fill(arr, (char) val);
+    }
+    storage = arr;
+  }
+
   public void transitionToDoubleWithAll(final long length, final double val) {
     double[] arr = new double[(int) length];
     Arrays.fill(arr, val);
@@ -165,10 +224,70 @@ public final class SArray extends SAbstractObject {
     storage = arr;
   }
 
-  private static long[] createLong(final Object[] arr) {
+  public static boolean isByteValue(final long value) {
+    return 0 <= value && value <= 255;
+  }
+
+  public static boolean isCharValue(final long value) {
+    return 0 <= value && value <= Character.MAX_VALUE;
+  }
+
+  /**
+   * Create the most compact storage for the given integers,
+   * a {@code byte[]}, {@code char[]}, or {@code long[]}.
+   */
+  private static Object createInteger(final Object[] arr) {
+    long min = 0;
+    long max = 0;
+    for (Object o : arr) {
+      long v = (long) o;
+      min = Math.min(min, v);
+      max = Math.max(max, v);
+    }
+
+    if (min < 0 || !isCharValue(max)) {
+      long[] storage = new long[arr.length];
+      for (int i = 0; i < arr.length; i++) {
+        storage[i] = (long) arr[i];
+      }
+      return storage;
+    }
+
+    if (isByteValue(max)) {
+      byte[] storage = new byte[arr.length];
+      for (int i = 0; i < arr.length; i++) {
+        storage[i] = (byte) (long) arr[i];
+      }
+      return storage;
+    }
+
+    char[] storage = new char[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = (char) (long) arr[i];
+    }
+    return storage;
+  }
+
+  public static long[] toLong(final byte[] arr) {
     long[] storage = new long[arr.length];
     for (int i = 0; i < arr.length; i++) {
-      storage[i] = (long) arr[i];
+      storage[i] = arr[i] & 0xFF;
+    }
+    return storage;
+  }
+
+  public static long[] toLong(final char[] arr) {
+    long[] storage = new long[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = arr[i];
+    }
+    return storage;
+  }
+
+  public static char[] toChar(final byte[] arr) {
+    char[] storage = new char[arr.length];
+    for (int i = 0; i < arr.length; i++) {
+      storage[i] = (char) (arr[i] & 0xFF);
     }
     return storage;
   }
@@ -199,7 +318,7 @@ public final class SArray extends SAbstractObject {
 
     if (arr.isFull()) {
       if (arr.type == PartiallyEmptyArray.Type.LONG) {
-        storage = createLong(arr.getStorage());
+        storage = createInteger(arr.getStorage());
       } else if (arr.type == PartiallyEmptyArray.Type.DOUBLE) {
         storage = createDouble(arr.getStorage());
       } else if (arr.type == PartiallyEmptyArray.Type.BOOLEAN) {
@@ -236,6 +355,16 @@ public final class SArray extends SAbstractObject {
       type = old.type;
     }
 
+    private PartiallyEmptyArray(final Type type, final Object[] arr) {
+      this.arr = arr;
+      this.type = type;
+      for (Object o : arr) {
+        if (o == Nil.nilObject) {
+          emptyElements++;
+        }
+      }
+    }
+
     public Type getType() {
       return type;
     }
@@ -297,6 +426,49 @@ public final class SArray extends SAbstractObject {
     return new SArray(newArr);
   }
 
+  /**
+   * Copies {@code count} elements, starting at the 0-based index {@code from}, to the start of
+   * a new array with the given length, which uses the same strategy, or, if it is partially
+   * empty, the one it transitions to. Elements after the copied ones are {@code nil} for
+   * object storage, and 0 or {@code false} for primitive storage.
+   */
+  public SArray copyOfRange(final int from, final int count, final int newLength) {
+    assert count <= newLength;
+    if (isEmptyType()) {
+      return new SArray(newLength);
+    } else if (isPartiallyEmptyType()) {
+      PartiallyEmptyArray old = getPartiallyEmptyStorage();
+      Object[] arr = new Object[newLength];
+      System.arraycopy(old.getStorage(), from, arr, 0, count);
+      Arrays.fill(arr, count, newLength, Nil.nilObject);
+
+      SArray result = new SArray(new PartiallyEmptyArray(old.getType(), arr));
+      result.ifFullOrObjectTransitionPartiallyEmpty();
+      return result;
+    } else if (isObjectType()) {
+      Object[] arr = new Object[newLength];
+      System.arraycopy(getObjectStorage(), from, arr, 0, count);
+      Arrays.fill(arr, count, newLength, Nil.nilObject);
+      return new SArray(arr);
+    }
+
+    Object arr;
+    if (isLongType()) {
+      arr = new long[newLength];
+    } else if (isByteType()) {
+      arr = new byte[newLength];
+    } else if (isCharType()) {
+      arr = new char[newLength];
+    } else if (isDoubleType()) {
+      arr = new double[newLength];
+    } else {
+      assert isBooleanType();
+      arr = new boolean[newLength];
+    }
+    System.arraycopy(storage, from, arr, 0, count);
+    return new SArray(arr);
+  }
+
   @Override
   public SClass getSOMClass() {
     return Classes.arrayClass;
@@ -39,6 +39,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.source.SourceSection;
 
 import trufflesom.compiler.Field;
+import trufflesom.interpreter.nodes.dispatch.MegamorphicMethodCache;
 import trufflesom.interpreter.objectstorage.ObjectLayout;
 import trufflesom.vm.Classes;
 import trufflesom.vm.constants.Nil;
@@ -66,6 +67,7 @@ public final class SClass extends SObject {
   }
 
   public void resetSystemClass() {
+    MegamorphicMethodCache.invalidate();
     invokablesTable = null;
     superclass = Nil.nilObject;
     layoutForInstances = new ObjectLayout(0, this);
@@ -74,6 +76,7 @@ public final class SClass extends SObject {
   }
 
   public void resetMetaclassClass() {
+    MegamorphicMethodCache.invalidate();
     invokablesTable = null;
     superclass = Nil.nilObject;
     layoutForInstances = new ObjectLayout(0, this);
@@ -87,6 +90,7 @@ public final class SClass extends SObject {
 
   public void setSuperClass(final SClass value) {
     transferToInterpreterAndInvalidate();
+    MegamorphicMethodCache.invalidate();
     superclass = value;
   }
 
@@ -162,6 +166,7 @@ public final class SClass extends SObject {
     this.hasPrimitives = hasPrimitives;
 
     transferToInterpreterAndInvalidate();
+    MegamorphicMethodCache.invalidate();
     if (value == null || value.isEmpty()) {
       assert invokablesTable == null;
       return;
@@ -236,6 +241,7 @@ public final class SClass extends SObject {
 
     value.setHolder(this);
     invokablesTable.put(value.getSignature(), value);
+    MegamorphicMethodCache.invalidate();
   }
 
   public SSymbol getInstanceFieldName(final int index) {
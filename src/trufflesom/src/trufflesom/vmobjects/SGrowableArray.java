@@ -0,0 +1,126 @@
+package trufflesom.vmobjects;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import trufflesom.vm.Classes;
+
+
+/**
+ * A growable array for the GrowableArray class, which is provided by the VM and does not have
+ * a source file.
+ *
+ * <p>
+ * The elements are stored in an {@link SArray}, which the primitives access with the
+ * {@code at:} and {@code at:put:} nodes of Array, so that a GrowableArray uses the same
+ * storage strategies as an Array. The elements are kept at the 1-based indexes
+ * {@code first + 1} to {@code first + size} of the storage, so that removing the first
+ * element does not need to move the others. When the end of the storage is reached, the
+ * elements are copied to the front of a new storage of the same capacity, or, if more than
+ * half of the storage is used, of twice the capacity.
+ */
+public final class SGrowableArray extends SAbstractObject {
+  public static final int DEFAULT_CAPACITY = 16;
+
+  private SArray storage;
+
+  private int capacity;
+  private int first;
+  private int size;
+
+  public SGrowableArray(final int capacity) {
+    this.capacity = Math.max(capacity, 1);
+    storage = new SArray(this.capacity);
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.growableArrayClass;
+  }
+
+  public SArray getStorage() {
+    return storage;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public boolean isValidIndex(final long index) {
+    return 1 <= index && index <= size;
+  }
+
+  /**
+   * @param index a valid 1-based SOM index
+   * @return the 1-based index of the element in the storage
+   */
+  public long storageIndex(final long index) {
+    assert isValidIndex(index);
+    return first + index;
+  }
+
+  /**
+   * Makes room for a new last element, which the caller needs to store afterwards.
+   *
+   * @return the 1-based index of the new element in the storage
+   */
+  public long addIndex() {
+    if (first + size == capacity) {
+      makeRoom();
+    }
+    size += 1;
+    return first + size;
+  }
+
+  @TruffleBoundary
+  private void makeRoom() {
+    if (first <= capacity / 2) {
+      capacity *= 2;
+    }
+    storage = storage.copyOfRange(first, size, capacity);
+    first = 0;
+  }
+
+  /**
+   * Removes the first element, which the caller needs to read from the storage afterwards.
+   *
+   * @return the 1-based index of the removed element in the storage
+   */
+  public long removeFirstIdx() {
+    assert size > 0;
+    long idx = first + 1;
+    size -= 1;
+    first = size == 0 ? 0 : first + 1;
+    return idx;
+  }
+
+  /**
+   * Removes the last element, which the caller needs to read from the storage afterwards.
+   *
+   * @return the 1-based index of the removed element in the storage
+   */
+  public long removeLastIdx() {
+    assert size > 0;
+    long idx = first + size;
+    size -= 1;
+    if (size == 0) {
+      first = 0;
+    }
+    return idx;
+  }
+
+  /** Removes all elements, and goes back to an empty storage. */
+  public void removeAll() {
+    storage = new SArray(capacity);
+    first = 0;
+    size = 0;
+  }
+
+  @TruffleBoundary
+  public SArray asArray() {
+    return storage.copyOfRange(first, size, size);
+  }
+}
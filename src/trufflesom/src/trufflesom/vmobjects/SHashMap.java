@@ -0,0 +1,491 @@
+package trufflesom.vmobjects;
+
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import trufflesom.interpreter.Types;
+import trufflesom.vm.Classes;
+
+
+/**
+ * A hash table for the HashMap and IdentityHashMap classes, which are provided by the VM and
+ * do not have a source file.
+ *
+ * <p>
+ * The table uses open addressing with linear probing. Similar to the storage strategies of
+ * {@link SArray}, the keys are kept in a {@code long[]} as long as all keys are integers, and
+ * in an {@code Object[]} once another key is added. A slot is free if its value is
+ * {@code null}, which is never a SOM value. Removed entries leave a marker behind, until the
+ * table is rehashed.
+ *
+ * <p>
+ * Integers, doubles, symbols, and strings are hashed and compared in Java. A HashMap treats a
+ * string and a symbol with the same characters as the same key, as {@code =} does. For the
+ * same reason, it stores a double with an integer value as an integer, so that {@code 1} and
+ * {@code 1.0} are the same key, and {@code keys} answers {@code 1} for it. Objects and arrays
+ * use their identity hash, unless their class overrides {@code =} or {@code hashcode}, in
+ * which case these methods are sent. An IdentityHashMap compares keys with {@code ==}.
+ */
+public final class SHashMap extends SAbstractObject {
+  public static final int DEFAULT_CAPACITY = 16;
+
+  private static final Object REMOVED = new Object();
+
+  private static final SSymbol symEquals   = symbolFor("=");
+  private static final SSymbol symHashcode = symbolFor("hashcode");
+
+  private final boolean identity;
+
+  /** {@code long[]} while all keys are integers, {@code Object[]} afterwards. */
+  private Object   keys;
+  private Object[] values;
+
+  private int size;
+  private int numRemoved;
+
+  /** The last class found to use the {@code =} and {@code hashcode} of Object. */
+  private SClass identityKeyClass;
+
+  public SHashMap(final boolean identity, final int capacity) {
+    this.identity = identity;
+    int tableSize = 8;
+    while (tableSize < capacity * 2L && tableSize < (1 << 30)) {
+      tableSize *= 2;
+    }
+    keys = new long[tableSize];
+    values = new Object[tableSize];
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return identity ? Classes.identityHashMapClass : Classes.hashMapClass;
+  }
+
+  public boolean isIdentity() {
+    return identity;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** @return the number of slots, for iterating with {@link #getKeyAt} and {@link #getValueAt} */
+  public int getCapacity() {
+    return values.length;
+  }
+
+  /** @return the value at the slot, or {@code null} if the slot is empty */
+  public Object getValueAt(final int idx) {
+    Object value = values[idx];
+    return value == REMOVED ? null : value;
+  }
+
+  public Object getKeyAt(final int idx) {
+    if (keys instanceof long[]) {
+      return ((long[]) keys)[idx];
+    }
+    return ((Object[]) keys)[idx];
+  }
+
+  /**
+   * Ropes are flattened, so that they are hashed and compared as strings, and doubles with an
+   * integer value are converted to integers, because {@code 1 = 1.0} in SOM.
+   */
+  private Object normalize(final Object key) {
+    if (identity) {
+      return key;
+    }
+    if (key instanceof SRope) {
+      return ((SRope) key).getString();
+    }
+    if (key instanceof Double) {
+      double d = (double) key;
+      if (d >= Long.MIN_VALUE && d < 0x1p63 && d == (long) d) {
+        return (long) d;
+      }
+    }
+    return key;
+  }
+
+  private static int spread(final int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int hashLong(final long key) {
+    return spread(Long.hashCode(key));
+  }
+
+  /**
+   * @return the slot of the key, or {@code -1 - slot} for the slot where the key is to be
+   *         added
+   */
+  private int indexOf(final long key) {
+    Object[] vals = values;
+    int mask = vals.length - 1;
+    int idx = hashLong(key) & mask;
+    int firstRemoved = -1;
+
+    if (keys instanceof long[]) {
+      long[] ks = (long[]) keys;
+      Object v;
+      while ((v = vals[idx]) != null) {
+        if (v == REMOVED) {
+          if (firstRemoved == -1) {
+            firstRemoved = idx;
+          }
+        } else if (ks[idx] == key) {
+          return idx;
+        }
+        idx = (idx + 1) & mask;
+      }
+    } else {
+      Object[] ks = (Object[]) keys;
+      Object v;
+      while ((v = vals[idx]) != null) {
+        if (v == REMOVED) {
+          if (firstRemoved == -1) {
+            firstRemoved = idx;
+          }
+        } else if (ks[idx] instanceof Long && (long) ks[idx] == key) {
+          return idx;
+        }
+        idx = (idx + 1) & mask;
+      }
+    }
+    return -1 - (firstRemoved == -1 ? idx : firstRemoved);
+  }
+
+  /** Same as {@link #indexOf(long)}, for keys that are not integers. */
+  private int indexOf(final Object key) {
+    Object[] vals = values;
+    int mask = vals.length - 1;
+    int idx = hashOf(key) & mask;
+    int firstRemoved = -1;
+
+    if (keys instanceof long[]) {
+      // no key can match, find the slot to add the key once the keys are generalized
+      while (vals[idx] != null) {
+        if (vals[idx] == REMOVED && firstRemoved == -1) {
+          firstRemoved = idx;
+        }
+        idx = (idx + 1) & mask;
+      }
+      return -1 - (firstRemoved == -1 ? idx : firstRemoved);
+    }
+
+    Object[] ks = (Object[]) keys;
+    Object v;
+    while ((v = vals[idx]) != null) {
+      if (v == REMOVED) {
+        if (firstRemoved == -1) {
+          firstRemoved = idx;
+        }
+      } else if (ks[idx] == key || keysEqual(ks[idx], key)) {
+        return idx;
+      }
+      idx = (idx + 1) & mask;
+    }
+    return -1 - (firstRemoved == -1 ? idx : firstRemoved);
+  }
+
+  private int hashOf(final Object key) {
+    if (key instanceof Long) {
+      return hashLong((long) key);
+    } else if (key instanceof SSymbol) {
+      return spread(((SSymbol) key).getHash());
+    } else if (key instanceof String) {
+      return spread(identity ? System.identityHashCode(key) : stringHash((String) key));
+    } else if (key instanceof Double) {
+      return spread(Double.hashCode((double) key));
+    } else if (key instanceof SObject) {
+      SObject obj = (SObject) key;
+      if (identity || usesIdentity(obj.getSOMClass())) {
+        return spread(obj.getHash());
+      }
+      return spread(sendHashcode(key));
+    } else if (key instanceof SArray) {
+      SArray arr = (SArray) key;
+      if (identity || usesIdentity(Classes.arrayClass)) {
+        return spread(arr.getHash());
+      }
+      return spread(sendHashcode(key));
+    }
+    return spread(otherHash(key));
+  }
+
+  private boolean keysEqual(final Object stored, final Object key) {
+    if (key instanceof Long) {
+      return stored instanceof Long && (long) stored == (long) key;
+    } else if (key instanceof Double) {
+      return stored instanceof Double && (double) stored == (double) key;
+    } else if (identity) {
+      return false;
+    } else if (key instanceof SSymbol) {
+      return stored instanceof String && stringEquals((String) stored, (SSymbol) key);
+    } else if (key instanceof String) {
+      if (stored instanceof SSymbol) {
+        return stringEquals((String) key, (SSymbol) stored);
+      }
+      return stored instanceof String && stringEquals((String) stored, (String) key);
+    } else if (key instanceof SObject) {
+      return !usesIdentity(((SObject) key).getSOMClass()) && sendEquals(key, stored);
+    } else if (key instanceof SArray) {
+      return !usesIdentity(Classes.arrayClass) && sendEquals(key, stored);
+    }
+    return otherEquals(stored, key);
+  }
+
+  @TruffleBoundary
+  private static int stringHash(final String key) {
+    return key.hashCode();
+  }
+
+  @TruffleBoundary
+  private static boolean stringEquals(final String a, final String b) {
+    return a.equals(b);
+  }
+
+  @TruffleBoundary
+  private static boolean stringEquals(final String a, final SSymbol b) {
+    return a.equals(b.getString());
+  }
+
+  @TruffleBoundary
+  private int otherHash(final Object key) {
+    if (identity && !(key instanceof Boolean)) {
+      return System.identityHashCode(key);
+    }
+    return key.hashCode();
+  }
+
+  @TruffleBoundary
+  private static boolean otherEquals(final Object stored, final Object key) {
+    if (key instanceof BigInteger || key instanceof Boolean) {
+      return key.equals(stored);
+    }
+    return false;
+  }
+
+  /**
+   * @return true, if instances of the class use the {@code =} and {@code hashcode} methods
+   *         of Object, which compare identity
+   */
+  private boolean usesIdentity(final SClass clazz) {
+    if (clazz == identityKeyClass) {
+      return true;
+    }
+    if (inheritsFromObject(clazz, symEquals) && inheritsFromObject(clazz, symHashcode)) {
+      identityKeyClass = clazz;
+      return true;
+    }
+    return false;
+  }
+
+  @TruffleBoundary
+  private static boolean inheritsFromObject(final SClass clazz, final SSymbol selector) {
+    return clazz.lookupInvokable(selector) == Classes.objectClass.lookupInvokable(selector);
+  }
+
+  @TruffleBoundary
+  private static int sendHashcode(final Object key) {
+    SInvokable hashcode = Types.getClassOf(key).lookupInvokable(symHashcode);
+    Object result = hashcode.invoke(new Object[] {key});
+    if (result instanceof Long) {
+      return Long.hashCode((long) result);
+    }
+    return result.hashCode();
+  }
+
+  @TruffleBoundary
+  private static boolean sendEquals(final Object key, final Object other) {
+    SInvokable equals = Types.getClassOf(key).lookupInvokable(symEquals);
+    return equals.invoke(new Object[] {key, other}) == Boolean.TRUE;
+  }
+
+  /** @return the value for the key, or {@code null} if there is none */
+  public Object get(final long key) {
+    int idx = indexOf(key);
+    return idx >= 0 ? values[idx] : null;
+  }
+
+  /** @return the value for the key, or {@code null} if there is none */
+  public Object get(final Object key) {
+    Object k = normalize(key);
+    if (k instanceof Long) {
+      return get((long) k);
+    }
+    int idx = indexOf(k);
+    return idx >= 0 ? values[idx] : null;
+  }
+
+  public boolean containsKey(final long key) {
+    return indexOf(key) >= 0;
+  }
+
+  public boolean containsKey(final Object key) {
+    return get(key) != null;
+  }
+
+  public void put(final long key, final Object value) {
+    assert value != null;
+    int idx = indexOf(key);
+    if (idx >= 0) {
+      values[idx] = value;
+      return;
+    }
+
+    idx = -1 - idx;
+    if (keys instanceof long[]) {
+      ((long[]) keys)[idx] = key;
+    } else {
+      ((Object[]) keys)[idx] = key;
+    }
+    added(idx, value);
+  }
+
+  public void put(final Object key, final Object value) {
+    assert value != null;
+    Object k = normalize(key);
+    if (k instanceof Long) {
+      put((long) k, value);
+      return;
+    }
+
+    int idx = indexOf(k);
+    if (idx >= 0) {
+      values[idx] = value;
+      return;
+    }
+
+    idx = -1 - idx;
+    if (keys instanceof long[]) {
+      generalizeKeys();
+    }
+    ((Object[]) keys)[idx] = k;
+    added(idx, value);
+  }
+
+  private void added(final int idx, final Object value) {
+    if (values[idx] == REMOVED) {
+      numRemoved -= 1;
+    }
+    values[idx] = value;
+    size += 1;
+
+    if ((size + numRemoved) * 2 > values.length) {
+      rehash();
+    }
+  }
+
+  /** @return the removed value, or {@code null} if there was none */
+  public Object remove(final Object key) {
+    Object k = normalize(key);
+    int idx = k instanceof Long ? indexOf((long) k) : indexOf(k);
+    if (idx < 0) {
+      return null;
+    }
+
+    Object value = values[idx];
+    values[idx] = REMOVED;
+    if (keys instanceof Object[]) {
+      ((Object[]) keys)[idx] = null;
+    }
+    size -= 1;
+    numRemoved += 1;
+    return value;
+  }
+
+  public void clear() {
+    keys = new long[values.length];
+    Arrays.fill(values, null);
+    size = 0;
+    numRemoved = 0;
+  }
+
+  @TruffleBoundary
+  private void generalizeKeys() {
+    long[] longKeys = (long[]) keys;
+    Object[] objKeys = new Object[longKeys.length];
+    for (int i = 0; i < longKeys.length; i++) {
+      Object v = values[i];
+      if (v != null && v != REMOVED) {
+        objKeys[i] = longKeys[i];
+      }
+    }
+    keys = objKeys;
+  }
+
+  /** Drop the removed entries, and grow the table if more than a quarter is used. */
+  @TruffleBoundary
+  private void rehash() {
+    Object oldKeys = keys;
+    Object[] oldValues = values;
+
+    int tableSize = oldValues.length;
+    if (size * 4 > tableSize) {
+      tableSize *= 2;
+    }
+
+    values = new Object[tableSize];
+    keys = oldKeys instanceof long[] ? new long[tableSize] : new Object[tableSize];
+    size = 0;
+    numRemoved = 0;
+
+    for (int i = 0; i < oldValues.length; i++) {
+      Object v = oldValues[i];
+      if (v != null && v != REMOVED) {
+        if (oldKeys instanceof long[]) {
+          put(((long[]) oldKeys)[i], v);
+        } else {
+          put(((Object[]) oldKeys)[i], v);
+        }
+      }
+    }
+  }
+
+  /** @return the keys, in the order of the table */
+  @TruffleBoundary
+  public SArray getKeys() {
+    if (keys instanceof long[]) {
+      long[] result = new long[size];
+      int i = 0;
+      for (int idx = 0; idx < values.length; idx++) {
+        if (getValueAt(idx) != null) {
+          result[i] = ((long[]) keys)[idx];
+          i += 1;
+        }
+      }
+      return SArray.create(result);
+    }
+
+    Object[] result = new Object[size];
+    int i = 0;
+    for (int idx = 0; idx < values.length; idx++) {
+      if (getValueAt(idx) != null) {
+        result[i] = ((Object[]) keys)[idx];
+        i += 1;
+      }
+    }
+    return SArray.create(result);
+  }
+
+  /** @return the values, in the order of the table */
+  @TruffleBoundary
+  public SArray getValues() {
+    Object[] result = new Object[size];
+    int i = 0;
+    for (int idx = 0; idx < values.length; idx++) {
+      Object v = getValueAt(idx);
+      if (v != null) {
+        result[i] = v;
+        i += 1;
+      }
+    }
+    return SArray.create(result);
+  }
+}
@@ -0,0 +1,55 @@
+package trufflesom.vmobjects;
+
+import trufflesom.interpreter.objectstorage.ObjectLayout;
+import trufflesom.vm.constants.Nil;
+
+
+/**
+ * An object with five more inline slots for primitive and object fields each.
+ *
+ * <p>
+ * With {@code -Dsom.largeObjectLayout=true}, instances of classes with more than
+ * {@link SObject#NUM_OBJECT_FIELDS} fields are created as large objects. Their fields are
+ * then read and written directly, instead of going through the extension arrays, which
+ * needs one more load and a bounds check. Only objects with more than ten fields of one
+ * kind still use the extension arrays.
+ *
+ * <p>
+ * Classes are never large objects. The class-side fields are stored with the layout of the
+ * metaclass, which always uses the standard inline slots, so {@link SClass} does not need
+ * the additional fields.
+ */
+public final class SLargeObject extends SObject {
+
+  public static final int NUM_PRIMITIVE_FIELDS = 10;
+  public static final int NUM_OBJECT_FIELDS    = 10;
+
+  protected long primField6;
+  protected long primField7;
+  protected long primField8;
+  protected long primField9;
+  protected long primField10;
+
+  protected Object field6;
+  protected Object field7;
+  protected Object field8;
+  protected Object field9;
+  protected Object field10;
+
+  public SLargeObject(final SClass instanceClass) {
+    super(instanceClass);
+    field6 = field7 = field8 = field9 = field10 = Nil.nilObject;
+  }
+
+  public SLargeObject(final SClass instanceClass, final ObjectLayout layout) {
+    super(instanceClass, layout);
+    field6 = field7 = field8 = field9 = field10 = Nil.nilObject;
+  }
+
+  @Override
+  protected void resetFields() {
+    super.resetFields();
+    field6 = field7 = field8 = field9 = field10 = null;
+    primField6 = primField7 = primField8 = primField9 = primField10 = Long.MIN_VALUE;
+  }
+}
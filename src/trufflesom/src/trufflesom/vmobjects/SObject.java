@@ -67,6 +67,9 @@ public class SObject extends SAbstractObject {
 
   private int primitiveUsedMap;
 
+  /** The identity hash, or 0 if the object was not hashed yet. */
+  private int hash;
+
   public SObject(final SClass instanceClass) {
     clazz = instanceClass;
     setLayoutInitially(instanceClass.getLayoutForInstances());
@@ -82,7 +85,16 @@ public class SObject extends SAbstractObject {
     setLayoutInitially(new ObjectLayout(numFields, null));
   }
 
+  public final int getHash() {
+    if (hash == 0) {
+      hash = nextHash();
+    }
+    return hash;
+  }
+
   private void setLayoutInitially(final ObjectLayout layout) {
+    assert !layout.isForLargeObjects()
+        || this instanceof SLargeObject : "Large layouts need an SLargeObject";
     field1 = field2 = field3 = field4 = field5 = Nil.nilObject;
 
     objectLayout = layout;
@@ -152,10 +164,14 @@ public class SObject extends SAbstractObject {
     return fieldValues;
   }
 
-  @ExplodeLoop
-  private void setAllFields(final Object[] fieldValues) {
+  protected void resetFields() {
     field1 = field2 = field3 = field4 = field5 = null;
     primField1 = primField2 = primField3 = primField4 = primField5 = Long.MIN_VALUE;
+  }
+
+  @ExplodeLoop
+  private void setAllFields(final Object[] fieldValues) {
+    resetFields();
 
     assert fieldValues.length == objectLayout.getNumberOfFields();
 
@@ -232,6 +248,20 @@ public class SObject extends SAbstractObject {
     return new SObject(numFields);
   }
 
+  public static SObject create(final SClass instanceClass) {
+    if (instanceClass.getLayoutForInstances().isForLargeObjects()) {
+      return new SLargeObject(instanceClass);
+    }
+    return new SObject(instanceClass);
+  }
+
+  public static SObject create(final SClass instanceClass, final ObjectLayout layout) {
+    if (layout.isForLargeObjects()) {
+      return new SLargeObject(instanceClass, layout);
+    }
+    return new SObject(instanceClass, layout);
+  }
+
   public static int getPrimitiveFieldMask(final int fieldIndex) {
     assert 0 <= fieldIndex && fieldIndex < 32; // this limits the number of object fields for
                                                // the moment...
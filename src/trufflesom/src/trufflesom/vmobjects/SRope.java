@@ -0,0 +1,200 @@
+package trufflesom.vmobjects;
+
+import java.util.ArrayDeque;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+import trufflesom.vm.Classes;
+
+
+/**
+ * A SOM string that is not yet a {@link String}. It is either the concatenation of two
+ * strings, or a slice of a string. Thus, {@code concatenate:} and {@code primSubstringFrom:to:}
+ * do not need to copy the characters.
+ *
+ * <p>
+ * The rope is flattened into a {@link String} only when contiguous characters are needed, for
+ * instance for {@code =} or {@code hashcode}. Primitives that expect a {@link String} get the
+ * flattened string by the implicit cast in {@link trufflesom.interpreter.Types}. Strings
+ * shorter than {@link #MIN_LENGTH} are always copied, because a rope would not save much.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class SRope extends SAbstractObject {
+  public static final int MIN_LENGTH = 64;
+
+  private final int length;
+
+  /** A {@link String} or {@link SRope}, or {@code null} for a slice or once flattened. */
+  private Object left;
+  private Object right;
+
+  /** The string a slice is taken from, {@code null} for a concatenation or once flattened. */
+  private String base;
+  private int    offset;
+
+  private String flat;
+
+  private SRope(final Object left, final Object right, final int length) {
+    this.left = left;
+    this.right = right;
+    this.length = length;
+  }
+
+  private SRope(final String base, final int offset, final int length) {
+    this.base = base;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.stringClass;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  private static int length(final Object str) {
+    if (str instanceof SRope) {
+      return ((SRope) str).length;
+    }
+    return ((String) str).length();
+  }
+
+  /**
+   * @param str a {@link String} or {@link SRope}
+   */
+  public static String flatten(final Object str) {
+    if (str instanceof SRope) {
+      return ((SRope) str).getString();
+    }
+    return (String) str;
+  }
+
+  /**
+   * @param left a {@link String} or {@link SRope}
+   * @param right a {@link String} or {@link SRope}
+   * @return a {@link String} or {@link SRope}
+   */
+  public static Object concat(final Object left, final Object right) {
+    int length = length(left) + length(right);
+    if (length < MIN_LENGTH) {
+      return concatStrings(flatten(left), flatten(right));
+    }
+    return new SRope(left, right, length);
+  }
+
+  @TruffleBoundary
+  private static String concatStrings(final String left, final String right) {
+    return left.concat(right);
+  }
+
+  /**
+   * @param str a {@link String} or {@link SRope}
+   * @param start the 0-based index of the first character
+   * @param end the 0-based index after the last character
+   * @return a {@link String} or {@link SRope}
+   * @throws StringIndexOutOfBoundsException if the indexes are out of bounds, as for
+   *           {@link String#substring(int, int)}
+   */
+  public static Object substring(final Object str, final int start, final int end) {
+    int strLength = length(str);
+    if (start < 0 || end > strLength || start > end) {
+      throw new StringIndexOutOfBoundsException(
+          "begin " + start + ", end " + end + ", length " + strLength);
+    }
+
+    if (end - start < MIN_LENGTH) {
+      if (str instanceof SRope && ((SRope) str).base != null) {
+        SRope slice = (SRope) str;
+        return substringOf(slice.base, slice.offset + start, slice.offset + end);
+      }
+      return substringOf(flatten(str), start, end);
+    }
+
+    if (str instanceof SRope && ((SRope) str).base != null) {
+      SRope slice = (SRope) str;
+      return new SRope(slice.base, slice.offset + start, end - start);
+    }
+    return new SRope(flatten(str), start, end - start);
+  }
+
+  @TruffleBoundary
+  private static String substringOf(final String str, final int start, final int end) {
+    return str.substring(start, end);
+  }
+
+  /**
+   * A slice is read without being flattened, a concatenation is flattened first.
+   *
+   * @param idx the 0-based index, which the caller checks against the length
+   */
+  public char charAt(final int idx) {
+    if (base != null) {
+      return base.charAt(offset + idx);
+    }
+    return getString().charAt(idx);
+  }
+
+  /** Flattens the rope, which is then kept as a {@link String}. */
+  @TruffleBoundary
+  public String getString() {
+    if (flat != null) {
+      return flat;
+    }
+
+    if (base != null) {
+      flat = base.substring(offset, offset + length);
+      base = null;
+      return flat;
+    }
+
+    // ropes built by appending are deep, so do not recurse
+    StringBuilder sb = new StringBuilder(length);
+    ArrayDeque<Object> parts = new ArrayDeque<>();
+    parts.push(right);
+    parts.push(left);
+    while (!parts.isEmpty()) {
+      Object part = parts.pop();
+      if (part instanceof String) {
+        sb.append((String) part);
+      } else {
+        SRope rope = (SRope) part;
+        if (rope.flat != null) {
+          sb.append(rope.flat);
+        } else if (rope.base != null) {
+          sb.append(rope.base, rope.offset, rope.offset + rope.length);
+        } else {
+          parts.push(rope.right);
+          parts.push(rope.left);
+        }
+      }
+    }
+
+    flat = sb.toString();
+    left = null;
+    right = null;
+    return flat;
+  }
+
+  @Override
+  public String toString() {
+    CompilerAsserts.neverPartOfCompilation();
+    return getString();
+  }
+
+  @ExportMessage
+  public boolean isString() {
+    return true;
+  }
+
+  @ExportMessage
+  public String asString() {
+    return getString();
+  }
+}
@@ -0,0 +1,82 @@
+package trufflesom.vmobjects;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import trufflesom.vm.Classes;
+
+
+/**
+ * A mutable string, to build up strings in a loop without creating a new string for
+ * every concatenation.
+ *
+ * <p>
+ * The characters are kept in a {@code char[]}, which grows by doubling its size.
+ * The StringBuilder class is provided by the VM and does not have a source file.
+ */
+public final class SStringBuilder extends SAbstractObject {
+  public static final int DEFAULT_CAPACITY = 16;
+
+  private char[] chars;
+  private int    size;
+
+  public SStringBuilder(final int capacity) {
+    chars = new char[Math.max(capacity, 1)];
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public void reset() {
+    size = 0;
+  }
+
+  private void ensureCapacity(final int additional) {
+    int required = size + additional;
+    if (required > chars.length) {
+      grow(required);
+    }
+  }
+
+  @TruffleBoundary
+  private void grow(final int required) {
+    chars = Arrays.copyOf(chars, Math.max(required, chars.length * 2));
+  }
+
+  @TruffleBoundary
+  public void append(final String str) {
+    int length = str.length();
+    ensureCapacity(length);
+    str.getChars(0, length, chars, size);
+    size += length;
+  }
+
+  public void append(final SStringBuilder other) {
+    int length = other.size;
+    ensureCapacity(length);
+    System.arraycopy(other.chars, 0, chars, size, length);
+    size += length;
+  }
+
+  @TruffleBoundary
+  public void append(final long value) {
+    append(Long.toString(value));
+  }
+
+  @TruffleBoundary
+  public void append(final double value) {
+    append(Double.toString(value));
+  }
+
+  @TruffleBoundary
+  public String asString() {
+    return new String(chars, 0, size);
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.stringBuilderClass;
+  }
+}
@@ -30,11 +30,13 @@ import trufflesom.vm.Classes;
 public final class SSymbol extends SAbstractObject {
   private final String string;
   private final int    numberOfSignatureArguments;
+  private final int    hash;
 
   public SSymbol(final String value) {
     super();
     string = value;
     numberOfSignatureArguments = determineNumberOfSignatureArguments();
+    hash = value.hashCode();
   }
 
   @Override
@@ -67,6 +69,20 @@ public final class SSymbol extends SAbstractObject {
     }
   }
 
+  /** @return the same hash as the string of the symbol */
+  public int getHash() {
+    return hash;
+  }
+
+  /**
+   * Symbols are unique, so that they can use the hash of their string instead of the identity
+   * hash, for instance as keys of the method tables of classes.
+   */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   @Override
   public String toString() {
     return "#" + string;
@@ -0,0 +1,110 @@
+package trufflesom.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import trufflesom.vm.SymbolTable;
+import trufflesom.vmobjects.SSymbol;
+
+
+public class CharArrayLexerTests {
+
+  private static final String[] CODES = {
+      "Foo = Bar (\n"
+          + "  | a b |\n"
+          + "  method: arg = ( | l | l := arg + 1. ^ #(1 2.5 #sym 'str''s') )\n"
+          + "  ----\n"
+          + "  + other = ( \"comment\" ^ [:x | x <= other ] value: -1 )\n"
+          + ")",
+      "at: i put: v = ( ^ self at: i put: v ) #at:put: a:b",
+      "x = primitive y = ( ^ primitiveFoo ) ------ ----x",
+      "'esc\\t\\n\\'\\\\\\x' 'a''b' '' 'unicode ä'",
+      "1.5.3 1. 2 10.x 3.14e",
+      "~ & | * / \\ + = > < , @ % - >= ~= -> ==> a-b",
+      "foo_bar1 Foo2: x \"a \"\" b\" $ rest",
+      "  \n\t \"only a comment\"  ",
+      ""};
+
+  private static void assertSameTokens(final String code) {
+    Lexer expected = new Lexer(code);
+    Lexer actual = CharArrayLexer.lex(code);
+
+    Symbol sym;
+    int i = 0;
+    do {
+      sym = expected.getSym();
+      String msg = code + ": token " + i + " " + sym;
+      assertEquals(msg, sym, actual.getSym());
+      assertEquals(msg, expected.getText(), actual.getText());
+      assertEquals(msg, expected.getNumberOfCharactersRead(),
+          actual.getNumberOfCharactersRead());
+      assertEquals(msg, expected.getNumberOfNonWhiteCharsRead(),
+          actual.getNumberOfNonWhiteCharsRead());
+      i += 1;
+    } while (sym != Symbol.NONE);
+  }
+
+  @Test
+  public void testSameTokensAsLexer() {
+    for (String code : CODES) {
+      assertSameTokens(code);
+    }
+  }
+
+  @Test
+  public void testUnterminatedString() {
+    // the Lexer does not terminate for this input
+    Lexer lexer = CharArrayLexer.lex("x := 'unterminated");
+    assertEquals(Symbol.Identifier, lexer.getSym());
+    assertEquals(Symbol.Assign, lexer.getSym());
+    assertEquals(Symbol.STString, lexer.getSym());
+    assertEquals("unterminated", lexer.getText());
+    assertEquals(Symbol.NONE, lexer.getSym());
+  }
+
+  @Test
+  public void testNamesAreCreatedWhenNeeded() throws ReflectiveOperationException {
+    String code = CODES[0] + CODES[1];
+    Lexer lexer = CharArrayLexer.lex(code);
+
+    Field field = ReplayLexer.class.getDeclaredField("texts");
+    field.setAccessible(true);
+    String[] texts = (String[]) field.get(lexer);
+
+    Lexer expected = new Lexer(code);
+    Symbol sym;
+    int i = 0;
+    while ((sym = lexer.getSym()) != Symbol.NONE) {
+      expected.getSym();
+      if (sym == Symbol.Identifier || sym == Symbol.Keyword
+          || sym == Symbol.KeywordSequence || sym == Symbol.OperatorSequence
+          || sym == Symbol.Integer) {
+        assertNull(texts[i]);
+        assertEquals(expected.getText(), lexer.getText());
+        assertSame(lexer.getText(), texts[i]);
+      }
+      i += 1;
+    }
+  }
+
+  @Test
+  public void testNamesOfExistingSymbolsAreReused() {
+    SSymbol existing = symbolFor("testNamesOfExistingSymbolsAreReused:");
+    Lexer lexer = CharArrayLexer.lex("x testNamesOfExistingSymbolsAreReused: notASymbolYet");
+
+    assertEquals(Symbol.Identifier, lexer.getSym());
+    assertEquals(Symbol.Keyword, lexer.getSym());
+    assertSame(existing.getString(), lexer.getText());
+
+    assertEquals(Symbol.Identifier, lexer.getSym());
+    assertEquals("notASymbolYet", lexer.getText());
+    assertNull(SymbolTable.existingSymbolFor("notASymbolYet".toCharArray(), 0, 13,
+        "notASymbolYet".hashCode()));
+  }
+}
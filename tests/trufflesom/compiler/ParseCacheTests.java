@@ -0,0 +1,323 @@
+package trufflesom.compiler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.oracle.truffle.api.source.Source;
+
+import trufflesom.bdt.basic.ProgramDefinitionError;
+import trufflesom.interpreter.LexicalScope;
+import trufflesom.interpreter.Method;
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.interpreter.nodes.ExpressionNode;
+import trufflesom.interpreter.nodes.bc.BytecodeLoopNode;
+import trufflesom.interpreter.nodes.bc.BytecodeLoopNode.BackJump;
+import trufflesom.primitives.Primitives;
+import trufflesom.tests.TruffleTestSetup;
+import trufflesom.vm.Classes;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SInvokable.SMethod;
+import trufflesom.vmobjects.SObject;
+
+
+public class ParseCacheTests extends TruffleTestSetup {
+
+  private static final String CODE = "Foo = nil (\n"
+      + "  | a b |\n"
+      + "  a = ( ^ a )\n"
+      + "  b: val = ( b := val )\n"
+      + "  one = ( ^ 1 )\n"
+      + "  none = ( ^ nil )\n"
+      + "  global = ( ^ Foo )\n"
+      + "  big = ( ^ 123456789012345678901234567890 )\n"
+      + "  method: arg = ( | l | l := arg + 1. ^ #(1 2.5 #sym 'str''s') )\n"
+      + "  blocks: arg = ( ^ [:x | [:y | x + y + arg ] ] )\n"
+      + "  nlr: arg = ( arg ifTrue: [ [ ^ 1 ] value ]. ^ 0 )\n"
+      + "  loop = ( | i | i := 0. [ i < 10 ] whileTrue: [ i := i + 1 ]. ^ i )\n"
+      + "  prim = primitive\n"
+      + "  ----\n"
+      + "  | c |\n"
+      + "  + other = ( \"comment\" ^ [:x | x <= other ] value: -1 )\n"
+      + "  c = ( ^ [ c ] )\n"
+      + ")";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** Test contexts do not load the core library, so there is no class for blocks. */
+  private static boolean installedBlockClass;
+
+  @BeforeClass
+  public static void init() {
+    reinitTruffleAndEnterContext();
+
+    if (Classes.blockClasses[1] == null) {
+      SClass blockClass = Classes.newSystemClass();
+      blockClass.setName(symbolFor("Block1"));
+      blockClass.getSOMClass().setName(symbolFor("Block1 class"));
+      Primitives.Current.installPrimitives(blockClass,
+          SomLanguage.getSyntheticSource("", "Block1"));
+
+      Classes.blockClasses[1] = blockClass;
+      installedBlockClass = true;
+    }
+  }
+
+  @AfterClass
+  public static void close() {
+    if (installedBlockClass) {
+      Classes.blockClasses[1] = null;
+      installedBlockClass = false;
+    }
+    closeContext();
+  }
+
+  private static Source createSource(final String code, final String name) {
+    return SomLanguage.getSyntheticSource(code, name);
+  }
+
+  private static ClassGenerationContext parse(final Source source) {
+    ParserBc parser = new ParserBc(source.getCharacters().toString(), source, null);
+    ClassGenerationContext cgc = new ClassGenerationContext(source, null);
+    try {
+      parser.classdef(cgc);
+    } catch (ProgramDefinitionError e) {
+      throw new RuntimeException(e);
+    }
+    return cgc;
+  }
+
+  private static ClassGenerationContext parseAndStore(final ParseCache cache,
+      final Source source) {
+    ClassGenerationContext cgc = parse(source);
+    cache.store(cgc.getName().getString(), source, source.getCharacters().toString(), cgc);
+    return cgc;
+  }
+
+  private static void assertSameStructure(final ClassGenerationContext expected,
+      final ClassGenerationContext actual) {
+    assertSame(expected.getName(), actual.getName());
+    assertEquals(expected.getSourceCoord(), actual.getSourceCoord());
+    assertSameFields(expected.getInstanceFields(), actual.getInstanceFields());
+    assertSameFields(expected.getClassFields(), actual.getClassFields());
+    assertSameMethods(expected.getInstanceMethods(), actual.getInstanceMethods());
+    assertSameMethods(expected.getClassMethods(), actual.getClassMethods());
+  }
+
+  private static void assertSameFields(final List<Field> expected, final List<Field> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame(expected.get(i).getName(), actual.get(i).getName());
+      assertEquals(expected.get(i).getSourceCoordinate(),
+          actual.get(i).getSourceCoordinate());
+    }
+  }
+
+  private static void assertSameMethods(final Iterable<SInvokable> expected,
+      final Iterable<SInvokable> actual) {
+    List<SInvokable> e = new ArrayList<>();
+    expected.forEach(e::add);
+    List<SInvokable> a = new ArrayList<>();
+    actual.forEach(a::add);
+
+    assertEquals(e.size(), a.size());
+    for (int i = 0; i < e.size(); i++) {
+      assertSameMethod(e.get(i), a.get(i));
+    }
+  }
+
+  private static void assertSameMethod(final SInvokable expected, final SInvokable actual) {
+    assertSame(expected.getSignature(), actual.getSignature());
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getInvokable().getName(), actual.getInvokable().getName());
+    assertEquals(expected.getInvokable().getSourceCoordinate(),
+        actual.getInvokable().getSourceCoordinate());
+
+    if (!(expected instanceof SMethod)) {
+      return;
+    }
+
+    Method e = (Method) expected.getInvokable();
+    Method a = (Method) actual.getInvokable();
+    assertSameVariables(e.getScope(), a.getScope());
+    assertEquals(e.getScope().getFrameDescriptor().getNumberOfSlots(),
+        a.getScope().getFrameDescriptor().getNumberOfSlots());
+    assertEquals(((SMethod) expected).getEmbeddedBlocks().length,
+        ((SMethod) actual).getEmbeddedBlocks().length);
+    assertSameBody(e.getBody(), a.getBody());
+  }
+
+  private static void assertSameVariables(final LexicalScope expected,
+      final LexicalScope actual) {
+    Variable[] e = expected.getVariables();
+    Variable[] a = actual.getVariables();
+    assertEquals(e.length, a.length);
+    for (int i = 0; i < e.length; i++) {
+      assertEquals(e[i].getClass(), a[i].getClass());
+      assertEquals(e[i].name, a[i].name);
+      assertEquals(e[i].coord, a[i].coord);
+    }
+  }
+
+  private static void assertSameBody(final ExpressionNode expected,
+      final ExpressionNode actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getSourceCoordinate(), actual.getSourceCoordinate());
+
+    if (expected.getFirstMethodBodyNode() != expected) {
+      assertSameBody(expected.getFirstMethodBodyNode(), actual.getFirstMethodBodyNode());
+      return;
+    }
+
+    if (!(expected instanceof BytecodeLoopNode)) {
+      return;
+    }
+
+    BytecodeLoopNode e = (BytecodeLoopNode) expected;
+    BytecodeLoopNode a = (BytecodeLoopNode) actual;
+    assertArrayEquals(e.getBytecodeArray(), a.getBytecodeArray());
+    assertEquals(e.getNumberOfLocals(), a.getNumberOfLocals());
+    assertEquals(e.getMaximumNumberOfStackElements(), a.getMaximumNumberOfStackElements());
+    assertEquals(e.getFrameOnStackMarkerIndex(), a.getFrameOnStackMarkerIndex());
+    assertEquals(e.getContextLevel(), a.getContextLevel());
+
+    BackJump[] eLoops = e.getInlinedLoops();
+    BackJump[] aLoops = a.getInlinedLoops();
+    assertEquals(eLoops.length, aLoops.length);
+    for (int i = 0; i < eLoops.length; i++) {
+      assertEquals(eLoops[i].getLoopBeginIdx(), aLoops[i].getLoopBeginIdx());
+      assertEquals(eLoops[i].getBackwardsJumpIdx(), aLoops[i].getBackwardsJumpIdx());
+    }
+
+    Object[] eLits = e.getLiterals();
+    Object[] aLits = a.getLiterals();
+    assertEquals(eLits.length, aLits.length);
+    for (int i = 0; i < eLits.length; i++) {
+      if (eLits[i] instanceof SMethod) {
+        assertSameMethod((SMethod) eLits[i], (SMethod) aLits[i]);
+      } else {
+        assertEquals(eLits[i], aLits[i]);
+      }
+    }
+  }
+
+  private static Object send(final SClass clazz, final String selector,
+      final Object... args) {
+    SInvokable method = clazz.lookupInvokable(symbolFor(selector));
+    Object[] callArgs = new Object[args.length + 1];
+    callArgs[0] = new SObject(clazz);
+    System.arraycopy(args, 0, callArgs, 1, args.length);
+    return method.invoke(callArgs);
+  }
+
+  @Test
+  public void testLoadedClassHasSameStructure() throws IOException {
+    ParseCache cache = new ParseCache(folder.newFolder("cache"));
+    Source source = createSource(CODE, "Foo");
+    ClassGenerationContext parsed = parseAndStore(cache, source);
+
+    ClassGenerationContext loaded = cache.load("Foo", source, CODE);
+    assertNotNull(loaded);
+    assertSameStructure(parsed, loaded);
+  }
+
+  @Test
+  public void testLoadedClassExecutes() throws IOException {
+    ParseCache cache = new ParseCache(folder.newFolder("cache"));
+    Source source = createSource(CODE, "Foo");
+    parseAndStore(cache, source);
+
+    SClass clazz = cache.load("Foo", source, CODE).assemble();
+    assertEquals(10L, send(clazz, "loop"));
+    assertEquals(1L, send(clazz, "nlr:", true));
+    assertEquals(0L, send(clazz, "nlr:", false));
+    assertEquals(1L, send(clazz, "one"));
+    assertSame(Nil.nilObject, send(clazz, "none"));
+  }
+
+  @Test
+  public void testChangedContentIsNotLoaded() throws IOException {
+    ParseCache cache = new ParseCache(folder.newFolder("cache"));
+    Source source = createSource(CODE, "Foo");
+    parseAndStore(cache, source);
+
+    assertNull(cache.load("Foo", createSource(CODE + " ", "Foo"), CODE + " "));
+    assertNull(cache.load("Foo", createSource(CODE, "other/Foo"), CODE));
+  }
+
+  @Test
+  public void testStringsOver64KBAreCached() throws IOException {
+    ParseCache cache = new ParseCache(folder.newFolder("cache"));
+    String code = "Foo = nil ( foo = ( ^ '" + "x".repeat(70_000) + "' ) )";
+    Source source = createSource(code, "Foo");
+    ClassGenerationContext parsed = parseAndStore(cache, source);
+
+    ClassGenerationContext loaded = cache.load("Foo", source, code);
+    assertNotNull(loaded);
+    assertSameStructure(parsed, loaded);
+  }
+
+  @Test
+  public void testImageRestoresClassesWithTheirSource() throws IOException {
+    String bar = "Bar = nil ( bar = ( ^ 'bär' ) )";
+    String[] classPath = {"Smalltalk", "Examples"};
+
+    ParseCache saving = new ParseCache(null, true);
+    ClassGenerationContext foo = parseAndStore(saving, createSource(CODE, "Foo"));
+    parseAndStore(saving, createSource(bar, "Bar"));
+
+    File image = folder.newFile("test.image");
+    assertEquals(2, saving.saveImage(image, classPath));
+
+    ParseCache loading = new ParseCache(null, true);
+    loading.loadImage(image);
+
+    ClassGenerationContext restored = loading.restore("Foo", classPath);
+    assertSameStructure(foo, restored);
+    assertEquals(CODE, restored.getSource().getCharacters().toString());
+    assertEquals(bar,
+        loading.restore("Bar", classPath).getSource().getCharacters().toString());
+    assertNull(loading.restore("Baz", classPath));
+
+    // restored classes are saved again
+    assertEquals(2, loading.saveImage(folder.newFile("again.image"), classPath));
+  }
+
+  @Test
+  public void testImageIsOnlyUsedWithItsClassPath() throws IOException {
+    ParseCache saving = new ParseCache(null, true);
+    parseAndStore(saving, createSource(CODE, "Foo"));
+
+    File image = folder.newFile("test.image");
+    saving.saveImage(image, new String[] {"Smalltalk"});
+
+    ParseCache loading = new ParseCache(null);
+    loading.loadImage(image);
+    assertNull(loading.restore("Foo", new String[] {"Smalltalk", "Examples"}));
+    assertNotNull(loading.restore("Foo", new String[] {"Smalltalk"}));
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidImage() throws IOException {
+    File file = folder.newFile("invalid.image");
+    Files.writeString(file.toPath(), "not an image");
+    new ParseCache(null).loadImage(file);
+  }
+}
@@ -0,0 +1,65 @@
+package trufflesom.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import trufflesom.compiler.PreParser.PreParsed;
+import trufflesom.vm.ClassPathIndex;
+
+
+public class PreParserTests {
+
+  private static final String CODE = "Foo = Bar (\n"
+      + "  | a b |\n"
+      + "  method: arg = ( | l | l := arg + 1. ^ #(1 2.5 #sym 'str''s') )\n"
+      + "  ----\n"
+      + "  + other = ( \"comment\" ^ [:x | x <= other ] value: -1 )\n"
+      + ")";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private PreParser createPreParser() throws IOException {
+    File dir = folder.newFolder("lib");
+    Files.writeString(new File(dir, "Foo.som").toPath(), CODE);
+    ClassPathIndex index = new ClassPathIndex(new String[] {dir.getPath()});
+    return new PreParser(index.getClassFiles());
+  }
+
+  @Test
+  public void testPreParsedTokens() throws IOException {
+    PreParsed foo = createPreParser().take("Foo");
+    assertNotNull(foo);
+    assertEquals(CODE, foo.content);
+
+    Lexer expected = new Lexer(CODE);
+    Symbol sym;
+    do {
+      sym = expected.getSym();
+      assertEquals(sym, foo.lexer.getSym());
+      assertEquals(expected.getText(), foo.lexer.getText());
+      assertEquals(expected.getNumberOfCharactersRead(),
+          foo.lexer.getNumberOfCharactersRead());
+    } while (sym != Symbol.NONE);
+  }
+
+  @Test
+  public void testClassIsTakenOnce() throws IOException {
+    PreParser preParser = createPreParser();
+    assertNotNull(preParser.take("Foo"));
+    assertNull(preParser.take("Foo"));
+  }
+
+  @Test
+  public void testUnknownClass() throws IOException {
+    assertNull(createPreParser().take("Bar"));
+  }
+}
@@ -0,0 +1,144 @@
+package trufflesom.interpreter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.util.Arrays;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import trufflesom.bdt.basic.ProgramDefinitionError;
+import trufflesom.compiler.SourcecodeCompiler;
+import trufflesom.compiler.SourcecodeCompiler.AstCompiler;
+import trufflesom.compiler.SourcecodeCompiler.BcCompiler;
+import trufflesom.primitives.Primitives;
+import trufflesom.tests.TruffleTestSetup;
+import trufflesom.vm.Classes;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SSymbol;
+
+
+@RunWith(Parameterized.class)
+public class NonLocalReturnTests extends TruffleTestSetup {
+
+  private static final String SOURCE = "NonLocalReturn = nil (\n"
+      + "  recurse: depth with: blk = (\n"
+      + "    depth = 0 ifTrue: [\n"
+      + "      self recurse: 1 with: [ ^ #outer ].\n"
+      + "      ^ #notReached ].\n"
+      + "    blk value.\n"
+      + "    ^ #notReached )\n"
+      + "\n"
+      + "  recurseAndReturnLocally: depth = (\n"
+      + "    depth = 0 ifTrue: [ ^ [ ^ #inner ] value ].\n"
+      + "    self recurseAndReturnLocally: depth - 1.\n"
+      + "    ^ [ ^ depth ] value )\n"
+      + "\n"
+      + "  makeBlock = ( ^ [ ^ #fromBlock ] )\n"
+      + "  escapedBlock: blk = ( ^ #escaped )\n"
+      + "  evaluateEscaped = ( ^ self makeBlock value )\n"
+      + ")";
+
+  @Parameters(name = "{0}")
+  public static Iterable<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+        {"AST", new AstCompiler()},
+        {"BC", new BcCompiler()}
+    });
+  }
+
+  /** Test contexts do not load the core library, so there is no class for blocks. */
+  private static boolean installedBlockClass;
+
+  @BeforeClass
+  public static void init() {
+    reinitTruffleAndEnterContext();
+
+    if (Classes.blockClasses[1] == null) {
+      SClass blockClass = Classes.newSystemClass();
+      blockClass.setName(symbolFor("Block1"));
+      blockClass.getSOMClass().setName(symbolFor("Block1 class"));
+      Primitives.Current.installPrimitives(blockClass,
+          SomLanguage.getSyntheticSource("", "Block1"));
+
+      Classes.blockClasses[1] = blockClass;
+      installedBlockClass = true;
+    }
+  }
+
+  @AfterClass
+  public static void close() {
+    if (installedBlockClass) {
+      Classes.blockClasses[1] = null;
+      installedBlockClass = false;
+    }
+    closeContext();
+  }
+
+  private final SourcecodeCompiler compiler;
+
+  public NonLocalReturnTests(final String name, final SourcecodeCompiler compiler) {
+    this.compiler = compiler;
+  }
+
+  private Object send(final String selector, final Object... args) {
+    SClass clazz;
+    try {
+      clazz = compiler.compileClass(
+          SomLanguage.getSyntheticSource(SOURCE, "NonLocalReturn"), "NonLocalReturn", null,
+          null);
+    } catch (ProgramDefinitionError e) {
+      throw new RuntimeException(e);
+    }
+
+    SInvokable method = clazz.lookupInvokable(symbolFor(selector));
+    Object[] callArgs = new Object[args.length + 1];
+    callArgs[0] = new SObject(clazz);
+    System.arraycopy(args, 0, callArgs, 1, args.length);
+    return method.invoke(callArgs);
+  }
+
+  private static void assertSymbol(final String expected, final Object actual) {
+    assertEquals(expected, ((SSymbol) actual).getString());
+  }
+
+  @Test
+  public void testReturnToOuterActivationOfRecursiveMethod() {
+    // the inner activation of recurse:with: is on the stack, and does not catch the return
+    assertSymbol("outer", send("recurse:with:", 0L, Nil.nilObject));
+  }
+
+  @Test
+  public void testReturnToEachActivationOfRecursiveMethod() {
+    assertEquals(3L, send("recurseAndReturnLocally:", 3L));
+  }
+
+  @Test
+  public void testEscapedBlockSendsEscapedBlock() {
+    assertSymbol("escaped", send("evaluateEscaped"));
+  }
+
+  @Test
+  public void testReturnExceptionDoesNotRetainResultOrFrame() {
+    ReturnException e = new ReturnException();
+    Object result = symbolFor("result");
+
+    try {
+      throw e.returnTo(result, null);
+    } catch (ReturnException caught) {
+      assertEquals(result, caught.takeResult());
+    }
+
+    assertNull(read(e, "result", Object.class));
+    assertNull(read(e, "target", Object.class));
+  }
+}
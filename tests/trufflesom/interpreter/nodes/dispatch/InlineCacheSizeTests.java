@@ -0,0 +1,107 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.util.LinkedHashMap;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Context.Builder;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.nodes.NodeUtil;
+
+import trufflesom.Launcher;
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.tests.AstTestSetup;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SSymbol;
+
+
+public class InlineCacheSizeTests extends AstTestSetup {
+
+  private static Context createContext(final int sendCacheSize) {
+    Builder builder = Launcher.createContextBuilder();
+    builder.option("som.SEND_CACHE_SIZE", String.valueOf(sendCacheSize));
+    Context context = builder.build();
+    context.eval(SomLanguage.INIT);
+    return context;
+  }
+
+  private SInvokable method(final String source) {
+    return assembleLastMethod(parseMethod(source));
+  }
+
+  private SClass newClassWithFoo(final String name) {
+    SClass clazz = new SClass(0);
+    clazz.setName(symbolFor(name));
+
+    SInvokable foo = method("foo = ( ^ 1 )");
+    LinkedHashMap<SSymbol, SInvokable> invokables = new LinkedHashMap<>();
+    invokables.put(foo.getSignature(), foo);
+    clazz.setInstanceInvokables(invokables, false);
+    return clazz;
+  }
+
+  /** @return the generic dispatch node of the send, or {@code null} if it is not generic */
+  private GenericDispatchNode sendToThreeClasses() {
+    SClass[] classes = {newClassWithFoo("A"), newClassWithFoo("B"), newClassWithFoo("C")};
+
+    Invokable snippet = method("test: r = ( ^ r foo )").getInvokable();
+    CallTarget target = snippet.getCallTarget();
+    for (SClass c : classes) {
+      target.call(Nil.nilObject, new SObject(c));
+    }
+    return NodeUtil.findFirstNodeInstance(snippet, GenericDispatchNode.class);
+  }
+
+  @Test
+  public void testContextsKeepTheirOwnCacheSizes() {
+    Context small = createContext(2);
+    Context large = createContext(8);
+    try {
+      small.enter();
+      assertEquals(2, SomLanguage.getSendCacheSize());
+      small.leave();
+
+      large.enter();
+      assertEquals(8, SomLanguage.getSendCacheSize());
+      large.leave();
+
+      small.enter();
+      assertEquals(2, SomLanguage.getSendCacheSize());
+      small.leave();
+    } finally {
+      small.close();
+      large.close();
+    }
+  }
+
+  @Test
+  public void testSendCacheSizeLimitsDispatchChain() {
+    Context small = createContext(2);
+    small.enter();
+    try {
+      assertNotNull(sendToThreeClasses());
+    } finally {
+      small.leave();
+      small.close();
+    }
+
+    Context large = createContext(3);
+    large.enter();
+    try {
+      assertNull(sendToThreeClasses());
+    } finally {
+      large.leave();
+      large.close();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.util.LinkedHashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import trufflesom.bdt.source.SourceCoordinate;
+import trufflesom.primitives.Primitives;
+import trufflesom.vm.VmSettings;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SSymbol;
+
+
+public class MegamorphicMethodCacheTests {
+
+  private MegamorphicMethodCache cache;
+
+  private SSymbol selector;
+  private SClass  clazz;
+
+  @Before
+  public void setUp() {
+    cache = new MegamorphicMethodCache();
+
+    selector = symbolFor("cacheTestSelector");
+    clazz = new SClass(0);
+  }
+
+  private SInvokable createMethod() {
+    return Primitives.constructEmptyPrimitive(selector, null,
+        SourceCoordinate.create(1, 1), null);
+  }
+
+  private static LinkedHashMap<SSymbol, SInvokable> methods(final SInvokable... invokables) {
+    LinkedHashMap<SSymbol, SInvokable> result = new LinkedHashMap<>();
+    for (SInvokable i : invokables) {
+      result.put(i.getSignature(), i);
+    }
+    return result;
+  }
+
+  /** The statistics are only collected with {@link VmSettings#PrintMethodCacheStats}. */
+  private static long countIfEnabled(final long count) {
+    return VmSettings.PrintMethodCacheStats ? count : 0;
+  }
+
+  @Test
+  public void testSecondLookupHits() {
+    SInvokable method = createMethod();
+    clazz.setInstanceInvokables(methods(method), false);
+
+    assertSame(method, cache.lookup(clazz, selector));
+    assertSame(method, cache.lookup(clazz, selector));
+
+    assertEquals(countIfEnabled(1), cache.getHits());
+    assertEquals(countIfEnabled(1), cache.getMisses());
+  }
+
+  @Test
+  public void testUnknownSelectorIsNotCached() {
+    assertNull(cache.lookup(clazz, selector));
+    assertNull(cache.lookup(clazz, selector));
+
+    assertEquals(0, cache.getHits());
+    assertEquals(countIfEnabled(2), cache.getMisses());
+  }
+
+  @Test
+  public void testAddPrimitiveInvalidates() {
+    SInvokable method = createMethod();
+    clazz.setInstanceInvokables(methods(method), true);
+    assertSame(method, cache.lookup(clazz, selector));
+
+    SInvokable prim = createMethod();
+    clazz.addPrimitive(prim);
+    assertSame(prim, cache.lookup(clazz, selector));
+  }
+
+  @Test
+  public void testSetInstanceInvokablesInvalidates() {
+    SInvokable oldMethod = createMethod();
+    clazz.setInstanceInvokables(methods(oldMethod), false);
+    assertSame(oldMethod, cache.lookup(clazz, selector));
+
+    SInvokable newMethod = createMethod();
+    clazz.setInstanceInvokables(methods(newMethod), false);
+    assertSame(newMethod, cache.lookup(clazz, selector));
+  }
+
+  @Test
+  public void testCachesAreIndependent() {
+    SInvokable method = createMethod();
+    clazz.setInstanceInvokables(methods(method), false);
+
+    MegamorphicMethodCache other = new MegamorphicMethodCache();
+    assertSame(method, cache.lookup(clazz, selector));
+    assertSame(method, other.lookup(clazz, selector));
+
+    assertEquals(countIfEnabled(1), other.getMisses());
+    assertEquals(0, other.getHits());
+  }
+
+  @Test
+  public void testInvalidateFlushesAllCaches() {
+    SInvokable oldMethod = createMethod();
+    clazz.setInstanceInvokables(methods(oldMethod), false);
+
+    MegamorphicMethodCache other = new MegamorphicMethodCache();
+    assertSame(oldMethod, cache.lookup(clazz, selector));
+    assertSame(oldMethod, other.lookup(clazz, selector));
+
+    SInvokable newMethod = createMethod();
+    clazz.setInstanceInvokables(methods(newMethod), false);
+    assertSame(newMethod, cache.lookup(clazz, selector));
+    assertSame(newMethod, other.lookup(clazz, selector));
+  }
+}
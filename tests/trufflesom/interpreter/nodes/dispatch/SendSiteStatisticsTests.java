@@ -0,0 +1,131 @@
+package trufflesom.interpreter.nodes.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import java.util.LinkedHashMap;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.nodes.NodeUtil;
+
+import trufflesom.interpreter.Invokable;
+import trufflesom.interpreter.nodes.AbstractMessageSendNode;
+import trufflesom.interpreter.nodes.dispatch.SendSiteStatistics.Site;
+import trufflesom.tests.AstTestSetup;
+import trufflesom.vm.VmSettings;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SInvokable;
+import trufflesom.vmobjects.SObject;
+import trufflesom.vmobjects.SSymbol;
+
+
+/**
+ * The statistics are only recorded with {@code -Dsom.sendSiteStats=true}, which
+ * {@code mx tests-junit} sets for a separate run of these tests.
+ */
+public class SendSiteStatisticsTests extends AstTestSetup {
+
+  @BeforeClass
+  public static void init() {
+    reinitTruffleAndEnterContext();
+  }
+
+  @AfterClass
+  public static void close() {
+    closeContext();
+  }
+
+  @Before
+  public void setUp() {
+    assumeTrue(VmSettings.SendSiteStats);
+    SendSiteStatistics.reset();
+  }
+
+  private SInvokable method(final String source) {
+    return assembleLastMethod(parseMethod(source));
+  }
+
+  private SClass newClass(final String name, final SInvokable... methods) {
+    SClass clazz = new SClass(0);
+    clazz.setName(symbolFor(name));
+
+    LinkedHashMap<SSymbol, SInvokable> invokables = new LinkedHashMap<>();
+    for (SInvokable i : methods) {
+      invokables.put(i.getSignature(), i);
+    }
+    clazz.setInstanceInvokables(invokables, false);
+    return clazz;
+  }
+
+  private SClass newClassWithFoo(final String name) {
+    return newClass(name, method("foo = ( ^ 1 )"));
+  }
+
+  private Site runSnippet(final SClass... receiverClasses) {
+    Invokable snippet = method("test: r = ( ^ r foo )").getInvokable();
+    CallTarget target = snippet.getCallTarget();
+    for (SClass c : receiverClasses) {
+      target.call(Nil.nilObject, new SObject(c));
+    }
+
+    AbstractMessageSendNode send =
+        NodeUtil.findFirstNodeInstance(snippet, AbstractMessageSendNode.class);
+    return SendSiteStatistics.getRecordedSite(send);
+  }
+
+  @Test
+  public void testMonomorphicSite() {
+    SClass a = newClassWithFoo("A");
+    Site site = runSnippet(a, a, a);
+
+    assertEquals(1, site.getNumberOfReceivers());
+    assertEquals(1, site.getChainLength());
+    assertEquals(0, site.getDnuHits());
+    assertFalse(site.isPolymorphic());
+  }
+
+  @Test
+  public void testPolymorphicSite() {
+    SClass a = newClassWithFoo("A");
+    SClass b = newClassWithFoo("B");
+    SClass c = newClassWithFoo("C");
+    Site site = runSnippet(a, b, c, a, b, c);
+
+    assertEquals(3, site.getNumberOfReceivers());
+    assertEquals(3, site.getChainLength());
+    assertTrue(site.isPolymorphic());
+    assertFalse(site.isMegamorphic());
+  }
+
+  @Test
+  public void testMegamorphicSite() {
+    SClass[] classes = new SClass[10];
+    for (int i = 0; i < classes.length; i++) {
+      classes[i] = newClassWithFoo("C" + i);
+    }
+    Site site = runSnippet(classes);
+
+    assertTrue(site.isMegamorphic());
+    assertEquals(classes.length, site.getNumberOfReceivers());
+  }
+
+  @Test
+  public void testDnuHits() {
+    SClass a = newClassWithFoo("A");
+    SClass noFoo = newClass("NoFoo",
+        method("doesNotUnderstand: selector arguments: args = ( ^ 42 )"));
+    Site site = runSnippet(a, noFoo, noFoo, noFoo);
+
+    assertEquals(2, site.getNumberOfReceivers());
+    assertEquals(3, site.getDnuHits());
+  }
+}
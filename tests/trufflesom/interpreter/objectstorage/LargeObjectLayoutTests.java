@@ -0,0 +1,161 @@
+package trufflesom.interpreter.objectstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import trufflesom.interpreter.objectstorage.StorageLocation.DoubleArrayStoreLocation;
+import trufflesom.interpreter.objectstorage.StorageLocation.DoubleDirectStoreLocation;
+import trufflesom.interpreter.objectstorage.StorageLocation.LongArrayStoreLocation;
+import trufflesom.interpreter.objectstorage.StorageLocation.LongDirectStoreLocation;
+import trufflesom.interpreter.objectstorage.StorageLocation.ObjectArrayStorageLocation;
+import trufflesom.interpreter.objectstorage.StorageLocation.ObjectDirectStorageLocation;
+import trufflesom.vm.Classes;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SLargeObject;
+import trufflesom.vmobjects.SObject;
+
+
+public class LargeObjectLayoutTests {
+
+  private static final int NUM_FIELDS = 12;
+
+  @BeforeClass
+  public static void init() {
+    StorageAnalyzer.initAccessors();
+  }
+
+  private static ObjectLayout layoutWithFields(final SClass clazz,
+      final boolean forLargeObjects, final Class<?> type) {
+    ObjectLayout layout = new ObjectLayout(NUM_FIELDS, clazz, forLargeObjects);
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      layout = layout.withInitializedField(i, type);
+    }
+    return layout;
+  }
+
+  @Test
+  public void testOnlyClassesWithManyFieldsUseLargeObjects() {
+    SClass clazz = Classes.newSystemClass();
+
+    assertFalse(ObjectLayout.useLargeObjects(false, NUM_FIELDS, clazz));
+    assertFalse(ObjectLayout.useLargeObjects(true, SObject.NUM_OBJECT_FIELDS, clazz));
+    assertFalse(ObjectLayout.useLargeObjects(true, NUM_FIELDS, null));
+    assertTrue(ObjectLayout.useLargeObjects(true, SObject.NUM_OBJECT_FIELDS + 1, clazz));
+  }
+
+  @Test
+  public void testClassesAreNeverLargeObjects() {
+    SClass clazz = Classes.newSystemClass();
+    SClass metaclass = clazz.getSOMClass();
+
+    assertFalse(ObjectLayout.useLargeObjects(true, NUM_FIELDS, metaclass));
+    assertFalse(ObjectLayout.useLargeObjects(true, NUM_FIELDS, Classes.metaclassClass));
+    assertSame(SObject.class, SClass.class.getSuperclass());
+  }
+
+  @Test
+  public void testCreateMatchesLayout() {
+    SClass clazz = Classes.newSystemClass();
+
+    assertSame(SLargeObject.class,
+        SObject.create(clazz, new ObjectLayout(NUM_FIELDS, clazz, true)).getClass());
+    assertSame(SObject.class,
+        SObject.create(clazz, new ObjectLayout(NUM_FIELDS, clazz, false)).getClass());
+  }
+
+  @Test
+  public void testLargeLayoutNeedsFewerExtensionFields() {
+    SClass clazz = Classes.newSystemClass();
+
+    ObjectLayout large = layoutWithFields(clazz, true, Object.class);
+    ObjectLayout standard = layoutWithFields(clazz, false, Object.class);
+    assertEquals(NUM_FIELDS - SLargeObject.NUM_OBJECT_FIELDS,
+        large.getNumberOfUsedExtendedObjectStorageLocations());
+    assertEquals(NUM_FIELDS - SObject.NUM_OBJECT_FIELDS,
+        standard.getNumberOfUsedExtendedObjectStorageLocations());
+
+    large = layoutWithFields(clazz, true, Long.class);
+    standard = layoutWithFields(clazz, false, Long.class);
+    assertEquals(NUM_FIELDS - SLargeObject.NUM_PRIMITIVE_FIELDS,
+        large.getNumberOfUsedExtendedPrimStorageLocations());
+    assertEquals(NUM_FIELDS - SObject.NUM_PRIMITIVE_FIELDS,
+        standard.getNumberOfUsedExtendedPrimStorageLocations());
+  }
+
+  @Test
+  public void testObjectFields() {
+    SClass clazz = Classes.newSystemClass();
+    ObjectLayout layout = layoutWithFields(clazz, true, Object.class);
+    SObject obj = SObject.create(clazz, layout);
+
+    Object[] values = new Object[NUM_FIELDS];
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      StorageLocation location = layout.getStorageLocation(i);
+      if (i < SLargeObject.NUM_OBJECT_FIELDS) {
+        assertSame(ObjectDirectStorageLocation.class, location.getClass());
+      } else {
+        assertSame(ObjectArrayStorageLocation.class, location.getClass());
+      }
+
+      assertSame(Nil.nilObject, location.read(obj));
+      values[i] = new SObject(clazz);
+      location.write(obj, values[i]);
+    }
+
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      assertSame(values[i], layout.getStorageLocation(i).read(obj));
+    }
+  }
+
+  @Test
+  public void testLongFields() {
+    SClass clazz = Classes.newSystemClass();
+    ObjectLayout layout = layoutWithFields(clazz, true, Long.class);
+    SObject obj = SObject.create(clazz, layout);
+
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      StorageLocation location = layout.getStorageLocation(i);
+      if (i < SLargeObject.NUM_PRIMITIVE_FIELDS) {
+        assertSame(LongDirectStoreLocation.class, location.getClass());
+      } else {
+        assertSame(LongArrayStoreLocation.class, location.getClass());
+      }
+
+      assertSame(Nil.nilObject, location.read(obj));
+      location.write(obj, 1000L + i);
+    }
+
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      assertEquals(1000L + i, layout.getStorageLocation(i).read(obj));
+    }
+  }
+
+  @Test
+  public void testDoubleFields() {
+    SClass clazz = Classes.newSystemClass();
+    ObjectLayout layout = layoutWithFields(clazz, true, Double.class);
+    SObject obj = SObject.create(clazz, layout);
+
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      StorageLocation location = layout.getStorageLocation(i);
+      if (i < SLargeObject.NUM_PRIMITIVE_FIELDS) {
+        assertSame(DoubleDirectStoreLocation.class, location.getClass());
+      } else {
+        assertSame(DoubleArrayStoreLocation.class, location.getClass());
+      }
+
+      assertSame(Nil.nilObject, location.read(obj));
+      location.write(obj, i + 0.5);
+    }
+
+    for (int i = 0; i < NUM_FIELDS; i++) {
+      assertEquals(i + 0.5, layout.getStorageLocation(i).read(obj));
+    }
+  }
+}
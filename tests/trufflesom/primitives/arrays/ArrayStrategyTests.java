@@ -0,0 +1,84 @@
+package trufflesom.primitives.arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+
+
+public class ArrayStrategyTests {
+
+  private static SArray fill(final long... values) {
+    SArray arr = new SArray(values.length);
+    AtPutPrim.doEmptySArray(arr, 1, values[0]);
+    for (int i = 1; i < values.length; i++) {
+      AtPutPrim.doPartiallyEmptySArray(arr, i + 1, values[i]);
+    }
+    return arr;
+  }
+
+  @Test
+  public void testSmallIntegersUseByteStorage() {
+    SArray arr = fill(0, 1, 128, 255);
+    assertTrue(arr.isByteType());
+    assertEquals(128L, AtPrim.doByteSArray(arr, 3));
+    assertEquals(255L, AtPrim.doByteSArray(arr, 4));
+  }
+
+  @Test
+  public void testCharRangeIntegersUseCharStorage() {
+    SArray arr = fill(0, 256, 65535);
+    assertTrue(arr.isCharType());
+    assertEquals(65535L, AtPrim.doCharSArray(arr, 3));
+  }
+
+  @Test
+  public void testOtherIntegersUseLongStorage() {
+    assertTrue(fill(1, -1).isLongType());
+    assertTrue(fill(1, 65536).isLongType());
+  }
+
+  @Test
+  public void testByteStorageGeneralizesToChar() {
+    SArray arr = fill(1, 2, 200);
+    AtPutPrim.doByteSArrayWithLargerLong(arr, 1, 1000);
+    assertTrue(arr.isCharType());
+    assertArrayEquals(new char[] {1000, 2, 200}, arr.getCharStorage());
+  }
+
+  @Test
+  public void testByteStorageGeneralizesToLong() {
+    SArray arr = fill(1, 2, 200);
+    AtPutPrim.doByteSArrayWithLargerLong(arr, 2, -5);
+    assertTrue(arr.isLongType());
+    assertArrayEquals(new long[] {1, -5, 200}, arr.getLongStorage());
+  }
+
+  @Test
+  public void testCharStorageGeneralizesToLong() {
+    SArray arr = fill(1, 300);
+    AtPutPrim.doCharSArrayWithLargerLong(arr, 1, 70000);
+    assertTrue(arr.isLongType());
+    assertArrayEquals(new long[] {70000, 300}, arr.getLongStorage());
+  }
+
+  @Test
+  public void testByteStorageGeneralizesToObject() {
+    SArray arr = fill(7, 255);
+    AtPutPrim.doByteSArray(arr, 1, Nil.nilObject);
+    assertTrue(arr.isObjectType());
+    assertArrayEquals(new Object[] {Nil.nilObject, 255L}, arr.getObjectStorage());
+  }
+
+  @Test
+  public void testCopyKeepsStrategy() {
+    SArray arr = fill(1, 2, 3);
+    SArray copy = CopyPrim.doByteArray(arr);
+    assertTrue(copy.isByteType());
+    assertArrayEquals(arr.getByteStorage(), copy.getByteStorage());
+  }
+}
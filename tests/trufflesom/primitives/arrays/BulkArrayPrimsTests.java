@@ -0,0 +1,66 @@
+package trufflesom.primitives.arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+
+
+public class BulkArrayPrimsTests {
+
+  @Test
+  public void testCopyFromToKeepsStrategy() {
+    SArray arr = SArray.create(new long[] {1, 2, 3, 4, 5});
+    SArray copy = CopyFromToPrim.doLongArray(arr, 2, 4);
+    assertTrue(copy.isLongType());
+    assertArrayEquals(new long[] {2, 3, 4}, copy.getLongStorage());
+  }
+
+  @Test
+  public void testCopyFromToEmptyRange() {
+    SArray arr = SArray.create(new byte[] {1, 2, 3});
+    assertEquals(0, CopyFromToPrim.doByteArray(arr, 2, 1).getByteStorage().length);
+  }
+
+  @Test
+  public void testCopyFromToOfEmptyArray() {
+    SArray copy = CopyFromToPrim.doEmptyArray(new SArray(10), 3, 5);
+    assertTrue(copy.isEmptyType());
+    assertEquals(3, copy.getEmptyStorage());
+  }
+
+  @Test
+  public void testReplaceFromToWithStartingAt() {
+    SArray arr = SArray.create(new Object[] {"a", "b", "c", "d"});
+    SArray repl = SArray.create(new Object[] {"x", "y", "z"});
+
+    ReplaceFromToWithStartingAtPrim.doObjectArray(arr, 2, 3, repl, 2);
+    assertArrayEquals(new Object[] {"a", "y", "z", "d"}, arr.getObjectStorage());
+  }
+
+  @Test
+  public void testReplaceIntoEmptyArray() {
+    SArray arr = new SArray(4);
+    SArray repl = SArray.create(new Object[] {"x", "y"});
+
+    ReplaceFromToWithStartingAtPrim.doEmptyArray(arr, 1, 2, repl, 1);
+    assertArrayEquals(new Object[] {"x", "y", Nil.nilObject, Nil.nilObject},
+        arr.getObjectStorage());
+  }
+
+  @Test
+  public void testIndexOf() {
+    SArray arr = SArray.create(new long[] {5, 7, 7, 1000});
+    assertEquals(2L, IndexOfPrim.doLongArray(arr, 7));
+    assertSame(Nil.nilObject, IndexOfPrim.doLongArray(arr, 8));
+
+    SArray bytes = SArray.create(new byte[] {1, (byte) 200});
+    assertEquals(2L, IndexOfPrim.doByteArray(bytes, 200));
+    assertSame(Nil.nilObject, IndexOfPrim.doByteArray(bytes, 1000));
+  }
+}
@@ -0,0 +1,50 @@
+package trufflesom.primitives.basics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import org.junit.Test;
+
+import trufflesom.primitives.arrays.AtPutPrim;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SObject;
+
+
+public class HashPrimTests {
+
+  @Test
+  public void testSymbolHashIsStringHash() {
+    assertEquals("foo:bar:".hashCode(), HashPrim.doSSymbol(symbolFor("foo:bar:")));
+    assertEquals(HashPrim.doString("foo:bar:"), HashPrim.doSSymbol(symbolFor("foo:bar:")));
+  }
+
+  @Test
+  public void testObjectHashIsStable() {
+    SObject a = SObject.create(0);
+    SObject b = SObject.create(0);
+
+    long hashA = HashPrim.doSObject(a);
+    long hashB = HashPrim.doSObject(b);
+
+    assertTrue(hashA > 0);
+    assertNotEquals(hashA, hashB);
+    assertEquals(hashA, HashPrim.doSObject(a));
+    assertEquals(hashB, HashPrim.doSObject(b));
+  }
+
+  @Test
+  public void testArrayHashIsStable() {
+    SArray a = SArray.create(3);
+    SArray b = SArray.create(new long[] {1, 2, 3});
+
+    long hashA = HashPrim.doSArray(a);
+    assertTrue(hashA > 0);
+    assertNotEquals(hashA, HashPrim.doSArray(b));
+
+    // changing the storage strategy keeps the hash
+    AtPutPrim.doEmptySArray(a, 1, 42L);
+    assertEquals(hashA, HashPrim.doSArray(a));
+  }
+}
@@ -0,0 +1,71 @@
+package trufflesom.primitives.basics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import org.junit.Test;
+
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.primitives.Primitives;
+import trufflesom.primitives.basics.StringBuilderPrims.AppendPrim;
+import trufflesom.vm.Classes;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SStringBuilder;
+
+
+public class StringBuilderPrimsTests {
+
+  @Test
+  public void testAppend() {
+    SStringBuilder sb = new SStringBuilder(2);
+    AppendPrim.doString(sb, "{\"a\": ");
+    AppendPrim.doLong(sb, 42);
+    AppendPrim.doString(sb, ", \"b\": ");
+    AppendPrim.doDouble(sb, 1.5);
+    AppendPrim.doSSymbol(sb, symbolFor("}"));
+
+    assertEquals("{\"a\": 42, \"b\": 1.5}", sb.asString());
+    assertEquals(sb.asString().length(), sb.getSize());
+  }
+
+  @Test
+  public void testAppendStringBuilder() {
+    SStringBuilder sb = new SStringBuilder(SStringBuilder.DEFAULT_CAPACITY);
+    SStringBuilder other = new SStringBuilder(SStringBuilder.DEFAULT_CAPACITY);
+    other.append("abc");
+
+    assertSame(sb, AppendPrim.doStringBuilder(sb, other));
+    AppendPrim.doStringBuilder(sb, other);
+    assertEquals("abcabc", sb.asString());
+  }
+
+  @Test
+  public void testReset() {
+    SStringBuilder sb = new SStringBuilder(SStringBuilder.DEFAULT_CAPACITY);
+    sb.append("abc");
+    sb.reset();
+    sb.append("d");
+    assertEquals("d", sb.asString());
+  }
+
+  @Test
+  public void testInstallPrimitives() {
+    SClass clazz = Classes.newSystemClass();
+    clazz.setName(symbolFor("StringBuilder"));
+    clazz.getSOMClass().setName(symbolFor("StringBuilder class"));
+
+    Primitives.Current.installPrimitives(clazz,
+        SomLanguage.getSyntheticSource("", "StringBuilder"));
+
+    assertNotNull(clazz.lookupInvokable(symbolFor("append:")));
+    assertNotNull(clazz.lookupInvokable(symbolFor("asString")));
+    assertNotNull(clazz.getSOMClass().lookupInvokable(symbolFor("new")));
+  }
+
+  @Test
+  public void testClassOfStringBuilder() {
+    assertSame(Classes.stringBuilderClass, new SStringBuilder(1).getSOMClass());
+  }
+}
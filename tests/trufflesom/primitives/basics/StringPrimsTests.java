@@ -0,0 +1,121 @@
+package trufflesom.primitives.basics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import org.junit.Test;
+
+import trufflesom.primitives.basics.StringPrims.ConcatPrim;
+import trufflesom.primitives.basics.StringPrims.SubstringPrim;
+import trufflesom.primitives.basics.StringPrimsFactory.CharAtPrimFactory;
+import trufflesom.primitives.basics.StringPrimsFactory.CharCodeAtPrimFactory;
+import trufflesom.vmobjects.SRope;
+
+
+public class StringPrimsTests {
+
+  private static String repeat(final char c, final int n) {
+    return String.valueOf(c).repeat(n);
+  }
+
+  @Test
+  public void testShortConcatIsString() {
+    assertEquals("abcd", ConcatPrim.doString("ab", "cd"));
+    assertEquals("abcd", ConcatPrim.doString("ab", symbolFor("cd")));
+  }
+
+  @Test
+  public void testLongConcatIsRope() {
+    String a = repeat('a', SRope.MIN_LENGTH);
+    Object rope = ConcatPrim.doString(a, "b");
+    assertThat(rope, instanceOf(SRope.class));
+    assertEquals(SRope.MIN_LENGTH + 1, LengthPrim.doRope((SRope) rope));
+
+    // appending to a rope many times does not need recursion to flatten it
+    Object str = rope;
+    for (int i = 0; i < 100_000; i++) {
+      str = str instanceof SRope ? ConcatPrim.doRope((SRope) str, "c")
+          : ConcatPrim.doString((String) str, "c");
+    }
+    assertEquals(a + "b" + repeat('c', 100_000), ((SRope) str).getString());
+  }
+
+  @Test
+  public void testSubstringOfStringAndSlice() {
+    String str = repeat('a', 100) + repeat('b', 100);
+    assertEquals("ab", SubstringPrim.doString(str, 100, 101));
+
+    Object slice = SubstringPrim.doString(str, 51, 200);
+    assertThat(slice, instanceOf(SRope.class));
+    assertEquals(150, LengthPrim.doRope((SRope) slice));
+
+    Object sliceOfSlice = SubstringPrim.doRope((SRope) slice, 50, 150);
+    assertThat(sliceOfSlice, instanceOf(SRope.class));
+    assertEquals(str.substring(99, 200), ((SRope) sliceOfSlice).getString());
+
+    assertEquals("ab", SubstringPrim.doRope((SRope) slice, 50, 51));
+    assertEquals("Error - index out of bounds", SubstringPrim.doRope((SRope) slice, 0, 151));
+  }
+
+  @Test
+  public void testCharAt() {
+    String str = repeat('a', 100) + "xyz" + repeat('b', 100);
+    SRope slice = (SRope) SubstringPrim.doString(str, 2, 203);
+    SRope rope = (SRope) ConcatPrim.doString(str, "!");
+
+    assertEquals("x", CharAtPrimFactory.create(null, null).doRope(slice, 100));
+    assertEquals("!", CharAtPrimFactory.create(null, null).doRope(rope, 204));
+    assertEquals("Error - index out of bounds",
+        CharAtPrimFactory.create(null, null).doRope(slice, 203));
+  }
+
+  @Test
+  public void testEqualsAndHash() {
+    String str = repeat('a', 100);
+    SRope concat = (SRope) ConcatPrim.doString(repeat('a', 50), repeat('a', 50));
+    SRope slice = (SRope) SubstringPrim.doString(str + "b", 1, 100);
+
+    assertTrue(EqualsPrim.doRope(concat, slice));
+    assertTrue(EqualsPrim.doRope(concat, str));
+    assertTrue(EqualsPrim.doString(str, slice));
+    assertFalse(EqualsPrim.doRope(concat, str + "b"));
+
+    assertEquals(HashPrim.doString(str), HashPrim.doRope(concat));
+    assertEquals(HashPrim.doString(str), HashPrim.doRope(slice));
+  }
+
+  @Test
+  public void testCharAtOfLatin1DoesNotAllocate() {
+    String str = "a\u00e9\u20ac";
+    assertSame(CharAtPrimFactory.create(null, null).doString(str, 1),
+        CharAtPrimFactory.create(null, null).doString("bab", 2));
+    assertSame("\u00e9", CharAtPrimFactory.create(null, null).doString(str, 2));
+    assertEquals("\u20ac", CharAtPrimFactory.create(null, null).doString(str, 3));
+  }
+
+  @Test
+  public void testCharCodeAt() {
+    String str = repeat('a', 100) + "xyz";
+    SRope slice = (SRope) SubstringPrim.doString(str, 2, 103);
+
+    assertEquals(97L, CharCodeAtPrimFactory.create(null, null).doString(str, 1));
+    assertEquals(0x20acL, CharCodeAtPrimFactory.create(null, null).doString("\u20ac", 1));
+    assertEquals(122L, CharCodeAtPrimFactory.create(null, null).doRope(slice, 102));
+    assertEquals("Error - index out of bounds",
+        CharCodeAtPrimFactory.create(null, null).doString(str, 0));
+  }
+
+  @Test
+  public void testCharacterClassesAgreeWithCharacter() {
+    for (char c = 0; c < 512; c++) {
+      assertEquals(Character.isWhitespace(c), StringPrims.isWhiteSpace(c));
+      assertEquals(Character.isLetter(c), StringPrims.isLetter(c));
+      assertEquals(Character.isDigit(c), StringPrims.isDigit(c));
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package trufflesom.primitives.collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import org.junit.Test;
+
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.primitives.Primitives;
+import trufflesom.primitives.collections.GrowableArrayPrims.AddPrim;
+import trufflesom.primitives.collections.GrowableArrayPrims.AtPrim;
+import trufflesom.primitives.collections.GrowableArrayPrims.AtPutPrim;
+import trufflesom.primitives.collections.GrowableArrayPrims.RemoveFirstPrim;
+import trufflesom.primitives.collections.GrowableArrayPrims.RemoveLastPrim;
+import trufflesom.primitives.collections.GrowableArrayPrimsFactory.AddPrimFactory;
+import trufflesom.primitives.collections.GrowableArrayPrimsFactory.AtPrimFactory;
+import trufflesom.primitives.collections.GrowableArrayPrimsFactory.AtPutPrimFactory;
+import trufflesom.primitives.collections.GrowableArrayPrimsFactory.RemoveFirstPrimFactory;
+import trufflesom.primitives.collections.GrowableArrayPrimsFactory.RemoveLastPrimFactory;
+import trufflesom.vm.Classes;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SGrowableArray;
+
+
+public class GrowableArrayPrimsTests {
+
+  private final AddPrim         add         = AddPrimFactory.create(null, null);
+  private final AtPrim          at          = AtPrimFactory.create(null, null);
+  private final AtPutPrim       atPut       = AtPutPrimFactory.create(null, null, null);
+  private final RemoveFirstPrim removeFirst = RemoveFirstPrimFactory.create(null);
+  private final RemoveLastPrim  removeLast  = RemoveLastPrimFactory.create(null);
+
+  private void add(final SGrowableArray arr, final Object value) {
+    add.executeEvaluated(null, arr, value);
+  }
+
+  private Object at(final SGrowableArray arr, final long index) {
+    return at.executeEvaluated(null, arr, index);
+  }
+
+  @Test
+  public void testAddLongs() {
+    SGrowableArray arr = new SGrowableArray(1);
+    assertTrue(arr.getStorage().isEmptyType());
+
+    for (long i = 0; i < 1000; i++) {
+      add(arr, i);
+    }
+
+    assertTrue(arr.getStorage().isCharType());
+    assertEquals(1000, arr.getSize());
+    for (long i = 1; i <= 1000; i++) {
+      assertEquals(i - 1, at(arr, i));
+    }
+  }
+
+  @Test
+  public void testSmallIntegersUseByteStorage() {
+    SGrowableArray arr = new SGrowableArray(SGrowableArray.DEFAULT_CAPACITY);
+    for (long i = 0; i < 300; i++) {
+      add(arr, i % 256);
+    }
+
+    assertTrue(arr.getStorage().isByteType());
+    assertEquals(255L, at(arr, 256));
+  }
+
+  @Test
+  public void testGeneralizeToObject() {
+    SGrowableArray arr = new SGrowableArray(SGrowableArray.DEFAULT_CAPACITY);
+    add(arr, 1.5);
+    add(arr, 2.5);
+    add(arr, "three");
+
+    assertTrue(arr.getStorage().isObjectType());
+    assertEquals(1.5, at(arr, 1));
+    assertEquals("three", at(arr, 3));
+
+    SGrowableArray bools = new SGrowableArray(SGrowableArray.DEFAULT_CAPACITY);
+    add(bools, true);
+    assertEquals(42L, atPut.executeEvaluated(null, bools, 1L, 42L));
+    assertTrue(bools.getStorage().isObjectType());
+    assertEquals(42L, at(bools, 1));
+  }
+
+  @Test
+  public void testRemoveFirstAndLast() {
+    SGrowableArray arr = new SGrowableArray(4);
+    for (String s : new String[] {"a", "b", "c", "d", "e"}) {
+      add(arr, s);
+    }
+
+    assertEquals("a", removeFirst.executeEvaluated(null, arr));
+    assertEquals("e", removeLast.executeEvaluated(null, arr));
+    assertEquals(3, arr.getSize());
+    assertEquals("b", at(arr, 1));
+    assertEquals("d", at(arr, 3));
+
+    // removed elements are not kept alive by the storage
+    Object[] storage = arr.getStorage().getObjectStorage();
+    assertSame(Nil.nilObject, storage[0]);
+    assertSame(Nil.nilObject, storage[4]);
+
+    removeFirst.executeEvaluated(null, arr);
+    removeFirst.executeEvaluated(null, arr);
+    removeFirst.executeEvaluated(null, arr);
+    assertEquals(0, arr.getSize());
+    assertSame(Nil.nilObject, removeFirst.executeEvaluated(null, arr));
+  }
+
+  @Test
+  public void testQueueReusesStorage() {
+    SGrowableArray arr = new SGrowableArray(8);
+    add(arr, 0L);
+    for (long i = 1; i < 100_000; i++) {
+      add(arr, i);
+      assertEquals(i - 1, removeFirst.executeEvaluated(null, arr));
+    }
+
+    // the queue never holds more than two elements, moving them to the front is enough
+    assertEquals(8, arr.getCapacity());
+    assertEquals(1, arr.getSize());
+    assertEquals(99_999L, at(arr, 1));
+  }
+
+  @Test
+  public void testValidIndexes() {
+    SGrowableArray arr = new SGrowableArray(8);
+    add(arr, 1L);
+    add(arr, 2L);
+    removeFirst.executeEvaluated(null, arr);
+
+    assertFalse(arr.isValidIndex(0));
+    assertTrue(arr.isValidIndex(1));
+    assertFalse(arr.isValidIndex(2));
+    assertEquals(2L, at(arr, 1));
+  }
+
+  @Test
+  public void testAsArray() {
+    SGrowableArray arr = new SGrowableArray(2);
+    add(arr, 1L);
+    add(arr, 2L);
+    add(arr, 3L);
+    removeFirst.executeEvaluated(null, arr);
+
+    SArray result = arr.asArray();
+    assertTrue(result.isByteType());
+    assertArrayEquals(new byte[] {2, 3}, result.getByteStorage());
+
+    arr.removeAll();
+    assertTrue(arr.getStorage().isEmptyType());
+    assertTrue(arr.asArray().isEmptyType());
+  }
+
+  @Test
+  public void testInstallPrimitives() {
+    SClass clazz = Classes.growableArrayClass;
+    clazz.setName(symbolFor("GrowableArray"));
+    clazz.getSOMClass().setName(symbolFor("GrowableArray class"));
+
+    Primitives.Current.installPrimitives(clazz,
+        SomLanguage.getSyntheticSource("", "GrowableArray"));
+
+    assertNotNull(clazz.lookupInvokable(symbolFor("add:")));
+    assertNotNull(clazz.lookupInvokable(symbolFor("removeFirst")));
+    assertNotNull(clazz.getSOMClass().lookupInvokable(symbolFor("new:")));
+    assertSame(clazz, new SGrowableArray(1).getSOMClass());
+  }
+}
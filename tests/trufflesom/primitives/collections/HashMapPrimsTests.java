@@ -0,0 +1,170 @@
+package trufflesom.primitives.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static trufflesom.vm.SymbolTable.symbolFor;
+
+import org.junit.Test;
+
+import trufflesom.interpreter.SomLanguage;
+import trufflesom.primitives.Primitives;
+import trufflesom.primitives.collections.HashMapPrims.AtPrim;
+import trufflesom.primitives.collections.HashMapPrims.AtPutPrim;
+import trufflesom.primitives.collections.HashMapPrims.ContainsKeyPrim;
+import trufflesom.primitives.collections.HashMapPrims.RemoveKeyPrim;
+import trufflesom.vm.Classes;
+import trufflesom.vm.constants.Nil;
+import trufflesom.vmobjects.SArray;
+import trufflesom.vmobjects.SClass;
+import trufflesom.vmobjects.SHashMap;
+import trufflesom.vmobjects.SObject;
+
+
+public class HashMapPrimsTests {
+
+  @Test
+  public void testLongKeys() {
+    SHashMap map = new SHashMap(false, 2);
+    for (long i = -500; i < 500; i++) {
+      AtPutPrim.doLong(map, i, i * 2);
+    }
+
+    assertEquals(1000, map.size());
+    for (long i = -500; i < 500; i++) {
+      assertEquals(i * 2, AtPrim.doLong(map, i));
+    }
+    assertSame(Nil.nilObject, AtPrim.doLong(map, 500));
+    assertEquals(42L, AtPrim.doObject(map, 21L));
+
+    SArray keys = map.getKeys();
+    assertTrue(keys.isLongType());
+    assertEquals(1000, keys.getLongStorage().length);
+  }
+
+  @Test
+  public void testMixedKeys() {
+    SHashMap map = new SHashMap(false, SHashMap.DEFAULT_CAPACITY);
+    AtPutPrim.doLong(map, 1, "one");
+    AtPutPrim.doObject(map, symbolFor("two"), "two");
+    AtPutPrim.doObject(map, 3.5, "three");
+
+    assertEquals("one", AtPrim.doLong(map, 1));
+    assertEquals("one", AtPrim.doObject(map, 1L));
+    assertEquals("two", AtPrim.doObject(map, symbolFor("two")));
+    assertEquals("three", AtPrim.doObject(map, 3.5));
+    assertSame(Nil.nilObject, AtPrim.doObject(map, 3L));
+    assertTrue(map.getKeys().isObjectType());
+  }
+
+  @Test
+  public void testDoublesWithIntegerValueEqualIntegers() {
+    SHashMap map = new SHashMap(false, SHashMap.DEFAULT_CAPACITY);
+    AtPutPrim.doObject(map, 1.0, "one");
+    assertEquals("one", AtPrim.doLong(map, 1));
+
+    AtPutPrim.doLong(map, 1, "uno");
+    assertEquals(1, map.size());
+    assertEquals("uno", AtPrim.doObject(map, 1.0));
+    assertFalse(ContainsKeyPrim.doObject(map, -0.0));
+    assertTrue(map.getKeys().isLongType());
+
+    // 2^63 is just outside of the range of long
+    AtPutPrim.doObject(map, 0x1p63, "large");
+    assertSame(Nil.nilObject, AtPrim.doLong(map, Long.MAX_VALUE));
+    assertEquals("uno", RemoveKeyPrim.doObject(map, 1.0));
+    assertEquals(1, map.size());
+
+    SHashMap identityMap = new SHashMap(true, SHashMap.DEFAULT_CAPACITY);
+    AtPutPrim.doObject(identityMap, 1.0, "one");
+    assertSame(Nil.nilObject, AtPrim.doLong(identityMap, 1));
+  }
+
+  @Test
+  public void testStringsEqualSymbols() {
+    SHashMap map = new SHashMap(false, SHashMap.DEFAULT_CAPACITY);
+    AtPutPrim.doObject(map, "key", 1L);
+    AtPutPrim.doObject(map, new String("key".toCharArray()), 2L);
+
+    assertEquals(1, map.size());
+    assertEquals(2L, AtPrim.doObject(map, symbolFor("key")));
+
+    AtPutPrim.doObject(map, symbolFor("key"), 3L);
+    assertEquals(1, map.size());
+    assertEquals(3L, AtPrim.doObject(map, "key"));
+  }
+
+  @Test
+  public void testIdentityKeys() {
+    SHashMap map = new SHashMap(true, SHashMap.DEFAULT_CAPACITY);
+    String key = "key";
+    AtPutPrim.doObject(map, key, 1L);
+    AtPutPrim.doObject(map, new String(key.toCharArray()), 2L);
+    AtPutPrim.doObject(map, symbolFor("key"), 3L);
+    AtPutPrim.doLong(map, 4, 4L);
+
+    assertEquals(4, map.size());
+    assertEquals(1L, AtPrim.doObject(map, key));
+    assertEquals(3L, AtPrim.doObject(map, symbolFor("key")));
+    assertEquals(4L, AtPrim.doObject(map, 4L));
+  }
+
+  @Test
+  public void testObjectKeys() {
+    SClass clazz = new SClass(0);
+    SHashMap map = new SHashMap(false, SHashMap.DEFAULT_CAPACITY);
+    SObject[] objects = new SObject[100];
+    for (int i = 0; i < objects.length; i++) {
+      objects[i] = new SObject(clazz);
+      AtPutPrim.doObject(map, objects[i], (long) i);
+    }
+
+    assertEquals(objects.length, map.size());
+    for (int i = 0; i < objects.length; i++) {
+      assertEquals((long) i, AtPrim.doObject(map, objects[i]));
+    }
+    assertFalse(ContainsKeyPrim.doObject(map, new SObject(clazz)));
+  }
+
+  @Test
+  public void testRemoveKey() {
+    SHashMap map = new SHashMap(false, SHashMap.DEFAULT_CAPACITY);
+    for (long i = 0; i < 100; i++) {
+      AtPutPrim.doLong(map, i, i);
+    }
+    for (long i = 0; i < 100; i += 2) {
+      assertEquals(i, RemoveKeyPrim.doObject(map, i));
+    }
+    assertSame(Nil.nilObject, RemoveKeyPrim.doObject(map, 0L));
+
+    assertEquals(50, map.size());
+    for (long i = 0; i < 100; i++) {
+      assertEquals(i % 2 == 1, ContainsKeyPrim.doLong(map, i));
+    }
+
+    // fill the slots of removed entries again
+    for (long i = 0; i < 1000; i++) {
+      AtPutPrim.doLong(map, i, -i);
+      RemoveKeyPrim.doObject(map, i);
+    }
+    assertEquals(0, map.size());
+    assertEquals(0, map.getValues().getObjectStorage().length);
+  }
+
+  @Test
+  public void testInstallPrimitives() {
+    SClass clazz = Classes.identityHashMapClass;
+    clazz.setName(symbolFor("IdentityHashMap"));
+    clazz.getSOMClass().setName(symbolFor("IdentityHashMap class"));
+
+    Primitives.Current.installPrimitives(clazz,
+        SomLanguage.getSyntheticSource("", "IdentityHashMap"));
+
+    assertNotNull(clazz.lookupInvokable(symbolFor("at:put:")));
+    assertNotNull(clazz.lookupInvokable(symbolFor("keysAndValuesDo:")));
+    assertNotNull(clazz.getSOMClass().lookupInvokable(symbolFor("new:")));
+    assertSame(clazz, new SHashMap(true, 1).getSOMClass());
+  }
+}
@@ -2,6 +2,7 @@ package trufflesom.tests;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -23,7 +24,9 @@ import trufflesom.interpreter.nodes.NonLocalVariableNode.NonLocalVariableWriteNo
 import trufflesom.interpreter.nodes.ReturnNonLocalNode.ReturnLocalNode;
 import trufflesom.interpreter.nodes.SequenceNode;
 import trufflesom.interpreter.nodes.literals.BlockNode;
+import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithArgumentContext;
 import trufflesom.interpreter.nodes.literals.BlockNode.BlockNodeWithContext;
+import trufflesom.interpreter.nodes.literals.BlockNode.NonEscapingBlockNode;
 import trufflesom.interpreter.nodes.literals.DoubleLiteralNode;
 import trufflesom.interpreter.nodes.literals.GenericLiteralNode;
 import trufflesom.interpreter.nodes.literals.IntegerLiteralNode;
@@ -124,6 +127,57 @@ public class AstInliningTests extends AstTestSetup {
 
   }
 
+  private BlockNode blockInMethod(final String methodBody) {
+    SequenceNode seq = (SequenceNode) parseMethod("test: arg = ( | local |\n"
+        + methodBody + ".\n"
+        + "  local )");
+    return (BlockNode) read(seq, "expressions", 0);
+  }
+
+  @Test
+  public void testBlockContextOnlyForArguments() {
+    assertThat(blockInMethod("[ self ]"), instanceOf(BlockNodeWithArgumentContext.class));
+    assertThat(blockInMethod("[:a | arg + a ]"),
+        instanceOf(BlockNodeWithArgumentContext.class));
+    assertThat(blockInMethod("[ [ arg ] ]"), instanceOf(BlockNodeWithArgumentContext.class));
+
+    assertThat(blockInMethod("[ local ]"),
+        not(instanceOf(BlockNodeWithArgumentContext.class)));
+    assertThat(blockInMethod("[ [ local ] ]"),
+        not(instanceOf(BlockNodeWithArgumentContext.class)));
+    assertThat(blockInMethod("[ ^ arg ]"),
+        not(instanceOf(BlockNodeWithArgumentContext.class)));
+    assertThat(blockInMethod("[:a | [ a ] ]"),
+        not(instanceOf(BlockNodeWithArgumentContext.class)));
+  }
+
+  @Test
+  public void testBlockContextForArgumentOfInlinedBlock() {
+    SequenceNode seq = (SequenceNode) parseMethod(
+        "test: arg = ( 1 to: 2 do: [:i | [ arg + i ] ] )");
+    IntToDoInlinedLiteralsNode toDo =
+        (IntToDoInlinedLiteralsNode) read(seq, "expressions", 0);
+
+    // i is a local after inlining, and needs the full context
+    BlockNode block = read(toDo, "body", BlockNode.class);
+    assertThat(block, instanceOf(BlockNodeWithContext.class));
+    assertThat(block, not(instanceOf(BlockNodeWithArgumentContext.class)));
+  }
+
+  @Test
+  public void testNonEscapingBlockForDo() {
+    SequenceNode seq = (SequenceNode) parseMethod(
+        "test: arr = ( arr do: [:e | e ]. arr do: [:e | self ]. ^ [:e | e ] )");
+
+    DoPrim withoutContext = (DoPrim) read(seq, "expressions", 0);
+    assertThat(withoutContext.getArgument(), instanceOf(NonEscapingBlockNode.class));
+
+    DoPrim withContext = (DoPrim) read(seq, "expressions", 1);
+    assertThat(withContext.getArgument(), instanceOf(BlockNodeWithArgumentContext.class));
+
+    assertThat(read(seq, "expressions", 2), not(instanceOf(NonEscapingBlockNode.class)));
+  }
+
   private void ifArg(final String ifSelector, final boolean expected) {
     SequenceNode seq = (SequenceNode) parseMethod(
         "test: arg = (\n"
@@ -23,6 +23,11 @@ import trufflesom.vmobjects.SInvokable.SMethod;
 public class BytecodeMethodTests extends BytecodeTestSetup {
 
   private byte[] methodToBytecodes(final String source) {
+    return methodToBytecodes(source, false);
+  }
+
+  private byte[] methodToBytecodes(final String source,
+      final boolean useSuperinstructions) {
     Source s = SomLanguage.getSyntheticSource(source, "test");
 
     cgenc = new ClassGenerationContext(s, null);
@@ -30,6 +35,7 @@ public class BytecodeMethodTests extends BytecodeTestSetup {
     addAllFields();
 
     mgenc = new BytecodeMethodGenContext(cgenc, probe);
+    mgenc.setUseSuperinstructions(useSuperinstructions);
     mgenc.addArgumentIfAbsent(strSelf, SourceCoordinate.create(1, 1));
 
     ParserBc parser = new ParserBc(source, s, probe);
@@ -1101,4 +1107,86 @@ public class BytecodeMethodTests extends BytecodeTestSetup {
     returnField(3, new BC(Bytecodes.PUSH_FIELD, 3));
     returnField(4, new BC(Bytecodes.PUSH_FIELD, 4));
   }
+
+  @Test
+  public void testLocalConstSend() {
+    byte[] bytecodes = methodToBytecodes("test = ( | l | l := 3. ^ l < 5 )", true);
+
+    check(bytecodes,
+        Bytecodes.PUSH_CONSTANT_0,
+        Bytecodes.POP_LOCAL_0,
+        new BC(Bytecodes.LOCAL_CONST_SEND, 0, 1),
+        Bytecodes.RETURN_LOCAL);
+  }
+
+  @Test
+  public void testArgConstSend() {
+    byte[] bytecodes = methodToBytecodes("test: a = ( ^ a < 5 )", true);
+
+    check(bytecodes,
+        new BC(Bytecodes.ARG_CONST_SEND, 1, 0),
+        Bytecodes.RETURN_LOCAL);
+  }
+
+  @Test
+  public void testNoConstSendWithoutSuperinstructions() {
+    byte[] bytecodes = methodToBytecodes("test: a = ( ^ a < 5 )");
+
+    check(bytecodes,
+        Bytecodes.PUSH_ARG1,
+        Bytecodes.PUSH_CONSTANT_0,
+        Bytecodes.SEND,
+        Bytecodes.RETURN_LOCAL);
+  }
+
+  @Test
+  public void testReturnArg1() {
+    byte[] bytecodes = methodToBytecodes("test: a = ( ^ a )", true);
+
+    check(bytecodes, Bytecodes.RETURN_ARG1);
+  }
+
+  @Test
+  public void testInliningOfLocalConstSend() {
+    byte[] bytecodes = methodToBytecodes(
+        "test = ( | l | l := 3. true ifTrue: [ | b | b := l. b < 5 ] )", true);
+
+    // the block's superinstruction is split up again, since its local moved
+    check(bytecodes,
+        Bytecodes.PUSH_CONSTANT_0,
+        Bytecodes.POP_LOCAL_0,
+        Bytecodes.PUSH_CONSTANT_1,
+        Bytecodes.JUMP_ON_FALSE_TOP_NIL,
+        Bytecodes.PUSH_LOCAL_0,
+        Bytecodes.POP_LOCAL_1,
+        Bytecodes.PUSH_LOCAL_1,
+        Bytecodes.PUSH_CONSTANT_2,
+        Bytecodes.SEND,
+        Bytecodes.RETURN_SELF);
+  }
+
+  private void blockWithArgumentIsNotInlined(final String body) {
+    byte[] bytecodes = methodToBytecodes("test = ( true ifTrue: [:x | " + body + " ] )", true);
+
+    check(bytecodes,
+        Bytecodes.PUSH_CONSTANT_0,
+        new BC(Bytecodes.PUSH_BLOCK_NO_CTX, 1),
+        Bytecodes.SEND,
+        Bytecodes.RETURN_SELF);
+  }
+
+  @Test
+  public void testBlockWithArgumentIsNotInlined() {
+    blockWithArgumentIsNotInlined("x < 5");
+    blockWithArgumentIsNotInlined("x");
+  }
+
+  @Test
+  public void testBlockWithArgumentUsesSuperinstructions() {
+    methodToBytecodes("test = ( true ifTrue: [:x | x < 5 ] )", true);
+
+    check(getBytecodesOfBlock(1),
+        new BC(Bytecodes.ARG_CONST_SEND, 1, 0),
+        Bytecodes.RETURN_LOCAL);
+  }
 }
@@ -416,7 +416,7 @@ public class OptimizeTrivialTests extends TruffleTestSetup {
     int numFields = fieldNames.size();
     SClass clazz =
         parseMethodAndConstructClass(methodSig + " = ( " + methodBody + " )", superClass);
-    SObject object = new SObject(clazz, new ObjectLayout(numFields, clazz));
+    SObject object = SObject.create(clazz, new ObjectLayout(numFields, clazz));
     AbstractDispatchNode dispatch =
         UninitializedDispatchNode.createDispatch(object, symbolFor(methodName),
             null);
@@ -0,0 +1,90 @@
+package trufflesom.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import trufflesom.vm.ClassPathIndex.ClassFile;
+
+
+public class ClassPathIndexTests {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File createDirectory(final String name, final String... classes)
+      throws IOException {
+    File dir = folder.newFolder(name);
+    for (String c : classes) {
+      Files.writeString(new File(dir, c + ".som").toPath(), c + " = ()");
+    }
+    return dir;
+  }
+
+  private File createArchive(final String name, final String... entries)
+      throws IOException {
+    File archive = folder.newFile(name);
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+      for (String e : entries) {
+        out.putNextEntry(new ZipEntry(e));
+        out.write(("Entry = ( \"" + e + "\" )").getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+    return archive;
+  }
+
+  @Test
+  public void testDirectory() throws IOException {
+    File dir = createDirectory("lib", "Foo", "Bar");
+    ClassPathIndex index = new ClassPathIndex(new String[] {dir.getPath()});
+
+    assertEquals(2, index.getNumberOfClasses());
+    assertEquals(new File(dir, "Foo.som"), index.lookup("Foo").file);
+    assertNull(index.lookup("Baz"));
+  }
+
+  @Test
+  public void testFirstEntryWins() throws IOException {
+    File first = createDirectory("first", "Foo");
+    File second = createDirectory("second", "Foo", "Bar");
+    ClassPathIndex index =
+        new ClassPathIndex(new String[] {first.getPath(), second.getPath()});
+
+    assertEquals(new File(first, "Foo.som"), index.lookup("Foo").file);
+    assertEquals(new File(second, "Bar.som"), index.lookup("Bar").file);
+  }
+
+  @Test
+  public void testArchive() throws IOException {
+    File jar = createArchive("lib.jar", "Foo.som", "nested/Bar.som", "README");
+    ClassPathIndex index = new ClassPathIndex(new String[] {jar.getPath()});
+
+    assertEquals(1, index.getNumberOfClasses());
+    assertNull(index.lookup("Bar"));
+
+    ClassFile foo = index.lookup("Foo");
+    assertNotNull(foo);
+    assertNull(foo.file);
+    assertEquals("Entry = ( \"Foo.som\" )", foo.getSource().getCharacters().toString());
+  }
+
+  @Test
+  public void testMissingEntries() {
+    ClassPathIndex index = new ClassPathIndex(new String[] {
+        new File(folder.getRoot(), "missing").getPath(),
+        new File(folder.getRoot(), "missing.jar").getPath()});
+    assertEquals(0, index.getNumberOfClasses());
+  }
+}
@@ -0,0 +1,144 @@
+package trufflesom.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import trufflesom.vmobjects.SSymbol;
+
+
+public class SymbolTableTests {
+
+  private static final int NUM_THREADS = 8;
+  private static final int NUM_NAMES   = 50_000;
+
+  private static final int DYNAMIC_BATCH = 10_000;
+
+  @Test
+  public void testSameSymbolForEqualStrings() {
+    String name = "testSameSymbolForEqualStrings:";
+    String copy = new String(name.toCharArray());
+    assertNotSame(name, copy);
+
+    SSymbol symbol = SymbolTable.symbolFor(name);
+    assertSame(symbol, SymbolTable.symbolFor(copy));
+    assertEquals(name, symbol.getString());
+    assertEquals(2, symbol.getNumberOfSignatureArguments());
+  }
+
+  @Test
+  public void testExistingSymbolForCharacters() {
+    char[] chars = "x := testExistingSymbolForCharacters.".toCharArray();
+    String name = "testExistingSymbolForCharacters";
+    int start = 5;
+
+    assertNull(SymbolTable.existingSymbolFor(chars, start, name.length(), name.hashCode()));
+    // looking up does not add the symbol
+    assertNull(SymbolTable.existingSymbolFor(chars, start, name.length(), name.hashCode()));
+
+    SSymbol symbol = SymbolTable.symbolFor(name);
+    assertSame(symbol,
+        SymbolTable.existingSymbolFor(chars, start, name.length(), name.hashCode()));
+    assertNull(SymbolTable.existingSymbolFor(chars, start, name.length() - 1,
+        name.substring(0, name.length() - 1).hashCode()));
+  }
+
+  @Test
+  public void testConcurrentInterning() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+
+    try {
+      List<Future<SSymbol[]>> results = new ArrayList<>();
+      for (int t = 0; t < NUM_THREADS; t++) {
+        final boolean reverse = t % 2 == 1;
+        results.add(executor.submit(() -> {
+          start.await();
+          // enough new names to grow the table several times while threads race
+          SSymbol[] symbols = new SSymbol[NUM_NAMES];
+          for (int i = 0; i < NUM_NAMES; i++) {
+            int n = reverse ? NUM_NAMES - 1 - i : i;
+            symbols[n] = SymbolTable.symbolFor("concurrent" + n);
+          }
+          return symbols;
+        }));
+      }
+
+      start.countDown();
+
+      SSymbol[] first = results.get(0).get();
+      for (Future<SSymbol[]> result : results) {
+        SSymbol[] symbols = result.get();
+        for (int i = 0; i < NUM_NAMES; i++) {
+          assertSame(first[i], symbols[i]);
+        }
+      }
+
+      for (int i = 0; i < NUM_NAMES; i++) {
+        assertEquals("concurrent" + i, first[i].getString());
+        assertSame(first[i], SymbolTable.symbolFor("concurrent" + i));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDynamicSymbolIdentity() {
+    String name = "testDynamicSymbolIdentity:with:";
+    SSymbol symbol = SymbolTable.dynamicSymbolFor(name);
+    assertSame(symbol, SymbolTable.dynamicSymbolFor(new String(name.toCharArray())));
+    assertSame(symbol, SymbolTable.symbolFor(new String(name.toCharArray())));
+
+    assertSame(SymbolTable.symNil, SymbolTable.dynamicSymbolFor("nil"));
+  }
+
+  /** A separate method, so that no strong reference to the symbol is left behind. */
+  private static WeakReference<SSymbol> createDynamicSymbol(final String name) {
+    return new WeakReference<>(SymbolTable.dynamicSymbolFor(name));
+  }
+
+  private static void createDynamicSymbols(final String prefix) {
+    for (int i = 0; i < DYNAMIC_BATCH; i++) {
+      SymbolTable.dynamicSymbolFor(prefix + i);
+    }
+  }
+
+  @Test
+  public void testDynamicSymbolsAreCollected() throws InterruptedException {
+    WeakReference<SSymbol> symbol = createDynamicSymbol("testDynamicSymbolsAreCollected");
+    for (int i = 0; i < 100 && symbol.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull("the symbol table keeps the dynamic symbol alive", symbol.get());
+
+    // A rebuilt table has room for at most 4 slots per symbol that is alive. These are the
+    // symbols of before, of which there are at most half as many as slots, and one batch.
+    int bound = 4 * SymbolTable.getCapacity() + 8 * DYNAMIC_BATCH;
+    SSymbol kept = SymbolTable.dynamicSymbolFor("testDynamicSymbolsAreCollected:kept");
+
+    // keeping all of these symbols would need more slots than the bound
+    int numBatches = bound / (2 * DYNAMIC_BATCH) + 1;
+    for (int i = 0; i < numBatches; i++) {
+      createDynamicSymbols("testDynamicSymbolsAreCollected" + i + ":");
+      System.gc();
+    }
+
+    assertTrue("capacity " + SymbolTable.getCapacity() + " exceeds " + bound,
+        SymbolTable.getCapacity() <= bound);
+    assertSame(kept, SymbolTable.dynamicSymbolFor("testDynamicSymbolsAreCollected:kept"));
+  }
+}